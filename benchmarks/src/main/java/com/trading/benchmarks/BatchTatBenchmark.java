@@ -0,0 +1,66 @@
+package com.trading.benchmarks;
+
+import com.trading.model.Order;
+import com.trading.model.TatReport;
+import com.trading.service.BatchTatEngine;
+import com.trading.service.BusinessDurationCalculator;
+import com.trading.service.TatCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// One operation is a full batch of 10k orders; compare parallelism=1 against the core count
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchTatBenchmark {
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    @Param({"10", "100"})
+    public int transitions;
+
+    private TatCalculator calculator;
+    private BatchTatEngine engine;
+    private List<Order> orders;
+
+    @Setup
+    public void setUp() {
+        calculator = new TatCalculator(new BusinessDurationCalculator(),
+                Map.of(BenchmarkData.TEAM, BenchmarkData.teamConfig(5)));
+        engine = new BatchTatEngine(calculator, parallelism);
+        orders = BenchmarkData.orders(10_000, transitions, 23L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public List<TatReport> batchOrdered() {
+        return engine.calculateReports(orders);
+    }
+
+    @Benchmark
+    public List<TatReport> batchUnordered() {
+        return engine.calculateReports(orders.spliterator(), false);
+    }
+}
@@ -0,0 +1,74 @@
+package com.trading.benchmarks;
+
+import com.trading.model.ActivityBlock;
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.StatusTransition;
+import com.trading.model.TeamConfig;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Deterministic inputs shared by the benchmarks
+final class BenchmarkData {
+
+    static final String TEAM = "BENCH";
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private BenchmarkData() {
+    }
+
+    // Splits every status before COMPLETED into blockCount consecutive groups, one block per group
+    static TeamConfig teamConfig(int blockCount) {
+        int statuses = OrderStatus.COMPLETED.ordinal();
+        int perBlock = statuses / blockCount;
+        List<ActivityBlock> blocks = new ArrayList<>();
+        for (int block = 0; block < blockCount; block++) {
+            int from = block * perBlock;
+            int to = block == blockCount - 1 ? statuses : from + perBlock;
+            Set<OrderStatus> members = EnumSet.noneOf(OrderStatus.class);
+            for (int ordinal = from; ordinal < to; ordinal++) {
+                members.add(STATUSES[ordinal]);
+            }
+            blocks.add(ActivityBlock.builder()
+                    .statuses(members)
+                    .entryStatus(STATUSES[from])
+                    .firstInProgressStatus(STATUSES[Math.min(from + 1, to - 1)])
+                    .build());
+        }
+        return TeamConfig.builder()
+                .teamName(TEAM)
+                .activityBlocks(blocks)
+                .startTime(LocalTime.of(9, 0))
+                .cutoffTime(LocalTime.of(17, 0))
+                .zoneId(ZoneId.of("UTC"))
+                .build();
+    }
+
+    static List<Order> orders(int count, int transitions, long seed) {
+        Random random = new Random(seed);
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(order("ORDER-" + i, transitions, random));
+        }
+        return orders;
+    }
+
+    static Order order(String orderId, int transitions, Random random) {
+        LocalDateTime time = LocalDateTime.of(2023, 1, 2, 0, 0).plusMinutes(random.nextInt(30 * 24 * 60));
+        List<StatusTransition> list = new ArrayList<>(transitions);
+        for (int i = 0; i < transitions - 1; i++) {
+            list.add(new StatusTransition(STATUSES[random.nextInt(STATUSES.length - 1)], time));
+            time = time.plusMinutes(1 + random.nextInt(240));
+        }
+        list.add(new StatusTransition(OrderStatus.COMPLETED, time));
+        return Order.builder().orderId(orderId).status(OrderStatus.COMPLETED).statusTransitions(list).build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.trading.benchmarks;
+
+import com.trading.model.TeamConfig;
+import com.trading.service.BusinessDurationCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusinessDurationBenchmark {
+
+    @Param({"DAY_LOOP", "CONSTANT_TIME"})
+    public BusinessDurationCalculator.Mode mode;
+
+    // Span between start and end: same day, two weeks, six months
+    @Param({"PT6H", "P14D", "P182D"})
+    public String span;
+
+    private BusinessDurationCalculator calculator;
+    private TeamConfig config;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setUp() {
+        calculator = new BusinessDurationCalculator(mode);
+        config = BenchmarkData.teamConfig(1);
+        start = LocalDateTime.of(2023, 1, 2, 10, 15);
+        end = span.startsWith("PT")
+                ? start.plus(Duration.parse(span))
+                : start.plusDays(Long.parseLong(span.substring(1, span.length() - 1))).plusHours(3);
+    }
+
+    @Benchmark
+    public Duration calculateDuration() {
+        return calculator.calculateDuration(start, end, config);
+    }
+}
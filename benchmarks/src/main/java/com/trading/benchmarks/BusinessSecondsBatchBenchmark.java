@@ -0,0 +1,87 @@
+package com.trading.benchmarks;
+
+import com.trading.model.BusinessSecondsKernel;
+import com.trading.model.OrderTimeline;
+import com.trading.model.TeamConfig;
+import com.trading.service.BusinessDurationCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Business seconds for a batch of (start, end) pairs sharing one team: the per-pair LocalDateTime path
+// against the scalar and vector kernels over long[] epoch millis. Scores are per pair.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class BusinessSecondsBatchBenchmark {
+
+    private static final int PAIRS = 100_000;
+
+    private BusinessDurationCalculator calculator;
+    private TeamConfig config;
+    private LocalDateTime[] startTimes;
+    private LocalDateTime[] endTimes;
+    private long[] starts;
+    private long[] ends;
+    private long[] seconds;
+
+    @Setup
+    public void setUp() {
+        calculator = new BusinessDurationCalculator(BusinessDurationCalculator.Mode.CONSTANT_TIME);
+        config = BenchmarkData.teamConfig(1);
+        Random random = new Random(24);
+        long base = OrderTimeline.toEpochMillis(LocalDateTime.of(2023, 1, 2, 0, 0));
+        starts = new long[PAIRS];
+        ends = new long[PAIRS];
+        seconds = new long[PAIRS];
+        startTimes = new LocalDateTime[PAIRS];
+        endTimes = new LocalDateTime[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            starts[i] = base + (long) (random.nextDouble() * 365 * 86_400_000L);
+            ends[i] = starts[i] + (long) (random.nextDouble() * 30 * 86_400_000L);
+            startTimes[i] = OrderTimeline.toLocalDateTime(starts[i]);
+            endTimes[i] = OrderTimeline.toLocalDateTime(ends[i]);
+        }
+        if (!BusinessSecondsKernel.vectorAvailable()) {
+            throw new IllegalStateException("Run with --add-modules=jdk.incubator.vector");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public long[] perPair() {
+        for (int i = 0; i < PAIRS; i++) {
+            seconds[i] = calculator.calculateDuration(startTimes[i], endTimes[i], config).getSeconds();
+        }
+        return seconds;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public long[] scalarKernel() {
+        BusinessSecondsKernel.scalar(config.calendar(), starts, ends, seconds);
+        return seconds;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public long[] vectorKernel() {
+        BusinessSecondsKernel.vector(config.calendar(), starts, ends, seconds);
+        return seconds;
+    }
+}
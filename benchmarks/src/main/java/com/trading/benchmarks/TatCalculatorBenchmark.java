@@ -0,0 +1,64 @@
+package com.trading.benchmarks;
+
+import com.trading.model.Order;
+import com.trading.model.OrderTimeline;
+import com.trading.model.TatReport;
+import com.trading.service.BusinessDurationCalculator;
+import com.trading.service.TatCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TatCalculatorBenchmark {
+
+    @Param({"2", "5", "10"})
+    public int blocks;
+
+    @Param({"10", "100", "1000"})
+    public int transitions;
+
+    private TatCalculator calculator;
+    private Order order;
+    private OrderTimeline timeline;
+
+    @Setup
+    public void setUp() {
+        calculator = new TatCalculator(new BusinessDurationCalculator(),
+                Map.of(BenchmarkData.TEAM, BenchmarkData.teamConfig(blocks)));
+        order = BenchmarkData.orders(1, transitions, 17L).get(0);
+        timeline = OrderTimeline.of(order);
+    }
+
+    @Benchmark
+    public Duration calculateTeamTat() {
+        return calculator.calculateTeamTat(order, BenchmarkData.TEAM);
+    }
+
+    @Benchmark
+    public Duration calculateTeamTatOnTimeline() {
+        return calculator.calculateTeamTat(timeline, BenchmarkData.TEAM);
+    }
+
+    @Benchmark
+    public TatReport calculateReport() {
+        return calculator.calculateReport(order);
+    }
+}
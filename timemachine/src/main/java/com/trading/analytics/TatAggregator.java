@@ -0,0 +1,225 @@
+package com.trading.analytics;
+
+import com.trading.model.OrderStatus;
+import com.trading.model.TatReport;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collector;
+
+// Group-by over TatReports as a Collector, so it runs on parallel streams or BatchTatEngine.collect
+// (via Collectors.mapping(calculator::calculateReport, ...)). Each group key is packed into a long
+// and statistics live in parallel primitive arrays of an open-addressing table, so accumulating a
+// report allocates nothing. Only blocks the order entered contribute. Teams are grouped by name, so
+// reports from calculators with a different team order, e.g. before and after a TeamConfigRegistry
+// update, land in the same groups. Rows come out sorted by team name, block, terminal status and day,
+// however the work was split. At most 1023 teams and 1023 blocks per team can be grouped.
+public final class TatAggregator {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // Key layout, each field stored +1 so zero means "not grouped": team in bits 0-9, block in
+    // bits 10-19, terminal status in bits 20-26 and the entry epoch day, offset to stay positive, above
+    private static final int BLOCK_SHIFT = 10;
+    private static final int STATUS_SHIFT = 20;
+    private static final int DAY_SHIFT = 27;
+    private static final long FIELD_MASK = (1L << BLOCK_SHIFT) - 1;
+    private static final long STATUS_MASK = (1L << (DAY_SHIFT - STATUS_SHIFT)) - 1;
+    private static final long DAY_OFFSET = 1L << 35;
+
+    private static final Comparator<TatGroupStats> GROUP_ORDER = Comparator
+            .comparing(TatGroupStats::team, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparingInt(TatGroupStats::block)
+            .thenComparing(TatGroupStats::terminalStatus, Comparator.nullsFirst(Comparator.<OrderStatus>naturalOrder()))
+            .thenComparing(TatGroupStats::entryDay, Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder()));
+
+    private TatAggregator() {
+    }
+
+    public static Collector<TatReport, ?, List<TatGroupStats>> groupingBy(TatDimension... dimensions) {
+        Set<TatDimension> grouped = dimensions.length == 0 ? EnumSet.noneOf(TatDimension.class)
+                : EnumSet.copyOf(Arrays.asList(dimensions));
+        return Collector.of(() -> new GroupTable(grouped), GroupTable::add, GroupTable::merge, GroupTable::toStats,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    private static final class GroupTable {
+
+        private final boolean byTeam;
+        private final boolean byBlock;
+        private final boolean byDay;
+        private final boolean byStatus;
+
+        // Team ids in keys are positions in this list
+        private final List<String> teamNames = new ArrayList<>();
+        // Team ids for the positions of the last report's teamNames(), which reports of one calculator share
+        private List<String> mappedTeamNames;
+        private int[] mappedTeamIds;
+        private long[] keys = new long[64];
+        private long[] counts = new long[64];
+        private long[] sums = new long[64];
+        private long[] mins = new long[64];
+        private long[] maxes = new long[64];
+        private int size;
+
+        private GroupTable(Set<TatDimension> dimensions) {
+            this.byTeam = dimensions.contains(TatDimension.TEAM);
+            this.byBlock = dimensions.contains(TatDimension.BLOCK);
+            this.byDay = dimensions.contains(TatDimension.ENTRY_DAY);
+            this.byStatus = dimensions.contains(TatDimension.TERMINAL_STATUS);
+        }
+
+        private void add(TatReport report) {
+            if (report.teamNames() != mappedTeamNames) {
+                mappedTeamNames = report.teamNames();
+                mappedTeamIds = new int[mappedTeamNames.size()];
+                for (int team = 0; team < mappedTeamIds.length; team++) {
+                    mappedTeamIds[team] = teamId(mappedTeamNames.get(team));
+                }
+            }
+            long statusKey = byStatus && report.terminalStatus() != null
+                    ? (long) (report.terminalStatus().ordinal() + 1) << STATUS_SHIFT : 0;
+
+            for (int team = 0; team < report.teamNames().size(); team++) {
+                if (byBlock && report.blockCount(team) > FIELD_MASK) {
+                    throw new IllegalArgumentException("Cannot group more than " + FIELD_MASK + " blocks, team "
+                            + report.teamNames().get(team) + " has " + report.blockCount(team));
+                }
+                long teamKey = byTeam ? mappedTeamIds[team] + 1 : 0;
+                long teamMillis = 0;
+                long firstEntry = TatReport.NOT_ENTERED;
+                for (int block = 0; block < report.blockCount(team); block++) {
+                    long entry = report.blockEntryMillis(team, block);
+                    if (entry == TatReport.NOT_ENTERED) {
+                        continue;
+                    }
+                    long millis = report.blockTatMillis(team, block);
+                    if (byBlock) {
+                        add(teamKey | (long) (block + 1) << BLOCK_SHIFT | statusKey | dayKey(entry), millis);
+                    } else {
+                        teamMillis += millis;
+                        firstEntry = firstEntry == TatReport.NOT_ENTERED ? entry : Math.min(firstEntry, entry);
+                    }
+                }
+                if (!byBlock && firstEntry != TatReport.NOT_ENTERED) {
+                    add(teamKey | statusKey | dayKey(firstEntry), teamMillis);
+                }
+            }
+        }
+
+        private GroupTable merge(GroupTable other) {
+            for (int slot = 0; slot < other.keys.length; slot++) {
+                if (other.counts[slot] != 0) {
+                    long key = other.keys[slot];
+                    long team = key & FIELD_MASK;
+                    if (team != 0) {
+                        key = key & ~FIELD_MASK | teamId(other.teamNames.get((int) team - 1)) + 1;
+                    }
+                    merge(key, other.counts[slot], other.sums[slot], other.mins[slot], other.maxes[slot]);
+                }
+            }
+            return this;
+        }
+
+        private int teamId(String teamName) {
+            int id = teamNames.indexOf(teamName);
+            if (id < 0) {
+                id = teamNames.size();
+                if (id > FIELD_MASK - 1) {
+                    throw new IllegalArgumentException("Cannot group more than " + FIELD_MASK + " teams: " + teamName);
+                }
+                teamNames.add(teamName);
+            }
+            return id;
+        }
+
+        // Team ids depend on which worker's table the others were merged into, so rows are ordered by name
+        private List<TatGroupStats> toStats() {
+            List<TatGroupStats> stats = new ArrayList<>(size);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (counts[slot] == 0) {
+                    continue;
+                }
+                long key = keys[slot];
+                long team = key & FIELD_MASK;
+                long block = (key >>> BLOCK_SHIFT) & FIELD_MASK;
+                long status = (key >>> STATUS_SHIFT) & STATUS_MASK;
+                long day = key >>> DAY_SHIFT;
+                stats.add(new TatGroupStats(
+                        team == 0 ? null : teamNames.get((int) team - 1),
+                        (int) block - 1,
+                        day == 0 ? null : LocalDate.ofEpochDay(day - DAY_OFFSET),
+                        status == 0 ? null : OrderStatus.fromOrdinal((int) status - 1),
+                        counts[slot], sums[slot], mins[slot], maxes[slot]));
+            }
+            stats.sort(GROUP_ORDER);
+            return stats;
+        }
+
+        private long dayKey(long entryMillis) {
+            return byDay ? (Math.floorDiv(entryMillis, MILLIS_PER_DAY) + DAY_OFFSET) << DAY_SHIFT : 0;
+        }
+
+        private void add(long key, long millis) {
+            merge(key, 1, millis, millis, millis);
+        }
+
+        private void merge(long key, long count, long sum, long min, long max) {
+            int slot = find(key);
+            if (counts[slot] == 0) {
+                keys[slot] = key;
+                mins[slot] = min;
+                maxes[slot] = max;
+                counts[slot] = count;
+                sums[slot] = sum;
+                if (++size * 2 > keys.length) {
+                    grow();
+                }
+                return;
+            }
+            counts[slot] += count;
+            sums[slot] += sum;
+            mins[slot] = Math.min(mins[slot], min);
+            maxes[slot] = Math.max(maxes[slot], max);
+        }
+
+        // Slot holding the key, or the empty slot where it belongs
+        private int find(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+            while (counts[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldCounts = counts;
+            long[] oldSums = sums;
+            long[] oldMins = mins;
+            long[] oldMaxes = maxes;
+            int capacity = keys.length * 2;
+            keys = new long[capacity];
+            counts = new long[capacity];
+            sums = new long[capacity];
+            mins = new long[capacity];
+            maxes = new long[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldCounts[i] != 0) {
+                    int slot = find(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                    sums[slot] = oldSums[i];
+                    mins[slot] = oldMins[i];
+                    maxes[slot] = oldMaxes[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.trading.analytics;
+
+// What TatAggregator can group by. Without BLOCK each row is one order's TAT in one team, entered on
+// the day of the team's first block entry; with BLOCK each row is a single block. ENTRY_DAY is the
+// team's local day, also for reports calculated from UTC instants.
+public enum TatDimension {
+    TEAM,
+    BLOCK,
+    ENTRY_DAY,
+    TERMINAL_STATUS
+}
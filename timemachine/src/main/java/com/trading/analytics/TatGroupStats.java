@@ -0,0 +1,27 @@
+package com.trading.analytics;
+
+import com.trading.model.OrderStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+// Business TAT statistics of one group. Dimensions that were not grouped on are null, or -1 for block.
+public record TatGroupStats(
+    String team,
+    int block,
+    LocalDate entryDay,
+    OrderStatus terminalStatus,
+    long count,
+    long sumMillis,
+    long minMillis,
+    long maxMillis
+) {
+
+    public double meanMillis() {
+        return count == 0 ? 0 : (double) sumMillis / count;
+    }
+
+    public Duration mean() {
+        return Duration.ofMillis(Math.round(meanMillis()));
+    }
+}
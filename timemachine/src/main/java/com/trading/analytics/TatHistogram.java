@@ -0,0 +1,182 @@
+package com.trading.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+
+// Log-linear histogram of non-negative millisecond values, in the style of HdrHistogram. Values below
+// 2^precisionBits get a bucket each; above that every power of two is split into 2^precisionBits
+// buckets, so any recorded value is reported within a relative error of 2^-precisionBits (0.8% at
+// the default of 7). Memory depends only on the largest value seen, at most 58 * 128 counters by
+// default, never on how many values were recorded.
+//
+// Not thread-safe. Record into one histogram per thread and merge them afterwards.
+public final class TatHistogram {
+
+    public static final int DEFAULT_PRECISION_BITS = 7;
+
+    private final int precisionBits;
+    private final long subBucketMask;
+    private long[] counts;
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+
+    public TatHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    public TatHistogram(int precisionBits) {
+        if (precisionBits < 1 || precisionBits > 16) {
+            throw new IllegalArgumentException("precisionBits must be between 1 and 16: " + precisionBits);
+        }
+        this.precisionBits = precisionBits;
+        this.subBucketMask = (1L << precisionBits) - 1;
+        this.counts = new long[2 << precisionBits];
+    }
+
+    public int precisionBits() {
+        return precisionBits;
+    }
+
+    public void record(Duration duration) {
+        record(duration.toMillis());
+    }
+
+    public void record(long millis) {
+        record(millis, 1);
+    }
+
+    public void record(long millis, long count) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Negative value: " + millis);
+        }
+        int index = bucketIndex(millis);
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length * 2));
+        }
+        counts[index] += count;
+        totalCount += count;
+        min = Math.min(min, millis);
+        max = Math.max(max, millis);
+        sum += (double) millis * count;
+    }
+
+    public void merge(TatHistogram other) {
+        if (other.precisionBits != precisionBits) {
+            throw new IllegalArgumentException("Cannot merge histograms with precision " + precisionBits
+                    + " and " + other.precisionBits);
+        }
+        if (other.totalCount == 0) {
+            return;
+        }
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sum += other.sum;
+    }
+
+    public long totalCount() {
+        return totalCount;
+    }
+
+    public boolean isEmpty() {
+        return totalCount == 0;
+    }
+
+    // Exact, as are max and mean
+    public long minMillis() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long maxMillis() {
+        return max;
+    }
+
+    public double meanMillis() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    // Highest value in the bucket holding the given percentile (0-100), capped at the recorded maximum
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max);
+            }
+        }
+        return max;
+    }
+
+    public Duration percentile(double percentile) {
+        return Duration.ofMillis(valueAtPercentile(percentile));
+    }
+
+    // Sparse encoding: only non-empty buckets are written
+    public void writeTo(DataOutput out) throws IOException {
+        int nonEmpty = 0;
+        for (long count : counts) {
+            nonEmpty += count == 0 ? 0 : 1;
+        }
+        out.writeByte(precisionBits);
+        out.writeLong(totalCount);
+        out.writeLong(min);
+        out.writeLong(max);
+        out.writeDouble(sum);
+        out.writeInt(nonEmpty);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                out.writeInt(i);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    public static TatHistogram readFrom(DataInput in) throws IOException {
+        TatHistogram histogram = new TatHistogram(in.readByte());
+        histogram.totalCount = in.readLong();
+        histogram.min = in.readLong();
+        histogram.max = in.readLong();
+        histogram.sum = in.readDouble();
+        int nonEmpty = in.readInt();
+        for (int i = 0; i < nonEmpty; i++) {
+            int index = in.readInt();
+            if (index >= histogram.counts.length) {
+                histogram.counts = Arrays.copyOf(histogram.counts, index + 1);
+            }
+            histogram.counts[index] = in.readLong();
+        }
+        return histogram;
+    }
+
+    private int bucketIndex(long value) {
+        if (value <= subBucketMask) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - precisionBits;
+        return (int) (((long) (shift + 1) << precisionBits) + ((value >>> shift) & subBucketMask));
+    }
+
+    private long highestValueIn(int index) {
+        if (index <= subBucketMask) {
+            return index;
+        }
+        int shift = (index >>> precisionBits) - 1;
+        long lowest = ((index & subBucketMask) | (1L << precisionBits)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
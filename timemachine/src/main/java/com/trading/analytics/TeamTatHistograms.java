@@ -0,0 +1,157 @@
+package com.trading.analytics;
+
+import com.trading.model.Order;
+import com.trading.model.OrderTimeline;
+import com.trading.model.TatReport;
+import com.trading.service.TatCalculator;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collector;
+
+// Team TAT histograms per team and day. Instances are cheap to merge, so a parallel run records into
+// one per worker (see collector) and combines them at the end; writeTo/readFrom let partial results
+// from separate runs be combined the same way. Orders that never entered any of a team's blocks are
+// left out of that team's histograms; an order that entered and has zero TAT, e.g. in and out while
+// the team was closed, is recorded as zero.
+//
+// Not thread-safe.
+public final class TeamTatHistograms {
+
+    private static final int MAGIC = 0x54415448; // "TATH"
+    private static final int VERSION = 1;
+
+    private final int precisionBits;
+    private final Map<String, TreeMap<LocalDate, TatHistogram>> histograms = new HashMap<>();
+
+    public TeamTatHistograms() {
+        this(TatHistogram.DEFAULT_PRECISION_BITS);
+    }
+
+    public TeamTatHistograms(int precisionBits) {
+        this.precisionBits = precisionBits;
+    }
+
+    // Collects the reports of a batch of orders, each under the day of its last transition. Order times
+    // are team-local, so the day is the local day; instant timelines are not supported here.
+    public static Collector<Order, TeamTatHistograms, TeamTatHistograms> collector(TatCalculator calculator) {
+        return Collector.of(TeamTatHistograms::new,
+                (histograms, order) -> {
+                    OrderTimeline timeline = OrderTimeline.of(order);
+                    if (!timeline.isEmpty()) {
+                        LocalDate day = timeline.changeTimeAt(timeline.size() - 1).toLocalDate();
+                        histograms.record(day, calculator.calculateReport(timeline));
+                    }
+                },
+                TeamTatHistograms::merge,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public void record(LocalDate day, TatReport report) {
+        for (int team = 0; team < report.teamNames().size(); team++) {
+            if (entered(report, team)) {
+                record(report.teamNames().get(team), day, report.teamTatMillis(team));
+            }
+        }
+    }
+
+    private static boolean entered(TatReport report, int team) {
+        for (int block = 0; block < report.blockCount(team); block++) {
+            if (report.blockEntryMillis(team, block) != TatReport.NOT_ENTERED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void record(String team, LocalDate day, long millis) {
+        histograms.computeIfAbsent(team, t -> new TreeMap<>())
+                .computeIfAbsent(day, d -> new TatHistogram(precisionBits))
+                .record(millis);
+    }
+
+    public TeamTatHistograms merge(TeamTatHistograms other) {
+        other.histograms.forEach((team, days) -> days.forEach((day, histogram) ->
+                histograms.computeIfAbsent(team, t -> new TreeMap<>())
+                        .computeIfAbsent(day, d -> new TatHistogram(precisionBits))
+                        .merge(histogram)));
+        return this;
+    }
+
+    public SortedSet<String> teams() {
+        return new TreeSet<>(histograms.keySet());
+    }
+
+    public SortedSet<LocalDate> days(String team) {
+        return new TreeSet<>(histograms.getOrDefault(team, new TreeMap<>()).keySet());
+    }
+
+    // Empty when nothing was recorded for the team on that day
+    public TatHistogram histogram(String team, LocalDate day) {
+        TatHistogram histogram = histograms.getOrDefault(team, new TreeMap<>()).get(day);
+        return histogram != null ? histogram : new TatHistogram(precisionBits);
+    }
+
+    // All of a team's days, or the inclusive range between from and to, merged into one
+    public TatHistogram histogram(String team) {
+        return histogram(team, LocalDate.MIN, LocalDate.MAX);
+    }
+
+    public TatHistogram histogram(String team, LocalDate from, LocalDate to) {
+        TatHistogram merged = new TatHistogram(precisionBits);
+        NavigableMap<LocalDate, TatHistogram> days = histograms.getOrDefault(team, new TreeMap<>());
+        for (TatHistogram histogram : days.subMap(from, true, to, true).values()) {
+            merged.merge(histogram);
+        }
+        return merged;
+    }
+
+    public void writeTo(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(precisionBits);
+        out.writeInt(histograms.size());
+        for (Map.Entry<String, TreeMap<LocalDate, TatHistogram>> team : histograms.entrySet()) {
+            out.writeUTF(team.getKey());
+            out.writeInt(team.getValue().size());
+            for (Map.Entry<LocalDate, TatHistogram> day : team.getValue().entrySet()) {
+                out.writeLong(day.getKey().toEpochDay());
+                day.getValue().writeTo(out);
+            }
+        }
+        out.flush();
+    }
+
+    public static TeamTatHistograms readFrom(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a TAT histogram file");
+        }
+        int version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported TAT histogram version: " + version);
+        }
+        TeamTatHistograms result = new TeamTatHistograms(in.readByte());
+        int teams = in.readInt();
+        for (int i = 0; i < teams; i++) {
+            TreeMap<LocalDate, TatHistogram> days = new TreeMap<>();
+            result.histograms.put(in.readUTF(), days);
+            int dayCount = in.readInt();
+            for (int j = 0; j < dayCount; j++) {
+                days.put(LocalDate.ofEpochDay(in.readLong()), TatHistogram.readFrom(in));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+package com.trading.ingest;
+
+import com.trading.model.OrderStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Month;
+import java.time.Year;
+import java.util.Arrays;
+
+// Field decoding straight from the input bytes, so a row costs no Strings beyond a new order id
+final class ByteFields {
+
+    private static final byte[][] STATUS_NAMES = Arrays.stream(OrderStatus.values())
+            .map(status -> status.name().getBytes(StandardCharsets.US_ASCII))
+            .toArray(byte[][]::new);
+
+    private ByteFields() {
+    }
+
+    static int statusOrdinal(byte[] bytes, int start, int end) {
+        for (int ordinal = 0; ordinal < STATUS_NAMES.length; ordinal++) {
+            if (Arrays.equals(STATUS_NAMES[ordinal], 0, STATUS_NAMES[ordinal].length, bytes, start, end)) {
+                return ordinal;
+            }
+        }
+        throw new IllegalArgumentException("Unknown status: " + text(bytes, start, end));
+    }
+
+    // yyyy-MM-dd'T'HH:mm[:ss[.fraction]] read as UTC, or plain epoch millis. Digits past
+    // millisecond precision are truncated, as LocalDateTime to epoch millis does.
+    static long epochMillis(byte[] bytes, int start, int end) {
+        if (isDigits(bytes, start, end)) {
+            return digits(bytes, start, end - start);
+        }
+        if (end - start < 16 || bytes[start + 4] != '-' || bytes[start + 7] != '-'
+                || (bytes[start + 10] != 'T' && bytes[start + 10] != ' ') || bytes[start + 13] != ':') {
+            throw invalidTimestamp(bytes, start, end);
+        }
+        int year = (int) digits(bytes, start, 4);
+        int month = (int) digits(bytes, start + 5, 2);
+        int day = (int) digits(bytes, start + 8, 2);
+        int hour = (int) digits(bytes, start + 11, 2);
+        int minute = (int) digits(bytes, start + 14, 2);
+        int second = 0;
+        int millis = 0;
+
+        int position = start + 16;
+        if (position < end) {
+            if (bytes[position] != ':' || end - position < 3) {
+                throw invalidTimestamp(bytes, start, end);
+            }
+            second = (int) digits(bytes, position + 1, 2);
+            position += 3;
+            if (position < end) {
+                if (bytes[position] != '.' || position + 1 == end) {
+                    throw invalidTimestamp(bytes, start, end);
+                }
+                int scale = 100;
+                for (position++; position < end; position++) {
+                    millis += (int) digits(bytes, position, 1) * scale;
+                    scale /= 10;
+                }
+            }
+        }
+
+        if (month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))
+                || hour > 23 || minute > 59 || second > 59) {
+            throw invalidTimestamp(bytes, start, end);
+        }
+        long seconds = epochDay(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+        return seconds * 1_000L + millis;
+    }
+
+    static String text(byte[] bytes, int start, int end) {
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    // Days since 1970-01-01 of a proleptic Gregorian date
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+
+    private static boolean isDigits(byte[] bytes, int start, int end) {
+        if (start == end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (bytes[i] < '0' || bytes[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long digits(byte[] bytes, int start, int count) {
+        long value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Expected a digit at offset " + (i - start));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException invalidTimestamp(byte[] bytes, int start, int end) {
+        return new IllegalArgumentException("Invalid timestamp: " + text(bytes, start, end));
+    }
+}
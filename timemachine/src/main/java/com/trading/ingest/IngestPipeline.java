@@ -0,0 +1,199 @@
+package com.trading.ingest;
+
+import com.trading.model.OrderStatus;
+import com.trading.model.TatReport;
+import com.trading.service.StreamingTatEngine;
+import com.trading.service.TatCalculator;
+import lombok.Builder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+// Streams a transition export straight into TatReports without building Order objects. The calling
+// thread parses and routes rows by orderId hash into per-partition batches; each partition has a
+// worker thread with its own StreamingTatEngine. Partition queues are bounded, so a slow worker
+// stalls the parser instead of letting batches pile up. Memory is bounded by the open orders,
+// not by the size of the file.
+public class IngestPipeline {
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 16;
+    private static final int DEFAULT_BATCH_SIZE = 1024;
+    private static final Batch END = new Batch(0);
+
+    private final TatCalculator calculator;
+    private final int partitions;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long allowedLatenessMillis;
+    private final int reorderBufferCapacity;
+    private final boolean recomputeLateEvents;
+
+    public IngestPipeline(TatCalculator calculator) {
+        this(calculator, 0, 0, 0, 0, 0, false);
+    }
+
+    // Sizes left at zero fall back to one partition per core, 16 queued batches and 1024 rows per batch
+    @Builder
+    public IngestPipeline(TatCalculator calculator, int partitions, int queueCapacity, int batchSize,
+            long allowedLatenessMillis, int reorderBufferCapacity, boolean recomputeLateEvents) {
+        this.calculator = calculator;
+        this.partitions = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity > 0 ? queueCapacity : DEFAULT_QUEUE_CAPACITY;
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        this.allowedLatenessMillis = allowedLatenessMillis;
+        this.reorderBufferCapacity = reorderBufferCapacity;
+        this.recomputeLateEvents = recomputeLateEvents;
+    }
+
+    public IngestSummary run(Path file, TransitionFormat format, Consumer<TatReport> sink) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return run(in, format, sink);
+        }
+    }
+
+    // The sink is called from the worker threads and must be thread-safe
+    public IngestSummary run(InputStream in, TransitionFormat format, Consumer<TatReport> sink) throws IOException {
+        Worker[] workers = new Worker[partitions];
+        for (int i = 0; i < partitions; i++) {
+            workers[i] = new Worker(sink);
+            workers[i].thread = Thread.ofPlatform().name("tat-ingest-" + i).start(workers[i]);
+        }
+
+        Batch[] pending = new Batch[partitions];
+        long rows;
+        try {
+            rows = new TransitionParser(format).parse(in, (orderId, ordinal, time) -> {
+                int partition = Math.floorMod(orderId.hashCode(), partitions);
+                Batch batch = pending[partition];
+                if (batch == null) {
+                    batch = new Batch(batchSize);
+                    pending[partition] = batch;
+                }
+                batch.add(orderId, ordinal, time);
+                if (batch.size == batchSize) {
+                    workers[partition].send(batch);
+                    pending[partition] = null;
+                }
+            });
+        } finally {
+            for (int i = 0; i < partitions; i++) {
+                if (pending[i] != null) {
+                    workers[i].send(pending[i]);
+                }
+                workers[i].send(END);
+            }
+            for (Worker worker : workers) {
+                worker.join();
+            }
+        }
+
+        long reports = 0;
+        int openOrders = 0;
+        long lateEvents = 0;
+        long droppedEvents = 0;
+        for (Worker worker : workers) {
+            if (worker.failure != null) {
+                throw new IllegalStateException("TAT worker failed", worker.failure);
+            }
+            reports += worker.reports;
+            openOrders += worker.engine.openOrderCount();
+            lateEvents += worker.engine.lateEventCount();
+            droppedEvents += worker.engine.droppedEventCount();
+        }
+        return new IngestSummary(rows, reports, openOrders, lateEvents, droppedEvents);
+    }
+
+    private static final class Batch {
+
+        private final String[] orderIds;
+        private final byte[] ordinals;
+        private final long[] times;
+        private int size;
+
+        private Batch(int capacity) {
+            this.orderIds = new String[capacity];
+            this.ordinals = new byte[capacity];
+            this.times = new long[capacity];
+        }
+
+        private void add(String orderId, int ordinal, long time) {
+            orderIds[size] = orderId;
+            ordinals[size] = (byte) ordinal;
+            times[size] = time;
+            size++;
+        }
+    }
+
+    private final class Worker implements Runnable {
+
+        private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final StreamingTatEngine engine;
+        private Thread thread;
+        private long reports;
+        private Throwable failure;
+
+        private Worker(Consumer<TatReport> sink) {
+            this.engine = StreamingTatEngine.builder()
+                    .calculator(calculator)
+                    .sink(report -> {
+                        reports++;
+                        sink.accept(report);
+                    })
+                    .allowedLatenessMillis(allowedLatenessMillis)
+                    .reorderBufferCapacity(reorderBufferCapacity)
+                    .recomputeLateEvents(recomputeLateEvents)
+                    .build();
+        }
+
+        @Override
+        public void run() {
+            try {
+                Batch batch;
+                while ((batch = queue.take()) != END) {
+                    // After a failure keep draining so the parser never blocks on a full queue
+                    if (failure != null) {
+                        continue;
+                    }
+                    try {
+                        for (int i = 0; i < batch.size; i++) {
+                            engine.onEvent(batch.orderIds[i], OrderStatus.fromOrdinal(batch.ordinals[i]), batch.times[i]);
+                        }
+                    } catch (RuntimeException e) {
+                        failure = e;
+                    }
+                }
+                if (failure == null) {
+                    engine.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        private void send(Batch batch) {
+            try {
+                queue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing transitions", e);
+            }
+        }
+
+        private void join() {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for TAT workers", e);
+            }
+        }
+    }
+}
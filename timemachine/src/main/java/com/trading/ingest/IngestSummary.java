@@ -0,0 +1,10 @@
+package com.trading.ingest;
+
+// Counts from one IngestPipeline run. Orders still open never reached COMPLETED in the input.
+public record IngestSummary(
+    long rows,
+    long reports,
+    int openOrders,
+    long lateEvents,
+    long droppedEvents
+) {}
@@ -0,0 +1,79 @@
+package com.trading.ingest;
+
+import java.util.Arrays;
+
+// Maps order id bytes to one shared String per id, so repeated rows of an order allocate nothing.
+// Open addressing over the raw bytes; once maxSize ids are held the table is cleared rather than
+// grown, which bounds memory on feeds with an endless stream of new orders.
+final class OrderIdInterner {
+
+    private final int maxSize;
+    private byte[][] keys;
+    private String[] values;
+    private int[] hashes;
+    private int size;
+
+    OrderIdInterner(int maxSize) {
+        this.maxSize = maxSize;
+        allocate(1 << 10);
+    }
+
+    String intern(byte[] bytes, int start, int end) {
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        int mask = keys.length - 1;
+        int slot = mix(hash) & mask;
+        while (keys[slot] != null) {
+            if (hashes[slot] == hash && Arrays.equals(keys[slot], 0, keys[slot].length, bytes, start, end)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        String value = ByteFields.text(bytes, start, end);
+        if (size >= maxSize) {
+            allocate(keys.length);
+        } else if (size * 2 >= keys.length) {
+            rehash();
+        }
+        insert(Arrays.copyOfRange(bytes, start, end), value, hash);
+        return value;
+    }
+
+    private void insert(byte[] key, String value, int hash) {
+        int mask = keys.length - 1;
+        int slot = mix(hash) & mask;
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        hashes[slot] = hash;
+        size++;
+    }
+
+    private void rehash() {
+        byte[][] oldKeys = keys;
+        String[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                insert(oldKeys[i], oldValues[i], oldHashes[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new byte[capacity][];
+        values = new String[capacity];
+        hashes = new int[capacity];
+        size = 0;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,9 @@
+package com.trading.ingest;
+
+// Layouts of a transition export, one transition per line. CSV needs a header naming the orderId,
+// status and changeTime (or timestamp) columns; JSONL objects carry the same keys. Times are ISO
+// local date-times (seconds and fraction optional, 'T' or space separator) or epoch millis.
+public enum TransitionFormat {
+    CSV,
+    JSONL
+}
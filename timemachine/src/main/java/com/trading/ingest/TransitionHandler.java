@@ -0,0 +1,8 @@
+package com.trading.ingest;
+
+@FunctionalInterface
+public interface TransitionHandler {
+
+    // Times are local epoch millis, as in OrderTimeline
+    void onTransition(String orderId, int statusOrdinal, long epochMillis);
+}
@@ -0,0 +1,299 @@
+package com.trading.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Reads a transition export in fixed-size chunks and decodes each line in place. Lines are never
+// turned into Strings; only a previously unseen order id is. A line longer than the chunk grows the
+// buffer. Not thread-safe; use one parser per input.
+public final class TransitionParser {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+    private static final int DEFAULT_MAX_INTERNED_IDS = 1 << 20;
+
+    private static final byte[] ORDER_ID = bytes("orderId");
+    private static final byte[] STATUS = bytes("status");
+    private static final byte[] CHANGE_TIME = bytes("changeTime");
+    private static final byte[] TIMESTAMP = bytes("timestamp");
+
+    private final TransitionFormat format;
+    private final int chunkSize;
+    private final OrderIdInterner orderIds;
+
+    private TransitionHandler handler;
+    private long lineNumber;
+    private long rows;
+    // CSV column positions, known once the header has been read
+    private int orderIdColumn = -1;
+    private int statusColumn = -1;
+    private int timeColumn = -1;
+    private int columnCount;
+
+    // Field bounds of the line being decoded
+    private int orderIdStart;
+    private int orderIdEnd;
+    private int statusStart;
+    private int statusEnd;
+    private int timeStart;
+    private int timeEnd;
+
+    public TransitionParser(TransitionFormat format) {
+        this(format, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_INTERNED_IDS);
+    }
+
+    public TransitionParser(TransitionFormat format, int chunkSize, int maxInternedIds) {
+        this.format = format;
+        this.chunkSize = chunkSize;
+        this.orderIds = new OrderIdInterner(maxInternedIds);
+    }
+
+    // Hands every row to the handler in file order and returns the number of rows. Malformed lines
+    // fail with an IllegalArgumentException naming the line.
+    public long parse(InputStream in, TransitionHandler handler) throws IOException {
+        this.handler = handler;
+        lineNumber = 0;
+        rows = 0;
+        orderIdColumn = -1;
+
+        byte[] buffer = new byte[chunkSize];
+        int limit = 0;
+        int lineStart = 0;
+        int scan = 0;
+        while (true) {
+            if (limit == buffer.length) {
+                if (lineStart > 0) {
+                    System.arraycopy(buffer, lineStart, buffer, 0, limit - lineStart);
+                    limit -= lineStart;
+                    scan -= lineStart;
+                    lineStart = 0;
+                } else {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                break;
+            }
+            limit += read;
+            for (; scan < limit; scan++) {
+                if (buffer[scan] == '\n') {
+                    line(buffer, lineStart, scan);
+                    lineStart = scan + 1;
+                }
+            }
+        }
+        if (lineStart < limit) {
+            line(buffer, lineStart, limit);
+        }
+        return rows;
+    }
+
+    private void line(byte[] bytes, int start, int end) {
+        lineNumber++;
+        start = skipWhitespace(bytes, start, end);
+        end = trimEnd(bytes, start, end);
+        if (start == end) {
+            return;
+        }
+
+        try {
+            if (format == TransitionFormat.JSONL) {
+                jsonFields(bytes, start, end);
+            } else if (orderIdColumn < 0) {
+                csvHeader(bytes, start, end);
+                return;
+            } else {
+                csvFields(bytes, start, end);
+            }
+            if (orderIdStart < 0 || statusStart < 0 || timeStart < 0) {
+                throw new IllegalArgumentException("Missing orderId, status or changeTime");
+            }
+            handler.onTransition(orderIds.intern(bytes, orderIdStart, orderIdEnd),
+                    ByteFields.statusOrdinal(bytes, statusStart, statusEnd),
+                    ByteFields.epochMillis(bytes, timeStart, timeEnd));
+            rows++;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void csvHeader(byte[] bytes, int start, int end) {
+        String[] columns = ByteFields.text(bytes, start, end).split(",", -1);
+        statusColumn = -1;
+        timeColumn = -1;
+        int orderIdIndex = -1;
+        for (int i = 0; i < columns.length; i++) {
+            String column = columns[i].strip().replace("\"", "");
+            if (column.equalsIgnoreCase("orderId")) {
+                orderIdIndex = i;
+            } else if (column.equalsIgnoreCase("status")) {
+                statusColumn = i;
+            } else if (column.equalsIgnoreCase("changeTime") || column.equalsIgnoreCase("timestamp")) {
+                timeColumn = i;
+            }
+        }
+        if (orderIdIndex < 0 || statusColumn < 0 || timeColumn < 0) {
+            throw new IllegalArgumentException("CSV header must name orderId, status and changeTime columns");
+        }
+        orderIdColumn = orderIdIndex;
+        columnCount = columns.length;
+    }
+
+    private void csvFields(byte[] bytes, int start, int end) {
+        orderIdStart = -1;
+        statusStart = -1;
+        timeStart = -1;
+        int column = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end && column < columnCount; i++) {
+            if (i < end && bytes[i] != ',') {
+                continue;
+            }
+            int from = skipWhitespace(bytes, fieldStart, i);
+            int to = trimEnd(bytes, from, i);
+            if (to - from >= 2 && bytes[from] == '"' && bytes[to - 1] == '"') {
+                from++;
+                to--;
+            }
+            if (column == orderIdColumn) {
+                orderIdStart = from;
+                orderIdEnd = to;
+            } else if (column == statusColumn) {
+                statusStart = from;
+                statusEnd = to;
+            } else if (column == timeColumn) {
+                timeStart = from;
+                timeEnd = to;
+            }
+            column++;
+            fieldStart = i + 1;
+        }
+    }
+
+    // One flat JSON object per line. Unknown keys are skipped, nested values included; the three
+    // fields used must not contain escape sequences.
+    private void jsonFields(byte[] bytes, int start, int end) {
+        orderIdStart = -1;
+        statusStart = -1;
+        timeStart = -1;
+        int position = expect(bytes, start, end, '{');
+        position = skipWhitespace(bytes, position, end);
+        if (position < end && bytes[position] == '}') {
+            return;
+        }
+
+        while (true) {
+            position = expect(bytes, skipWhitespace(bytes, position, end), end, '"');
+            int keyStart = position;
+            int keyEnd = stringEnd(bytes, keyStart, end);
+            position = expect(bytes, skipWhitespace(bytes, keyEnd + 1, end), end, ':');
+            position = skipWhitespace(bytes, position, end);
+
+            int valueStart;
+            int valueEnd;
+            if (position < end && bytes[position] == '"') {
+                valueStart = position + 1;
+                valueEnd = stringEnd(bytes, valueStart, end);
+                position = valueEnd + 1;
+            } else {
+                valueStart = position;
+                position = valueEnd(bytes, position, end);
+                valueEnd = trimEnd(bytes, valueStart, position);
+            }
+
+            if (Arrays.equals(ORDER_ID, 0, ORDER_ID.length, bytes, keyStart, keyEnd)) {
+                orderIdStart = unescaped(bytes, valueStart, valueEnd);
+                orderIdEnd = valueEnd;
+            } else if (Arrays.equals(STATUS, 0, STATUS.length, bytes, keyStart, keyEnd)) {
+                statusStart = unescaped(bytes, valueStart, valueEnd);
+                statusEnd = valueEnd;
+            } else if (Arrays.equals(CHANGE_TIME, 0, CHANGE_TIME.length, bytes, keyStart, keyEnd)
+                    || Arrays.equals(TIMESTAMP, 0, TIMESTAMP.length, bytes, keyStart, keyEnd)) {
+                timeStart = unescaped(bytes, valueStart, valueEnd);
+                timeEnd = valueEnd;
+            }
+
+            position = skipWhitespace(bytes, position, end);
+            if (position < end && bytes[position] == ',') {
+                position++;
+            } else {
+                expect(bytes, position, end, '}');
+                return;
+            }
+        }
+    }
+
+    // Index of the closing quote of a string starting at start
+    private static int stringEnd(byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == '\\') {
+                i++;
+            } else if (bytes[i] == '"') {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated string");
+    }
+
+    // End of a non-string value: the next ',' or '}' outside any nested object, array or string
+    private static int valueEnd(byte[] bytes, int position, int end) {
+        int depth = 0;
+        while (position < end) {
+            byte b = bytes[position];
+            if (b == '"') {
+                position = stringEnd(bytes, position + 1, end);
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0) {
+                    return position;
+                }
+                depth--;
+            } else if (b == ',' && depth == 0) {
+                return position;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    private static int unescaped(byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == '\\') {
+                throw new IllegalArgumentException("Escaped characters are not supported in orderId, status or changeTime");
+            }
+        }
+        return start;
+    }
+
+    private static int expect(byte[] bytes, int position, int end, char expected) {
+        if (position >= end || bytes[position] != expected) {
+            throw new IllegalArgumentException("Expected '" + expected + "'");
+        }
+        return position + 1;
+    }
+
+    private static int skipWhitespace(byte[] bytes, int start, int end) {
+        while (start < end && isWhitespace(bytes[start])) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(byte[] bytes, int start, int end) {
+        while (end > start && isWhitespace(bytes[end - 1])) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
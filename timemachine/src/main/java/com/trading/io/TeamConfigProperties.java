@@ -0,0 +1,133 @@
+package com.trading.io;
+
+import com.trading.model.ActivityBlock;
+import com.trading.model.OrderStatus;
+import com.trading.model.TeamConfig;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Function;
+
+// Team configuration as a properties file. Lists are comma-separated; optional keys may be left out.
+//
+//   teams = TRADING, AUDIT_REVIEW
+//   <team>.startTime = 09:00
+//   <team>.cutoffTime = 17:00
+//   <team>.zoneId = Europe/London                              optional
+//   <team>.holidays = 2023-12-25, 2023-12-26                   optional
+//   <team>.halfDays = 2023-12-24T12:00                         optional, date and that day's cutoff
+//   <team>.blocks = 1
+//   <team>.block.<i>.statuses = TRADING_OPEN, TRADING_IN_PROGRESS, TRADING_PARKED
+//   <team>.block.<i>.entryStatus = TRADING_OPEN
+//   <team>.block.<i>.firstInProgressStatus = TRADING_IN_PROGRESS    optional
+//   <team>.block.<i>.sla = PT2H                                     optional
+//
+// Teams come back in the order they are listed. Malformed values fail with the offending key.
+public final class TeamConfigProperties {
+
+    private TeamConfigProperties() {
+    }
+
+    public static Map<String, TeamConfig> read(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return parse(properties);
+    }
+
+    public static Map<String, TeamConfig> parse(Properties properties) {
+        Map<String, TeamConfig> configs = new LinkedHashMap<>();
+        for (String team : list(properties, "teams", true)) {
+            int blockCount = value(properties, team + ".blocks", true, Integer::parseInt);
+            List<ActivityBlock> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                String prefix = team + ".block." + i + ".";
+                Set<OrderStatus> statuses = EnumSet.noneOf(OrderStatus.class);
+                for (String status : list(properties, prefix + "statuses", true)) {
+                    statuses.add(parse(prefix + "statuses", status, OrderStatus::valueOf));
+                }
+                blocks.add(ActivityBlock.builder()
+                        .statuses(statuses)
+                        .entryStatus(value(properties, prefix + "entryStatus", true, OrderStatus::valueOf))
+                        .firstInProgressStatus(value(properties, prefix + "firstInProgressStatus", false, OrderStatus::valueOf))
+                        .sla(value(properties, prefix + "sla", false, Duration::parse))
+                        .build());
+            }
+
+            Set<LocalDate> holidays = new HashSet<>();
+            for (String holiday : list(properties, team + ".holidays", false)) {
+                holidays.add(parse(team + ".holidays", holiday, LocalDate::parse));
+            }
+            Map<LocalDate, LocalTime> halfDays = new HashMap<>();
+            for (String halfDay : list(properties, team + ".halfDays", false)) {
+                LocalDateTime cutoff = parse(team + ".halfDays", halfDay, LocalDateTime::parse);
+                halfDays.put(cutoff.toLocalDate(), cutoff.toLocalTime());
+            }
+
+            configs.put(team, TeamConfig.builder()
+                    .teamName(team)
+                    .activityBlocks(List.copyOf(blocks))
+                    .startTime(value(properties, team + ".startTime", true, LocalTime::parse))
+                    .cutoffTime(value(properties, team + ".cutoffTime", true, LocalTime::parse))
+                    .zoneId(value(properties, team + ".zoneId", false, ZoneId::of))
+                    .holidays(holidays)
+                    .halfDays(halfDays)
+                    .build());
+        }
+        return configs;
+    }
+
+    private static List<String> list(Properties properties, String key, boolean required) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            if (required) {
+                throw new IllegalArgumentException("Missing team config property: " + key);
+            }
+            return List.of();
+        }
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.isBlank()) {
+                items.add(item.strip());
+            }
+        }
+        return items;
+    }
+
+    private static <T> T value(Properties properties, String key, boolean required, Function<String, T> parser) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            if (required) {
+                throw new IllegalArgumentException("Missing team config property: " + key);
+            }
+            return null;
+        }
+        return parse(key, value.strip(), parser);
+    }
+
+    private static <T> T parse(String key, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value, e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.trading.io;
+
+// Layout of the binary transition log, all values big-endian:
+//
+//   file header   int magic "TATL", int version
+//   per order     int transitionCount, byte statusOrdinal (-1 when unknown), short orderIdLength,
+//                 orderIdLength bytes of UTF-8 order id,
+//                 transitionCount x (byte statusOrdinal, long epochMillis), sorted by time
+//
+// Records are packed without padding, so a transition costs 9 bytes on disk.
+final class TransitionLogFormat {
+
+    static final int MAGIC = 0x5441544C;
+    static final int VERSION = 1;
+    static final int FILE_HEADER_BYTES = 8;
+    static final int ORDER_HEADER_BYTES = 7;
+    static final int RECORD_BYTES = 9;
+
+    private TransitionLogFormat() {
+    }
+}
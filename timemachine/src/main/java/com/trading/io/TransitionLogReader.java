@@ -0,0 +1,166 @@
+package com.trading.io;
+
+import com.trading.model.OrderStatus;
+import com.trading.model.TatReport;
+import com.trading.model.TransitionSequence;
+import com.trading.service.TatCalculator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+// Reads the binary transition log through a memory-mapped window. The current order is exposed as a
+// TransitionSequence view over the mapped bytes, so TAT can be computed without building Order or
+// StatusTransition objects. The view is reused and only valid until the next call to next().
+public class TransitionLogReader implements Closeable {
+
+    private static final long DEFAULT_WINDOW_BYTES = 1L << 30;
+    private static final int STATUS_COUNT = OrderStatus.values().length;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long windowBytes;
+    private final MappedOrder current = new MappedOrder();
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position = TransitionLogFormat.FILE_HEADER_BYTES;
+
+    public TransitionLogReader(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_BYTES);
+    }
+
+    // Files larger than the window are mapped piecewise; an order never straddles two windows
+    public TransitionLogReader(Path path, long windowBytes) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowBytes = Math.min(windowBytes, Integer.MAX_VALUE);
+
+        map(0, TransitionLogFormat.FILE_HEADER_BYTES);
+        if (fileSize < TransitionLogFormat.FILE_HEADER_BYTES || window.getInt(0) != TransitionLogFormat.MAGIC) {
+            throw new IOException("Not a transition log: " + path);
+        }
+        int version = window.getInt(4);
+        if (version != TransitionLogFormat.VERSION) {
+            throw new IOException("Unsupported transition log version " + version + ": " + path);
+        }
+    }
+
+    public boolean next() throws IOException {
+        if (position >= fileSize) {
+            return false;
+        }
+        if (fileSize - position < TransitionLogFormat.ORDER_HEADER_BYTES) {
+            throw new IOException("Truncated transition log at offset " + position);
+        }
+        map(position, TransitionLogFormat.ORDER_HEADER_BYTES);
+        int offset = (int) (position - windowStart);
+        int size = window.getInt(offset);
+        byte status = window.get(offset + 4);
+        int idLength = window.getShort(offset + 5);
+        if (size < 0 || idLength < 0 || status < -1 || status >= STATUS_COUNT) {
+            throw new IOException("Corrupt order header at offset " + position + ": " + size + " transitions, status "
+                    + status + ", id of " + idLength + " bytes");
+        }
+
+        long recordBytes = TransitionLogFormat.ORDER_HEADER_BYTES + idLength
+                + (long) size * TransitionLogFormat.RECORD_BYTES;
+        if (position + recordBytes > fileSize) {
+            throw new IOException("Truncated transition log at offset " + position);
+        }
+        map(position, recordBytes);
+        offset = (int) (position - windowStart);
+
+        current.reset(status, offset + TransitionLogFormat.ORDER_HEADER_BYTES, idLength,
+                offset + TransitionLogFormat.ORDER_HEADER_BYTES + idLength, size);
+        position += recordBytes;
+        return true;
+    }
+
+    // View of the order last returned by next()
+    public MappedOrder current() {
+        return current;
+    }
+
+    public void forEach(Consumer<? super MappedOrder> action) throws IOException {
+        while (next()) {
+            action.accept(current);
+        }
+    }
+
+    public void calculateReports(TatCalculator calculator, Consumer<TatReport> sink) throws IOException {
+        while (next()) {
+            sink.accept(calculator.calculateReport(current));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void map(long start, long length) throws IOException {
+        if (window != null && start >= windowStart && start + length <= windowStart + window.capacity()) {
+            return;
+        }
+        if (length > windowBytes) {
+            throw new IOException("Order record of " + length + " bytes does not fit the mapping window");
+        }
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowBytes, fileSize - start));
+    }
+
+    public final class MappedOrder implements TransitionSequence {
+
+        private byte status;
+        private int idOffset;
+        private int idLength;
+        private int recordsOffset;
+        private int size;
+        private String orderId;
+
+        private void reset(byte status, int idOffset, int idLength, int recordsOffset, int size) {
+            this.status = status;
+            this.idOffset = idOffset;
+            this.idLength = idLength;
+            this.recordsOffset = recordsOffset;
+            this.size = size;
+            this.orderId = null;
+        }
+
+        // Decoded on first use; callers that only need the numbers never allocate it
+        @Override
+        public String orderId() {
+            if (orderId == null) {
+                byte[] bytes = new byte[idLength];
+                window.get(idOffset, bytes);
+                orderId = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return orderId;
+        }
+
+        public OrderStatus status() {
+            return status < 0 ? null : OrderStatus.fromOrdinal(status);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public long timeAt(int index) {
+            return window.getLong(recordsOffset + index * TransitionLogFormat.RECORD_BYTES + 1);
+        }
+
+        @Override
+        public int ordinalAt(int index) {
+            return window.get(recordsOffset + index * TransitionLogFormat.RECORD_BYTES);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.trading.io;
+
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.TransitionSequence;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Converts orders from the object model into the binary transition log read by TransitionLogReader
+public class TransitionLogWriter implements Closeable {
+
+    private final DataOutputStream out;
+    private long orderCount;
+
+    public TransitionLogWriter(Path path) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        out.writeInt(TransitionLogFormat.MAGIC);
+        out.writeInt(TransitionLogFormat.VERSION);
+    }
+
+    public static long convert(Iterable<Order> orders, Path path) throws IOException {
+        try (TransitionLogWriter writer = new TransitionLogWriter(path)) {
+            for (Order order : orders) {
+                writer.write(order);
+            }
+            return writer.orderCount();
+        }
+    }
+
+    public void write(Order order) throws IOException {
+        write(OrderTimeline.of(order), order.status());
+    }
+
+    // The sequence must already be in time order
+    public void write(TransitionSequence transitions, OrderStatus status) throws IOException {
+        byte[] orderId = transitions.orderId() == null
+                ? new byte[0]
+                : transitions.orderId().getBytes(StandardCharsets.UTF_8);
+        if (orderId.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Order id too long: " + transitions.orderId());
+        }
+
+        out.writeInt(transitions.size());
+        out.writeByte(status == null ? -1 : status.ordinal());
+        out.writeShort(orderId.length);
+        out.write(orderId);
+        for (int i = 0; i < transitions.size(); i++) {
+            out.writeByte(transitions.ordinalAt(i));
+            out.writeLong(transitions.timeAt(i));
+        }
+        orderCount++;
+    }
+
+    public long orderCount() {
+        return orderCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,98 @@
+package com.trading.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Call count, elapsed time, work done and a latency histogram for one method. All counters are
+// LongAdders, so concurrent callers update separate cells instead of contending on one field.
+// Latencies go into power-of-two buckets: percentiles are upper bounds within a factor of two.
+public final class MethodMetrics {
+
+    private static final int BUCKETS = 64;
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder transitions = new LongAdder();
+    private final LongAdder days = new LongAdder();
+    private final LongAdder[] latency = new LongAdder[BUCKETS];
+
+    MethodMetrics(String name) {
+        this.name = name;
+        for (int i = 0; i < BUCKETS; i++) {
+            latency[i] = new LongAdder();
+        }
+    }
+
+    public void record(long elapsedNanos, long transitionsScanned, long daysIterated) {
+        calls.increment();
+        totalNanos.add(elapsedNanos);
+        transitions.add(transitionsScanned);
+        days.add(daysIterated);
+        latency[bucket(elapsedNanos)].increment();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long transitionsScanned() {
+        return transitions.sum();
+    }
+
+    public long daysIterated() {
+        return days.sum();
+    }
+
+    public double meanNanos() {
+        long count = calls.sum();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    // Upper bound of the bucket holding the given percentile, 0 before the first call
+    public long percentileNanos(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = latency[i].sum();
+            total += counts[i];
+        }
+        long rank = (long) Math.ceil(percentile / 100 * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (counts[i] > 0 && seen >= rank) {
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return 0;
+    }
+
+    public void reset() {
+        calls.reset();
+        totalNanos.reset();
+        transitions.reset();
+        days.reset();
+        for (LongAdder bucket : latency) {
+            bucket.reset();
+        }
+    }
+
+    private static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "MethodMetrics[name=" + name + ", calls=" + calls() + ", meanNanos=" + (long) meanNanos()
+                + ", p99Nanos=" + percentileNanos(99) + ", transitions=" + transitionsScanned()
+                + ", days=" + daysIterated() + "]";
+    }
+}
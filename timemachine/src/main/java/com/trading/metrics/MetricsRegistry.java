@@ -0,0 +1,27 @@
+package com.trading.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Named MethodMetrics, created on first use. Instrumented code resolves its metrics once and keeps the
+// reference, so the map is not on the hot path.
+public final class MetricsRegistry {
+
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    public MethodMetrics method(String name) {
+        return methods.computeIfAbsent(name, MethodMetrics::new);
+    }
+
+    // Snapshot of the registered metrics by name; the counters themselves stay live
+    public SortedMap<String, MethodMetrics> methods() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(methods));
+    }
+
+    public void reset() {
+        methods.values().forEach(MethodMetrics::reset);
+    }
+}
@@ -0,0 +1,36 @@
+package com.trading.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.trading.TatCalculation")
+@Label("TAT Calculation")
+@Category({"Trading", "TAT"})
+@Description("One instrumented TAT or business-time calculation")
+@StackTrace(false)
+final class TatCalculationEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Order Id")
+    String orderId;
+
+    @Label("Team")
+    String teamName;
+
+    @Label("Transitions Scanned")
+    long transitionsScanned;
+
+    @Label("Days Iterated")
+    long daysIterated;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsedNanos;
+}
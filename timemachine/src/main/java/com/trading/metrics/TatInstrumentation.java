@@ -0,0 +1,55 @@
+package com.trading.metrics;
+
+// Optional instrumentation for TatCalculator and BusinessDurationCalculator. Callers check enabled()
+// before reading the clock, so with NOOP, the default, the cost is one predictable branch per call.
+// When enabled every call updates the registry's counters, and also commits a TatCalculationEvent
+// while a JFR recording has the event switched on.
+public final class TatInstrumentation {
+
+    public static final TatInstrumentation NOOP = new TatInstrumentation(null, false);
+
+    private final MethodMetrics[] methods;
+    private final boolean jfrEvents;
+
+    private TatInstrumentation(MetricsRegistry registry, boolean jfrEvents) {
+        this.jfrEvents = jfrEvents;
+        if (registry == null) {
+            this.methods = null;
+            return;
+        }
+        this.methods = new MethodMetrics[TatOperation.values().length];
+        for (TatOperation operation : TatOperation.values()) {
+            methods[operation.ordinal()] = registry.method(operation.methodName());
+        }
+    }
+
+    public static TatInstrumentation of(MetricsRegistry registry) {
+        return of(registry, true);
+    }
+
+    public static TatInstrumentation of(MetricsRegistry registry, boolean jfrEvents) {
+        return new TatInstrumentation(registry, jfrEvents);
+    }
+
+    public boolean enabled() {
+        return methods != null;
+    }
+
+    public void record(TatOperation operation, String orderId, String teamName, long transitionsScanned,
+            long daysIterated, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        methods[operation.ordinal()].record(elapsed, transitionsScanned, daysIterated);
+        if (jfrEvents) {
+            TatCalculationEvent event = new TatCalculationEvent();
+            if (event.shouldCommit()) {
+                event.method = operation.methodName();
+                event.orderId = orderId;
+                event.teamName = teamName;
+                event.transitionsScanned = transitionsScanned;
+                event.daysIterated = daysIterated;
+                event.elapsedNanos = elapsed;
+                event.commit();
+            }
+        }
+    }
+}
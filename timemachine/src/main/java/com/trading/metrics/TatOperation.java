@@ -0,0 +1,22 @@
+package com.trading.metrics;
+
+// Instrumented hot paths, each recorded under its method name
+public enum TatOperation {
+    TIMELINE("OrderTimeline.of"),
+    REPORT("TatCalculator.calculateReport"),
+    TEAM_TAT("TatCalculator.calculateTeamTat"),
+    PARKED_INDEX("ParkedTimeIndex.of"),
+    DWELL_TIMES("TatCalculator.calculateDwellTimes"),
+    BUSINESS_DURATION("BusinessDurationCalculator.calculateDuration"),
+    BUSINESS_MILLIS("BusinessDurationCalculator.calculateBusinessMillis");
+
+    private final String methodName;
+
+    TatOperation(String methodName) {
+        this.methodName = methodName;
+    }
+
+    public String methodName() {
+        return methodName;
+    }
+}
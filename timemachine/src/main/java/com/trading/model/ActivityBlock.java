@@ -0,0 +1,15 @@
+package com.trading.model;
+
+import lombok.Builder;
+
+import java.time.Duration;
+import java.util.Set;
+
+// sla is the business time allowed from entry to leaving the block, parked time excluded; null for none
+@Builder
+public record ActivityBlock(
+        Set<OrderStatus> statuses,
+        OrderStatus entryStatus,
+        OrderStatus firstInProgressStatus,
+        Duration sla) {
+}
@@ -0,0 +1,353 @@
+package com.trading.model;
+
+import lombok.Builder;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Precomputed business-day table for one set of team hours. For every day of the horizon it keeps the
+// cutoff of that day's window and the cumulative business nanos before it, so any range query is two
+// lookups and a subtraction. Outside the horizon only weekends are treated as non-business days.
+public final class BusinessCalendar {
+
+    public static final LocalDate DEFAULT_HORIZON_START = LocalDate.of(2000, 1, 1);
+    public static final LocalDate DEFAULT_HORIZON_END = LocalDate.of(2100, 1, 1);
+
+    private static final long NON_BUSINESS_DAY = -1;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    // 1970-01-01 was a Thursday; shifting epoch days by 3 puts every Monday on a multiple of 7
+    private static final long EPOCH_DAY_TO_MONDAY_SHIFT = 3;
+
+    // Weak values: a calendar is only shared while some TeamConfig still holds it, so tables for edited
+    // hours or holidays are released once the configs that used them are gone
+    private static final Map<Key, SharedReference> SHARED = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<BusinessCalendar> RELEASED = new ReferenceQueue<>();
+
+    private final LocalTime startTime;
+    private final LocalTime cutoffTime;
+    private final long open;
+    private final long close;
+    private final long window;
+    private final long firstDay;
+    private final long[] closeNanos;
+    private final long[] cumulativeNanos;
+    private final byte[] daysToNextBusinessDay;
+
+    @Builder
+    private BusinessCalendar(LocalTime startTime, LocalTime cutoffTime, Set<LocalDate> holidays,
+            Map<LocalDate, LocalTime> halfDays, LocalDate horizonStart, LocalDate horizonEnd) {
+        if (startTime == null || cutoffTime == null) {
+            throw new IllegalArgumentException("Business calendar requires startTime and cutoffTime");
+        }
+        Set<LocalDate> holidaySet = holidays == null ? Collections.emptySet() : holidays;
+        Map<LocalDate, LocalTime> halfDayMap = halfDays == null ? Collections.emptyMap() : halfDays;
+        LocalDate from = horizonStart == null ? DEFAULT_HORIZON_START : horizonStart;
+        LocalDate to = horizonEnd == null ? DEFAULT_HORIZON_END : horizonEnd;
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Empty business calendar horizon: " + from + " - " + to);
+        }
+
+        this.startTime = startTime;
+        this.cutoffTime = cutoffTime;
+        this.open = startTime.toNanoOfDay();
+        this.close = cutoffTime.toNanoOfDay();
+        this.window = Math.max(0, close - open);
+        this.firstDay = from.toEpochDay();
+
+        int days = Math.toIntExact(to.toEpochDay() - firstDay);
+        this.closeNanos = new long[days];
+        this.cumulativeNanos = new long[days + 1];
+        this.daysToNextBusinessDay = new byte[days];
+
+        for (int i = 0; i < days; i++) {
+            LocalDate date = from.plusDays(i);
+            if (isWeekend(firstDay + i) || holidaySet.contains(date)) {
+                closeNanos[i] = NON_BUSINESS_DAY;
+            } else {
+                LocalTime halfDayCutoff = halfDayMap.get(date);
+                closeNanos[i] = halfDayCutoff == null ? close : halfDayCutoff.toNanoOfDay();
+            }
+            cumulativeNanos[i + 1] = cumulativeNanos[i] + Math.max(0, closeNanos[i] - open);
+        }
+
+        // Walk backwards so each day knows the distance to the next business day on or after it
+        int distance = 0;
+        while (isWeekend(firstDay + days + distance)) {
+            distance++;
+        }
+        for (int i = days - 1; i >= 0; i--) {
+            distance = closeNanos[i] == NON_BUSINESS_DAY ? distance + 1 : 0;
+            daysToNextBusinessDay[i] = (byte) Math.min(distance, Byte.MAX_VALUE);
+        }
+    }
+
+    // Calendars are immutable, so teams with the same hours, holidays and half-days share one instance
+    public static BusinessCalendar shared(LocalTime startTime, LocalTime cutoffTime, Set<LocalDate> holidays,
+            Map<LocalDate, LocalTime> halfDays) {
+        Key key = key(startTime, cutoffTime, holidays, halfDays);
+        purgeReleased();
+
+        SharedReference reference = SHARED.get(key);
+        BusinessCalendar calendar = reference == null ? null : reference.get();
+        if (calendar != null) {
+            return calendar;
+        }
+        synchronized (SHARED) {
+            reference = SHARED.get(key);
+            calendar = reference == null ? null : reference.get();
+            if (calendar == null) {
+                calendar = key.build();
+                SHARED.put(key, new SharedReference(key, calendar));
+            }
+            return calendar;
+        }
+    }
+
+    // Clears and enqueues a shared calendar's reference as the collector would once no config holds it;
+    // false when none is shared for these hours. For tests, which cannot rely on System.gc().
+    static boolean releaseShared(LocalTime startTime, LocalTime cutoffTime, Set<LocalDate> holidays,
+            Map<LocalDate, LocalTime> halfDays) {
+        SharedReference reference = SHARED.get(key(startTime, cutoffTime, holidays, halfDays));
+        return reference != null && reference.enqueue();
+    }
+
+    static boolean isShared(LocalTime startTime, LocalTime cutoffTime, Set<LocalDate> holidays,
+            Map<LocalDate, LocalTime> halfDays) {
+        return SHARED.containsKey(key(startTime, cutoffTime, holidays, halfDays));
+    }
+
+    private static Key key(LocalTime startTime, LocalTime cutoffTime, Set<LocalDate> holidays,
+            Map<LocalDate, LocalTime> halfDays) {
+        return new Key(startTime, cutoffTime,
+                holidays == null ? Set.of() : Set.copyOf(holidays),
+                halfDays == null ? Map.of() : Map.copyOf(halfDays));
+    }
+
+    private static void purgeReleased() {
+        for (Reference<? extends BusinessCalendar> released; (released = RELEASED.poll()) != null; ) {
+            SHARED.remove(((SharedReference) released).key, released);
+        }
+    }
+
+    public LocalTime startTime() {
+        return startTime;
+    }
+
+    public LocalTime cutoffTime() {
+        return cutoffTime;
+    }
+
+    public boolean isBusinessDay(LocalDate date) {
+        return isBusinessDay(date.toEpochDay());
+    }
+
+    public boolean isBusinessDay(long epochDay) {
+        long index = epochDay - firstDay;
+        if (index < 0 || index >= closeNanos.length) {
+            return !isWeekend(epochDay);
+        }
+        return closeNanos[(int) index] != NON_BUSINESS_DAY;
+    }
+
+    // Cutoff of the given day: the half-day cutoff where one is configured, the standard cutoff otherwise
+    public LocalTime cutoffOn(LocalDate date) {
+        long cutoff = cutoffNanoOfDay(date.toEpochDay());
+        return cutoff == close ? cutoffTime : LocalTime.ofNanoOfDay(cutoff);
+    }
+
+    public long cutoffNanoOfDay(long epochDay) {
+        long index = epochDay - firstDay;
+        if (index < 0 || index >= closeNanos.length || closeNanos[(int) index] == NON_BUSINESS_DAY) {
+            return close;
+        }
+        return closeNanos[(int) index];
+    }
+
+    public long startNanoOfDay() {
+        return open;
+    }
+
+    public LocalDate nextBusinessDay(LocalDate date) {
+        return LocalDate.ofEpochDay(nextBusinessEpochDay(date.toEpochDay()));
+    }
+
+    // First business day on or after the given day
+    public long nextBusinessEpochDay(long epochDay) {
+        long day = epochDay;
+        long index = day - firstDay;
+        while (index >= 0 && index < daysToNextBusinessDay.length) {
+            int distance = daysToNextBusinessDay[(int) index];
+            if (distance < Byte.MAX_VALUE) {
+                return day + distance;
+            }
+            day += distance;
+            index += distance;
+        }
+        while (!isBusinessDay(day)) {
+            day++;
+        }
+        return day;
+    }
+
+    // Business nanos between an arbitrary origin and the given instant. Only differences are meaningful.
+    public long businessNanosAt(long epochDay, long nanoOfDay) {
+        long index = epochDay - firstDay;
+        if (index < 0) {
+            return cumulativeNanos[0] - (weekdaysBefore(firstDay) - weekdaysBefore(epochDay)) * window
+                    + elapsedWeekdayNanos(epochDay, nanoOfDay);
+        }
+        if (index >= closeNanos.length) {
+            long lastDay = firstDay + closeNanos.length;
+            return cumulativeNanos[closeNanos.length] + (weekdaysBefore(epochDay) - weekdaysBefore(lastDay)) * window
+                    + elapsedWeekdayNanos(epochDay, nanoOfDay);
+        }
+        return cumulativeNanos[(int) index] + elapsedWindowNanos(nanoOfDay, closeNanos[(int) index]);
+    }
+
+    // For local epoch millis as used by OrderTimeline
+    public long businessNanosAtEpochMillis(long epochMillis) {
+        return businessNanosAt(Math.floorDiv(epochMillis, MILLIS_PER_DAY),
+                Math.floorMod(epochMillis, MILLIS_PER_DAY) * NANOS_PER_MILLI);
+    }
+
+    public long businessNanosAt(LocalDateTime dateTime) {
+        return businessNanosAt(dateTime.toLocalDate().toEpochDay(), dateTime.toLocalTime().toNanoOfDay());
+    }
+
+    // Inverse of businessNanosAt: the earliest instant at which the business position is reached, so a
+    // position at the end of a day's window maps to that day's cutoff rather than the next day's start
+    public LocalDateTime dateTimeAt(long businessNanos) {
+        long epochDay = epochDayAt(businessNanos);
+        long nanoOfDay = open + businessNanos - businessNanosAt(epochDay, open);
+        return LocalDateTime.of(LocalDate.ofEpochDay(epochDay), LocalTime.ofNanoOfDay(nanoOfDay));
+    }
+
+    // As dateTimeAt, in local epoch millis rounded up
+    public long epochMillisAt(long businessNanos) {
+        long epochDay = epochDayAt(businessNanos);
+        long nanoOfDay = open + businessNanos - businessNanosAt(epochDay, open);
+        return epochDay * MILLIS_PER_DAY + Math.ceilDiv(nanoOfDay, NANOS_PER_MILLI);
+    }
+
+    // Business time in [start, end), zero when end is not after start
+    public Duration between(LocalDateTime start, LocalDateTime end) {
+        long nanos = businessNanosAt(end) - businessNanosAt(start);
+        return nanos > 0 ? Duration.ofNanos(nanos) : Duration.ZERO;
+    }
+
+    // Batch form of between() for local epoch millis: whole business seconds of each [starts[i], ends[i])
+    // into seconds[i], vectorized when the JVM has jdk.incubator.vector
+    public void businessSeconds(long[] starts, long[] ends, long[] seconds) {
+        BusinessSecondsKernel.compute(this, starts, ends, seconds);
+    }
+
+    // Table access for the batch kernels
+    long firstDay() {
+        return firstDay;
+    }
+
+    long[] closeNanos() {
+        return closeNanos;
+    }
+
+    long[] cumulativeNanos() {
+        return cumulativeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BusinessCalendar[" + startTime + "-" + cutoffTime + ", "
+                + LocalDate.ofEpochDay(firstDay) + "/" + LocalDate.ofEpochDay(firstDay + closeNanos.length) + "]";
+    }
+
+    // The business day whose window reaches the position: binary search over the cumulative table,
+    // weekday arithmetic outside the horizon
+    private long epochDayAt(long businessNanos) {
+        int days = closeNanos.length;
+        if (businessNanos <= cumulativeNanos[0]) {
+            return weekdayAt(businessNanos - (cumulativeNanos[0] - weekdaysBefore(firstDay) * window));
+        }
+        if (businessNanos > cumulativeNanos[days]) {
+            return weekdayAt(businessNanos - (cumulativeNanos[days] - weekdaysBefore(firstDay + days) * window));
+        }
+        int low = 0;
+        int high = days - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeNanos[mid + 1] >= businessNanos) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return firstDay + low;
+    }
+
+    // Weekday whose window holds the position, counted in whole windows from Monday 1969-12-29
+    private long weekdayAt(long weekdayNanos) {
+        if (window == 0) {
+            throw new IllegalStateException("No business hours in " + this);
+        }
+        long weekday = Math.floorDiv(weekdayNanos - 1, window);
+        return Math.floorDiv(weekday, 5) * 7 + Math.floorMod(weekday, 5) - EPOCH_DAY_TO_MONDAY_SHIFT;
+    }
+
+    private long elapsedWeekdayNanos(long epochDay, long nanoOfDay) {
+        return isWeekend(epochDay) ? 0 : elapsedWindowNanos(nanoOfDay, close);
+    }
+
+    private long elapsedWindowNanos(long nanoOfDay, long dayClose) {
+        if (dayClose <= open) {
+            return 0;
+        }
+        return Math.min(Math.max(nanoOfDay, open), dayClose) - open;
+    }
+
+    private static boolean isWeekend(long epochDay) {
+        return Math.floorMod(epochDay + EPOCH_DAY_TO_MONDAY_SHIFT, 7) >= 5;
+    }
+
+    // Number of weekdays in [Monday 1969-12-29, epochDay), negative for earlier days
+    private static long weekdaysBefore(long epochDay) {
+        long shifted = epochDay + EPOCH_DAY_TO_MONDAY_SHIFT;
+        return Math.floorDiv(shifted, 7) * 5 + Math.min(Math.floorMod(shifted, 7), 5);
+    }
+
+    private static final class SharedReference extends WeakReference<BusinessCalendar> {
+
+        private final Key key;
+
+        private SharedReference(Key key, BusinessCalendar calendar) {
+            super(calendar, RELEASED);
+            this.key = key;
+        }
+    }
+
+    private record Key(LocalTime startTime, LocalTime cutoffTime, Set<LocalDate> holidays,
+            Map<LocalDate, LocalTime> halfDays) {
+
+        private BusinessCalendar build() {
+            LocalDate from = DEFAULT_HORIZON_START;
+            LocalDate to = DEFAULT_HORIZON_END;
+            for (LocalDate date : holidays) {
+                from = date.isBefore(from) ? date : from;
+                to = date.isBefore(to) ? to : date.plusDays(1);
+            }
+            for (LocalDate date : halfDays.keySet()) {
+                from = date.isBefore(from) ? date : from;
+                to = date.isBefore(to) ? to : date.plusDays(1);
+            }
+            return new BusinessCalendar(startTime, cutoffTime, holidays, halfDays, from, to);
+        }
+    }
+}
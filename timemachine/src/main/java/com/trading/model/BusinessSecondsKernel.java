@@ -0,0 +1,89 @@
+package com.trading.model;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// Business seconds for many (start, end) pairs of local epoch millis that share one BusinessCalendar.
+// The vector kernel needs jdk.incubator.vector on the module path (--add-modules jdk.incubator.vector);
+// without it compute() runs the scalar kernel, which produces identical results.
+//
+// VectorBusinessSeconds is built from its own source root (src/main/vector) so that only it is compiled
+// against the incubator module, and it is reached through a method handle so that nothing else links
+// against it.
+public final class BusinessSecondsKernel {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final MethodHandle VECTOR_COMPUTE = findVectorKernel();
+    private static final boolean VECTOR_AVAILABLE = VECTOR_COMPUTE != null;
+
+    private BusinessSecondsKernel() {
+    }
+
+    public static boolean vectorAvailable() {
+        return VECTOR_AVAILABLE;
+    }
+
+    public static void compute(BusinessCalendar calendar, long[] starts, long[] ends, long[] seconds) {
+        if (VECTOR_AVAILABLE) {
+            vector(calendar, starts, ends, seconds);
+        } else {
+            scalar(calendar, starts, ends, seconds);
+        }
+    }
+
+    public static void scalar(BusinessCalendar calendar, long[] starts, long[] ends, long[] seconds) {
+        scalar(calendar, starts, ends, seconds, 0, checkLengths(starts, ends, seconds));
+    }
+
+    public static void vector(BusinessCalendar calendar, long[] starts, long[] ends, long[] seconds) {
+        if (!VECTOR_AVAILABLE) {
+            throw new IllegalStateException("jdk.incubator.vector is not available; run with --add-modules jdk.incubator.vector");
+        }
+        int length = checkLengths(starts, ends, seconds);
+        try {
+            VECTOR_COMPUTE.invokeExact(calendar, starts, ends, seconds, length);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void scalar(BusinessCalendar calendar, long[] starts, long[] ends, long[] seconds, int from, int to) {
+        for (int i = from; i < to; i++) {
+            long nanos = calendar.businessNanosAtEpochMillis(ends[i]) - calendar.businessNanosAtEpochMillis(starts[i]);
+            seconds[i] = nanos > 0 ? nanos / NANOS_PER_SECOND : 0;
+        }
+    }
+
+    private static int checkLengths(long[] starts, long[] ends, long[] seconds) {
+        if (starts.length != ends.length || seconds.length < starts.length) {
+            throw new IllegalArgumentException("Mismatched batch lengths: " + starts.length + " starts, " + ends.length
+                    + " ends, " + seconds.length + " outputs");
+        }
+        return starts.length;
+    }
+
+    // compute(calendar, starts, ends, seconds, length) of the vector kernel, null when it cannot run here
+    private static MethodHandle findVectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> kernel = Class.forName(BusinessSecondsKernel.class.getPackageName() + ".VectorBusinessSeconds");
+            int lanes = (int) lookup.findStatic(kernel, "lanes", MethodType.methodType(int.class)).invokeExact();
+            if (lanes <= 1) {
+                return null;
+            }
+            return lookup.findStatic(kernel, "compute", MethodType.methodType(void.class, BusinessCalendar.class,
+                    long[].class, long[].class, long[].class, int.class));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Missing from the build or not linkable on this JVM
+            return null;
+        } catch (Throwable e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
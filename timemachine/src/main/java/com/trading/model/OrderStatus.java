@@ -0,0 +1,80 @@
+package com.trading.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+public enum OrderStatus {
+    DRAFT,
+    SUBMITTED,
+    STARTED,
+    AUDIT_REVIEW_LEVEL1_OPEN,
+    AUDIT_REVIEW_LEVEL1_IN_PROGRESS,
+    AUDIT_REVIEW_LEVEL1_PARKED,
+    AUDIT_REVIEW_LEVEL1_SUBMITTED,
+    AUDIT_REVIEW_LEVEL2_OPEN,
+    AUDIT_REVIEW_LEVEL2_IN_PROGRESS,
+    AUDIT_REVIEW_LEVEL2_PARKED,
+    AUDIT_REVIEW_LEVEL2_APPROVED,
+    AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL1_OPEN,
+    AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL1_IN_PROGRESS,
+    AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL1_PARKED,
+    AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL1_SUBMITTED,
+    AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL2_OPEN,
+    AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL2_IN_PROGRESS,
+    AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL2_PARKED,
+    AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL2_APPROVED,
+    TRADING_OPEN,
+    TRADING_IN_PROGRESS,
+    TRADING_PARKED,
+    TRADING_SUBMITTED,
+    COMPLETED;
+
+    private static final OrderStatus[] VALUES = values();
+
+    // Status sets as bits of a long indexed by ordinal, so every predicate is a single bit test
+    private static final long AUDIT_REVIEW_MASK = maskOf(Arrays.stream(values())
+            .filter(s -> s.name().startsWith("AUDIT_REVIEW"))
+            .toList());
+
+    private static final long TRADING_MASK = maskOf(Arrays.stream(values())
+            .filter(s -> s.name().startsWith("TRADING"))
+            .toList());
+
+    private static final long PARKED_MASK = maskOf(Arrays.stream(values())
+            .filter(s -> s.name().endsWith("_PARKED"))
+            .toList());
+
+    public static OrderStatus fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    public boolean isAuditReviewStatus() {
+        return (AUDIT_REVIEW_MASK & bit()) != 0;
+    }
+
+    public boolean isTradingStatus() {
+        return (TRADING_MASK & bit()) != 0;
+    }
+
+    public boolean isParked() {
+        return (PARKED_MASK & bit()) != 0;
+    }
+
+    public static boolean isParked(int ordinal) {
+        return (PARKED_MASK >>> ordinal & 1) != 0;
+    }
+
+    public static long maskOf(Collection<OrderStatus> statuses) {
+        long mask = 0;
+        if (statuses != null) {
+            for (OrderStatus status : statuses) {
+                mask |= status.bit();
+            }
+        }
+        return mask;
+    }
+}
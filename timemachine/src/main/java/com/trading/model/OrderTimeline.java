@@ -0,0 +1,105 @@
+package com.trading.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Immutable, time-ordered view of an order's transitions. Built once per order so repeated TAT
+// calculations share one sort, and never touches the caller's transition list.
+// Times are wall-clock epoch millis: the LocalDateTime read as if it were UTC.
+public final class OrderTimeline implements TransitionSequence {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final String orderId;
+    private final OrderStatus status;
+    private final long[] times;
+    private final byte[] statuses;
+
+    private OrderTimeline(String orderId, OrderStatus status, long[] times, byte[] statuses) {
+        this.orderId = orderId;
+        this.status = status;
+        this.times = times;
+        this.statuses = statuses;
+    }
+
+    public static OrderTimeline of(Order order) {
+        List<StatusTransition> transitions = order.statusTransitions();
+        if (transitions == null || transitions.isEmpty()) {
+            return new OrderTimeline(order.orderId(), order.status(), new long[0], new byte[0]);
+        }
+
+        if (!isSorted(transitions)) {
+            // Stable sort on a copy keeps transitions with equal times in their original order
+            transitions = new ArrayList<>(transitions);
+            transitions.sort(Comparator.comparing(StatusTransition::getChangeTime));
+        }
+
+        long[] times = new long[transitions.size()];
+        byte[] statuses = new byte[transitions.size()];
+        for (int i = 0; i < times.length; i++) {
+            StatusTransition transition = transitions.get(i);
+            times[i] = toEpochMillis(transition.getChangeTime());
+            statuses[i] = (byte) transition.getStatus().ordinal();
+        }
+        return new OrderTimeline(order.orderId(), order.status(), times, statuses);
+    }
+
+    public static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000),
+                (int) Math.floorMod(epochMillis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    @Override
+    public String orderId() {
+        return orderId;
+    }
+
+    public OrderStatus status() {
+        return status;
+    }
+
+    @Override
+    public int size() {
+        return times.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return times.length == 0;
+    }
+
+    @Override
+    public long timeAt(int index) {
+        return times[index];
+    }
+
+    @Override
+    public int ordinalAt(int index) {
+        return statuses[index];
+    }
+
+    @Override
+    public OrderStatus statusAt(int index) {
+        return STATUSES[statuses[index]];
+    }
+
+    public LocalDateTime changeTimeAt(int index) {
+        return toLocalDateTime(times[index]);
+    }
+
+    private static boolean isSorted(List<StatusTransition> transitions) {
+        for (int i = 1; i < transitions.size(); i++) {
+            if (transitions.get(i).getChangeTime().isBefore(transitions.get(i - 1).getChangeTime())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,18 @@
+package com.trading.model;
+
+import java.time.LocalDateTime;
+
+// An order that was still in an activity block when the block's SLA ran out. Times are on the detector's
+// clock: local epoch millis, or UTC epoch millis when it runs with instantTimes, for which deadline() is
+// the UTC date-time.
+public record SlaBreach(
+        String orderId,
+        String teamName,
+        int block,
+        long entryMillis,
+        long deadlineMillis) {
+
+    public LocalDateTime deadline() {
+        return OrderTimeline.toLocalDateTime(deadlineMillis);
+    }
+}
@@ -0,0 +1,67 @@
+package com.trading.model;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Time an order spent in each status, wall-clock and business, indexed by status ordinal. A status is
+// counted from its transition to the next one; the order's current (last) status is still open and
+// contributes nothing.
+public final class StatusDwellTimes {
+
+    private final String orderId;
+    private final long[] wallMillis;
+    private final long[] businessMillis;
+
+    public StatusDwellTimes(String orderId, long[] wallMillis, long[] businessMillis) {
+        this.orderId = orderId;
+        this.wallMillis = wallMillis;
+        this.businessMillis = businessMillis;
+    }
+
+    public String orderId() {
+        return orderId;
+    }
+
+    public long wallMillis(OrderStatus status) {
+        return wallMillis[status.ordinal()];
+    }
+
+    public long businessMillis(OrderStatus status) {
+        return businessMillis[status.ordinal()];
+    }
+
+    // Copies indexed by OrderStatus ordinal
+    public long[] wallMillisByOrdinal() {
+        return wallMillis.clone();
+    }
+
+    public long[] businessMillisByOrdinal() {
+        return businessMillis.clone();
+    }
+
+    // Statuses the order spent no time in are left out
+    public Map<OrderStatus, Duration> wallTimes() {
+        return toMap(wallMillis);
+    }
+
+    public Map<OrderStatus, Duration> businessTimes() {
+        return toMap(businessMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "StatusDwellTimes[orderId=" + orderId + ", wall=" + wallTimes() + ", business=" + businessTimes() + "]";
+    }
+
+    private static Map<OrderStatus, Duration> toMap(long[] millis) {
+        Map<OrderStatus, Duration> times = new EnumMap<>(OrderStatus.class);
+        for (int ordinal = 0; ordinal < millis.length; ordinal++) {
+            if (millis[ordinal] != 0) {
+                times.put(OrderStatus.fromOrdinal(ordinal), Duration.ofMillis(millis[ordinal]));
+            }
+        }
+        return times;
+    }
+
+}
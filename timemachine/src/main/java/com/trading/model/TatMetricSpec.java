@@ -0,0 +1,34 @@
+package com.trading.model;
+
+import lombok.Builder;
+
+import java.util.Set;
+
+// Declarative TAT: from the first or last transition into any start status to the first or last
+// transition into any end status. Without a calendar the metric is wall-clock time, with one it is
+// business time on that calendar. Like calculateOverallTat, an end before the start gives a negative
+// value and a missing start or end gives zero.
+@Builder
+public record TatMetricSpec(
+        String name,
+        Set<OrderStatus> startStatuses,
+        Occurrence startOccurrence,
+        Set<OrderStatus> endStatuses,
+        Occurrence endOccurrence,
+        BusinessCalendar calendar,
+        boolean excludeParked) {
+
+    public enum Occurrence {
+        FIRST,
+        LAST
+    }
+
+    public TatMetricSpec {
+        if (name == null || startStatuses == null || startStatuses.isEmpty() || endStatuses == null
+                || endStatuses.isEmpty()) {
+            throw new IllegalArgumentException("TAT metric needs a name, start statuses and end statuses");
+        }
+        startOccurrence = startOccurrence == null ? Occurrence.FIRST : startOccurrence;
+        endOccurrence = endOccurrence == null ? Occurrence.LAST : endOccurrence;
+    }
+}
@@ -0,0 +1,136 @@
+package com.trading.model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Every TAT of one order, produced in a single pass over its timeline. Durations are kept as millis
+// and team/block results are indexed by the calculator's team order; Duration views are built on demand.
+// Block entry times and the terminal status are carried along for grouping reports.
+public final class TatReport {
+
+    public static final String AUDIT_REVIEW_TEAM = "AUDIT_REVIEW";
+    public static final String TRADING_TEAM = "TRADING";
+    public static final long NOT_ENTERED = Long.MIN_VALUE;
+
+    private final String orderId;
+    private final long overallMillis;
+    private final long reviewMillis;
+    private final long executionMillis;
+    private final List<String> teamNames;
+    private final long[][] blockMillis;
+    private final long[][] blockEntryMillis;
+    private final OrderStatus terminalStatus;
+
+    public TatReport(String orderId, long overallMillis, long reviewMillis, long executionMillis,
+            List<String> teamNames, long[][] blockMillis) {
+        this(orderId, overallMillis, reviewMillis, executionMillis, teamNames, blockMillis, null, null);
+    }
+
+    public TatReport(String orderId, long overallMillis, long reviewMillis, long executionMillis,
+            List<String> teamNames, long[][] blockMillis, long[][] blockEntryMillis, OrderStatus terminalStatus) {
+        this.orderId = orderId;
+        this.overallMillis = overallMillis;
+        this.reviewMillis = reviewMillis;
+        this.executionMillis = executionMillis;
+        this.teamNames = teamNames;
+        this.blockMillis = blockMillis;
+        this.blockEntryMillis = blockEntryMillis;
+        this.terminalStatus = terminalStatus;
+    }
+
+    public String orderId() {
+        return orderId;
+    }
+
+    public Duration overallTat() {
+        return Duration.ofMillis(overallMillis);
+    }
+
+    public Duration reviewTat() {
+        return Duration.ofMillis(reviewMillis);
+    }
+
+    public Duration executionTat() {
+        return Duration.ofMillis(executionMillis);
+    }
+
+    public Duration auditReviewTeamTat() {
+        return teamTat(AUDIT_REVIEW_TEAM);
+    }
+
+    public Duration tradingTeamTat() {
+        return teamTat(TRADING_TEAM);
+    }
+
+    // Zero for teams the calculator was not configured with
+    public Duration teamTat(String teamName) {
+        int team = teamNames.indexOf(teamName);
+        return team < 0 ? Duration.ZERO : Duration.ofMillis(teamTatMillis(team));
+    }
+
+    public List<Duration> blockTats(String teamName) {
+        int team = teamNames.indexOf(teamName);
+        if (team < 0) {
+            return List.of();
+        }
+        List<Duration> durations = new ArrayList<>(blockMillis[team].length);
+        for (long millis : blockMillis[team]) {
+            durations.add(Duration.ofMillis(millis));
+        }
+        return durations;
+    }
+
+    public long overallMillis() {
+        return overallMillis;
+    }
+
+    public long reviewMillis() {
+        return reviewMillis;
+    }
+
+    public long executionMillis() {
+        return executionMillis;
+    }
+
+    public List<String> teamNames() {
+        return teamNames;
+    }
+
+    public long teamTatMillis(int team) {
+        long total = 0;
+        for (long millis : blockMillis[team]) {
+            total += millis;
+        }
+        return total;
+    }
+
+    public int blockCount(int team) {
+        return blockMillis[team].length;
+    }
+
+    public long blockTatMillis(int team, int block) {
+        return blockMillis[team][block];
+    }
+
+    // Time of the block's entry status as local epoch millis on the team's clock, NOT_ENTERED if the order
+    // never reached it. For reports from UTC instants the time has been converted through the team's zone.
+    public long blockEntryMillis(int team, int block) {
+        return blockEntryMillis == null ? NOT_ENTERED : blockEntryMillis[team][block];
+    }
+
+    // Status of the last transition; null for an order without transitions
+    public OrderStatus terminalStatus() {
+        return terminalStatus;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder teams = new StringBuilder();
+        for (int team = 0; team < teamNames.size(); team++) {
+            teams.append(", ").append(teamNames.get(team)).append('=').append(Duration.ofMillis(teamTatMillis(team)));
+        }
+        return "TatReport[orderId=" + orderId + ", overall=" + overallTat() + ", review=" + reviewTat()
+                + ", execution=" + executionTat() + teams + "]";
+    }
+}
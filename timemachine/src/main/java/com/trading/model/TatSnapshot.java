@@ -0,0 +1,23 @@
+package com.trading.model;
+
+import java.time.LocalDateTime;
+
+// An order's TAT as of a point in time: the report over the transitions up to and including that
+// time, the status the order was in, and the first configured block containing that status (null
+// team and block -1 when none does). Blocks not yet left count as zero, as in a live report.
+public record TatSnapshot(
+        long asOfMillis,
+        TatReport report,
+        OrderStatus currentStatus,
+        String currentTeam,
+        int currentBlock) {
+
+    public LocalDateTime asOf() {
+        return OrderTimeline.toLocalDateTime(asOfMillis);
+    }
+
+    // Started by then and not yet completed
+    public boolean isOpen() {
+        return currentStatus != null && currentStatus != OrderStatus.COMPLETED;
+    }
+}
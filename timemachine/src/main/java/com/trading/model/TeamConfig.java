@@ -0,0 +1,34 @@
+package com.trading.model;
+
+import lombok.Builder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+@Builder
+public record TeamConfig(
+        String teamName,
+        List<ActivityBlock> activityBlocks,
+        LocalTime startTime,
+        LocalTime cutoffTime,
+        ZoneId zoneId,
+        Set<LocalDate> holidays,
+        Map<LocalDate, LocalTime> halfDays,
+        BusinessCalendar calendar,
+        ZoneOffsetTable zoneOffsets) {
+
+    public TeamConfig {
+        // Resolve the shared calendar once here rather than on every duration calculation
+        if (calendar == null && startTime != null && cutoffTime != null) {
+            calendar = BusinessCalendar.shared(startTime, cutoffTime, holidays, halfDays);
+        }
+        // Only the instant-based calculations use the zone; LocalDateTime inputs are already team-local
+        if (zoneOffsets == null && zoneId != null) {
+            zoneOffsets = ZoneOffsetTable.of(zoneId);
+        }
+    }
+}
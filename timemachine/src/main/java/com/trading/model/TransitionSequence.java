@@ -0,0 +1,40 @@
+package com.trading.model;
+
+// Time-ordered transitions of one order as (epoch millis, status ordinal) pairs. Implementations may
+// be heap arrays (OrderTimeline) or views over other storage; TatCalculator only reads through this.
+public interface TransitionSequence {
+
+    String orderId();
+
+    int size();
+
+    long timeAt(int index);
+
+    int ordinalAt(int index);
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    default OrderStatus statusAt(int index) {
+        return OrderStatus.fromOrdinal(ordinalAt(index));
+    }
+
+    default int firstIndexOf(OrderStatus status) {
+        for (int i = 0; i < size(); i++) {
+            if (ordinalAt(i) == status.ordinal()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    default int lastIndexOf(OrderStatus status) {
+        for (int i = size() - 1; i >= 0; i--) {
+            if (ordinalAt(i) == status.ordinal()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,146 @@
+package com.trading.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// A zone's offset transitions between the calendar horizon years, as sorted arrays. Converting between
+// an instant and the team's local time is then a binary search over a handful of transitions per year
+// plus an addition, instead of a ZonedDateTime per call. Outside the horizon the zone rules are used.
+// Local times are local epoch millis, like OrderTimeline's: the local date-time read at UTC.
+public final class ZoneOffsetTable {
+
+    private static final long MILLIS_PER_SECOND = 1_000L;
+    // Keeps local-time lookups near the edges of the table on the rules path
+    private static final long EDGE_MARGIN_MILLIS = 86_400_000L;
+
+    private static final Map<ZoneId, ZoneOffsetTable> SHARED = new ConcurrentHashMap<>();
+
+    private final ZoneId zoneId;
+    private final ZoneRules rules;
+    private final long fromMillis;
+    private final long toMillis;
+    private final long[] transitions;
+    // offsets[i] is in force before transitions[i], offsets[n] after the last one
+    private final long[] offsets;
+    // Local time range each transition skips (gap) or repeats (overlap)
+    private final long[] localStarts;
+    private final long[] localEnds;
+
+    private ZoneOffsetTable(ZoneId zoneId, int fromYear, int toYear) {
+        this.zoneId = zoneId;
+        this.rules = zoneId.getRules();
+        if (rules.isFixedOffset()) {
+            this.fromMillis = Long.MIN_VALUE;
+            this.toMillis = Long.MAX_VALUE;
+            this.transitions = new long[0];
+            this.offsets = new long[] {rules.getOffset(Instant.EPOCH).getTotalSeconds() * MILLIS_PER_SECOND};
+            this.localStarts = new long[0];
+            this.localEnds = new long[0];
+            return;
+        }
+
+        Instant from = LocalDateTime.of(fromYear, 1, 1, 0, 0).toInstant(ZoneOffset.UTC);
+        Instant to = LocalDateTime.of(toYear, 1, 1, 0, 0).toInstant(ZoneOffset.UTC);
+        this.fromMillis = from.toEpochMilli();
+        this.toMillis = to.toEpochMilli();
+
+        long[] times = new long[64];
+        long[] after = new long[65];
+        after[0] = rules.getOffset(from).getTotalSeconds() * MILLIS_PER_SECOND;
+        int count = 0;
+        for (ZoneOffsetTransition transition = rules.nextTransition(from);
+                transition != null && transition.getInstant().isBefore(to);
+                transition = rules.nextTransition(transition.getInstant())) {
+            if (count == times.length) {
+                times = Arrays.copyOf(times, count * 2);
+                after = Arrays.copyOf(after, count * 2 + 1);
+            }
+            times[count] = transition.getInstant().toEpochMilli();
+            after[++count] = transition.getOffsetAfter().getTotalSeconds() * MILLIS_PER_SECOND;
+        }
+        this.transitions = Arrays.copyOf(times, count);
+        this.offsets = Arrays.copyOf(after, count + 1);
+        this.localStarts = new long[count];
+        this.localEnds = new long[count];
+        for (int i = 0; i < count; i++) {
+            localStarts[i] = transitions[i] + Math.min(offsets[i], offsets[i + 1]);
+            localEnds[i] = transitions[i] + Math.max(offsets[i], offsets[i + 1]);
+        }
+    }
+
+    public static ZoneOffsetTable of(ZoneId zoneId) {
+        return SHARED.computeIfAbsent(zoneId, zone -> new ZoneOffsetTable(zone,
+                BusinessCalendar.DEFAULT_HORIZON_START.getYear(), BusinessCalendar.DEFAULT_HORIZON_END.getYear()));
+    }
+
+    public ZoneId zoneId() {
+        return zoneId;
+    }
+
+    public int transitionCount() {
+        return transitions.length;
+    }
+
+    public long offsetMillisAt(long epochMillis) {
+        if (epochMillis < fromMillis || epochMillis >= toMillis) {
+            return rules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * MILLIS_PER_SECOND;
+        }
+        int index = Arrays.binarySearch(transitions, epochMillis);
+        // A transition takes effect at its own instant
+        return offsets[index >= 0 ? index + 1 : -index - 1];
+    }
+
+    public long toLocalEpochMillis(long epochMillis) {
+        return epochMillis + offsetMillisAt(epochMillis);
+    }
+
+    // Resolves gaps and overlaps like ZonedDateTime.ofLocal: a time in a gap moves later by the gap's
+    // length, a time in an overlap takes the earlier offset
+    public long toEpochMillis(long localEpochMillis) {
+        if (localEpochMillis < fromMillis + EDGE_MARGIN_MILLIS || localEpochMillis >= toMillis - EDGE_MARGIN_MILLIS) {
+            return ZonedDateTime.ofLocal(OrderTimeline.toLocalDateTime(localEpochMillis), zoneId, null)
+                    .toInstant().toEpochMilli();
+        }
+        int low = 0;
+        int high = localStarts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (localStarts[mid] <= localEpochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == 0) {
+            return localEpochMillis - offsets[0];
+        }
+        int transition = low - 1;
+        return localEpochMillis < localEnds[transition]
+                ? localEpochMillis - offsets[transition]
+                : localEpochMillis - offsets[transition + 1];
+    }
+
+    public LocalDateTime toLocalDateTime(Instant instant) {
+        long offsetSeconds = offsetMillisAt(instant.toEpochMilli()) / MILLIS_PER_SECOND;
+        return LocalDateTime.ofEpochSecond(instant.getEpochSecond() + offsetSeconds, instant.getNano(), ZoneOffset.UTC);
+    }
+
+    public Instant toInstant(LocalDateTime dateTime) {
+        long localMillis = OrderTimeline.toEpochMillis(dateTime.withNano(0));
+        long offsetSeconds = (localMillis - toEpochMillis(localMillis)) / MILLIS_PER_SECOND;
+        return Instant.ofEpochSecond(dateTime.toEpochSecond(ZoneOffset.UTC) - offsetSeconds, dateTime.getNano());
+    }
+
+    @Override
+    public String toString() {
+        return "ZoneOffsetTable[zone=" + zoneId + ", transitions=" + transitions.length + "]";
+    }
+}
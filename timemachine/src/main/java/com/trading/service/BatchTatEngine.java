@@ -0,0 +1,70 @@
+package com.trading.service;
+
+import com.trading.model.Order;
+import com.trading.model.TatReport;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Computes TatReports for large order collections on a dedicated fork-join pool. Each order is turned
+// into its own OrderTimeline, so orders and their transition lists are only ever read, never sorted.
+public class BatchTatEngine implements AutoCloseable {
+
+    private final TatCalculator calculator;
+    private final ForkJoinPool pool;
+
+    public BatchTatEngine(TatCalculator calculator) {
+        this(calculator, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchTatEngine(TatCalculator calculator, int parallelism) {
+        this.calculator = calculator;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    // Reports in the collection's iteration order
+    public List<TatReport> calculateReports(Collection<Order> orders) {
+        return calculateReports(orders.spliterator(), true);
+    }
+
+    // Unordered results skip the merge work needed to restore encounter order
+    public List<TatReport> calculateReports(Spliterator<Order> orders, boolean ordered) {
+        return pool.submit(() -> {
+            Stream<Order> stream = StreamSupport.stream(orders, true);
+            if (!ordered) {
+                stream = stream.unordered();
+            }
+            return stream.map(calculator::calculateReport).toList();
+        }).join();
+    }
+
+    // Hands each report to the sink as soon as it is computed, from whichever worker computed it.
+    // The sink must be thread-safe; nothing is buffered.
+    public void forEachReport(Spliterator<Order> orders, Consumer<TatReport> sink) {
+        pool.submit(() -> StreamSupport.stream(orders, true)
+                .unordered()
+                .map(calculator::calculateReport)
+                .forEach(sink)).join();
+    }
+
+    // Runs any order-level collector on this engine's pool. Each worker fills its own container and
+    // the containers are combined at the end, e.g. TeamTatHistograms.collector(calculator).
+    public <R> R collect(Spliterator<Order> orders, Collector<? super Order, ?, R> collector) {
+        return pool.submit(() -> StreamSupport.stream(orders, true).collect(collector)).join();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
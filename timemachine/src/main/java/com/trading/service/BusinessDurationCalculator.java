@@ -0,0 +1,400 @@
+package com.trading.service;
+
+import com.trading.metrics.TatInstrumentation;
+import com.trading.metrics.TatOperation;
+import com.trading.model.BusinessCalendar;
+import com.trading.model.OrderTimeline;
+import com.trading.model.TeamConfig;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+public class BusinessDurationCalculator {
+
+    public enum Mode {
+        // Walks the range one calendar day at a time
+        DAY_LOOP,
+        // Two lookups in the team's precomputed BusinessCalendar
+        CONSTANT_TIME
+    }
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final Mode mode;
+    private final TatInstrumentation instrumentation;
+
+    public BusinessDurationCalculator() {
+        this(Mode.CONSTANT_TIME);
+    }
+
+    public BusinessDurationCalculator(Mode mode) {
+        this(mode, TatInstrumentation.NOOP);
+    }
+
+    public BusinessDurationCalculator(Mode mode, TatInstrumentation instrumentation) {
+        this.mode = mode;
+        this.instrumentation = instrumentation;
+    }
+
+    public Duration calculateDuration(LocalDateTime start, LocalDateTime end, TeamConfig config) {
+        if (!instrumentation.enabled()) {
+            return durationBetween(start, end, config);
+        }
+        long startNanos = System.nanoTime();
+        Duration duration = durationBetween(start, end, config);
+        instrumentation.record(TatOperation.BUSINESS_DURATION, null, config == null ? null : config.teamName(), 0,
+                daysIterated(start, end), startNanos);
+        return duration;
+    }
+
+    private Duration durationBetween(LocalDateTime start, LocalDateTime end, TeamConfig config) {
+        if (start == null || end == null || config == null) {
+            return Duration.ZERO;
+        }
+        if (start.isAfter(end)) {
+            return Duration.ZERO;
+        }
+
+        // Adjusting the start never skips business time, so the calendar can measure from the raw start
+        if (mode == Mode.CONSTANT_TIME) {
+            return config.calendar().between(start, end);
+        }
+
+        // 1. Adjust Start Time based on Cutoff and Business Hours
+        LocalDateTime effectiveStart = adjustStartTime(start, config);
+
+        // If adjustment pushed start past end, duration is 0
+        if (effectiveStart.isAfter(end)) {
+            return Duration.ZERO;
+        }
+
+        // 2. Calculate duration within business hours
+        return calculateBusinessDuration(effectiveStart, end, config);
+    }
+
+    // Inverse of calculateDuration: the earliest time by which the given business time has elapsed
+    // after start. An SLA that runs out exactly at a cutoff is due at that cutoff.
+    public LocalDateTime addBusinessDuration(LocalDateTime start, Duration duration, TeamConfig config) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Negative business duration: " + duration);
+        }
+        if (duration.isZero()) {
+            return start;
+        }
+        if (mode == Mode.DAY_LOOP) {
+            return addBusinessDurationByDay(start, duration, config);
+        }
+        BusinessCalendar calendar = config.calendar();
+        return calendar.dateTimeAt(calendar.businessNanosAt(start) + duration.toNanos());
+    }
+
+    public long addBusinessMillis(long startMillis, long durationMillis, TeamConfig config) {
+        if (durationMillis < 0) {
+            throw new IllegalArgumentException("Negative business duration: " + durationMillis);
+        }
+        if (durationMillis == 0) {
+            return startMillis;
+        }
+        if (mode == Mode.DAY_LOOP) {
+            return OrderTimeline.toEpochMillis(addBusinessDurationByDay(OrderTimeline.toLocalDateTime(startMillis),
+                    Duration.ofMillis(durationMillis), config));
+        }
+        BusinessCalendar calendar = config.calendar();
+        return calendar.epochMillisAt(calendar.businessNanosAtEpochMillis(startMillis) + durationMillis * NANOS_PER_MILLI);
+    }
+
+    // Batch form of calculateDuration for pairs of local epoch millis that share one team: the whole
+    // business seconds of each pair go into seconds. CONSTANT_TIME runs BusinessSecondsKernel over the
+    // team's calendar, vectorized where the JVM allows; DAY_LOOP measures pair by pair.
+    public void calculateBusinessSeconds(long[] startMillis, long[] endMillis, long[] seconds, TeamConfig config) {
+        if (mode == Mode.CONSTANT_TIME) {
+            config.calendar().businessSeconds(startMillis, endMillis, seconds);
+            return;
+        }
+        if (startMillis.length != endMillis.length || seconds.length < startMillis.length) {
+            throw new IllegalArgumentException("Mismatched batch lengths: " + startMillis.length + " starts, "
+                    + endMillis.length + " ends, " + seconds.length + " outputs");
+        }
+        for (int i = 0; i < startMillis.length; i++) {
+            seconds[i] = calculateDuration(OrderTimeline.toLocalDateTime(startMillis[i]),
+                    OrderTimeline.toLocalDateTime(endMillis[i]), config).getSeconds();
+        }
+    }
+
+    // Instant-based counterparts of the above. Instants are moved into the team's zone before business
+    // hours apply, so every team is measured on its own clock and across DST changes; a team without a
+    // zone works in UTC. CONSTANT_TIME converts through the team's ZoneOffsetTable, DAY_LOOP through
+    // ZonedDateTime.
+    public Duration calculateDuration(Instant start, Instant end, TeamConfig config) {
+        if (start == null || end == null || config == null) {
+            return Duration.ZERO;
+        }
+        return calculateDuration(toLocalDateTime(start, config), toLocalDateTime(end, config), config);
+    }
+
+    public long calculateInstantBusinessMillis(long startEpochMillis, long endEpochMillis, TeamConfig config) {
+        if (endEpochMillis <= startEpochMillis) {
+            return 0;
+        }
+        return calculateBusinessMillis(toLocalEpochMillis(startEpochMillis, config),
+                toLocalEpochMillis(endEpochMillis, config), config);
+    }
+
+    public Instant addBusinessDuration(Instant start, Duration duration, TeamConfig config) {
+        return toInstant(addBusinessDuration(toLocalDateTime(start, config), duration, config), config);
+    }
+
+    public long addInstantBusinessMillis(long startEpochMillis, long durationMillis, TeamConfig config) {
+        return toEpochMillis(addBusinessMillis(toLocalEpochMillis(startEpochMillis, config), durationMillis, config),
+                config);
+    }
+
+    // Instant counterparts of isAfterCutoff and getNextBusinessDayStartMillis: the cutoff and the next
+    // business day are read on the team's clock, and the day start is returned as an instant
+    public boolean isInstantAfterCutoff(long epochMillis, TeamConfig config) {
+        return isAfterCutoff(toLocalEpochMillis(epochMillis, config), config);
+    }
+
+    public long getNextBusinessDayStartEpochMillis(long epochMillis, TeamConfig config) {
+        long localMillis = toLocalEpochMillis(epochMillis, config);
+        return toEpochMillis(getNextBusinessDayStartMillis(Math.floorDiv(localMillis, MILLIS_PER_DAY) + 1, config),
+                config);
+    }
+
+    private LocalDateTime toLocalDateTime(Instant instant, TeamConfig config) {
+        if (config.zoneId() == null) {
+            return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+        }
+        if (mode == Mode.DAY_LOOP) {
+            return LocalDateTime.ofInstant(instant, config.zoneId());
+        }
+        return config.zoneOffsets().toLocalDateTime(instant);
+    }
+
+    private Instant toInstant(LocalDateTime dateTime, TeamConfig config) {
+        if (config.zoneId() == null) {
+            return dateTime.toInstant(ZoneOffset.UTC);
+        }
+        if (mode == Mode.DAY_LOOP) {
+            return ZonedDateTime.ofLocal(dateTime, config.zoneId(), null).toInstant();
+        }
+        return config.zoneOffsets().toInstant(dateTime);
+    }
+
+    private long toLocalEpochMillis(long epochMillis, TeamConfig config) {
+        if (config.zoneId() == null) {
+            return epochMillis;
+        }
+        if (mode == Mode.DAY_LOOP) {
+            return OrderTimeline.toEpochMillis(toLocalDateTime(Instant.ofEpochMilli(epochMillis), config));
+        }
+        return config.zoneOffsets().toLocalEpochMillis(epochMillis);
+    }
+
+    private long toEpochMillis(long localEpochMillis, TeamConfig config) {
+        if (config.zoneId() == null) {
+            return localEpochMillis;
+        }
+        if (mode == Mode.DAY_LOOP) {
+            return toInstant(OrderTimeline.toLocalDateTime(localEpochMillis), config).toEpochMilli();
+        }
+        return config.zoneOffsets().toEpochMillis(localEpochMillis);
+    }
+
+    private LocalDateTime addBusinessDurationByDay(LocalDateTime start, Duration duration, TeamConfig config) {
+        if (!config.startTime().isBefore(config.cutoffTime())) {
+            throw new IllegalStateException("No business hours between " + config.startTime() + " and "
+                    + config.cutoffTime());
+        }
+        LocalDateTime current = start;
+        Duration remaining = duration;
+        while (true) {
+            java.time.LocalDate date = current.toLocalDate();
+            if (isBusinessDay(date, config)) {
+                LocalDateTime open = LocalDateTime.of(date, config.startTime());
+                LocalDateTime from = current.isAfter(open) ? current : open;
+                LocalDateTime close = LocalDateTime.of(date, getCutoffTime(date, config));
+                if (from.isBefore(close)) {
+                    Duration available = Duration.between(from, close);
+                    if (remaining.compareTo(available) <= 0) {
+                        return from.plus(remaining);
+                    }
+                    remaining = remaining.minus(available);
+                }
+            }
+            current = date.plusDays(1).atStartOfDay();
+        }
+    }
+
+    private LocalDateTime adjustStartTime(LocalDateTime start, TeamConfig config) {
+        LocalDateTime adjusted = start;
+        LocalTime time = start.toLocalTime();
+
+        // If after cutoff, move to next business day start
+        if (time.isAfter(getCutoffTime(start.toLocalDate(), config))) {
+            adjusted = getNextBusinessDayStart(start.toLocalDate().plusDays(1), config);
+        }
+        // If before start time, move to start time of same day (if business day)
+        else if (time.isBefore(config.startTime())) {
+            if (!isBusinessDay(start.toLocalDate(), config)) {
+                adjusted = getNextBusinessDayStart(start.toLocalDate(), config);
+            } else {
+                adjusted = LocalDateTime.of(start.toLocalDate(), config.startTime());
+            }
+        }
+        // If on weekend or holiday, move to next business day start
+        else if (!isBusinessDay(start.toLocalDate(), config)) {
+            adjusted = getNextBusinessDayStart(start.toLocalDate(), config);
+        }
+
+        return adjusted;
+    }
+
+    public LocalDateTime getNextBusinessDayStart(java.time.LocalDate date, TeamConfig config) {
+        if (mode == Mode.CONSTANT_TIME) {
+            return LocalDateTime.of(config.calendar().nextBusinessDay(date), config.startTime());
+        }
+        java.time.LocalDate nextDate = date;
+        while (!isBusinessDay(nextDate, config)) {
+            nextDate = nextDate.plusDays(1);
+        }
+        return LocalDateTime.of(nextDate, config.startTime());
+    }
+
+    // Half-days end at their own cutoff; every other day at the team's standard cutoff
+    public LocalTime getCutoffTime(java.time.LocalDate date, TeamConfig config) {
+        if (mode == Mode.CONSTANT_TIME) {
+            return config.calendar().cutoffOn(date);
+        }
+        LocalTime halfDayCutoff = config.halfDays() == null ? null : config.halfDays().get(date);
+        return halfDayCutoff == null ? config.cutoffTime() : halfDayCutoff;
+    }
+
+    // Epoch-millis counterparts of the above for OrderTimeline times
+    public long getNextBusinessDayStartMillis(long epochDay, TeamConfig config) {
+        if (mode == Mode.DAY_LOOP) {
+            return OrderTimeline.toEpochMillis(getNextBusinessDayStart(java.time.LocalDate.ofEpochDay(epochDay), config));
+        }
+        return config.calendar().nextBusinessEpochDay(epochDay) * MILLIS_PER_DAY
+                + config.calendar().startNanoOfDay() / NANOS_PER_MILLI;
+    }
+
+    // Business millis in [start, end) for local epoch millis, zero when end is not after start
+    public long calculateBusinessMillis(long startMillis, long endMillis, TeamConfig config) {
+        if (endMillis <= startMillis) {
+            return 0;
+        }
+        if (!instrumentation.enabled()) {
+            return businessMillisBetween(startMillis, endMillis, config);
+        }
+        long startNanos = System.nanoTime();
+        long millis = businessMillisBetween(startMillis, endMillis, config);
+        instrumentation.record(TatOperation.BUSINESS_MILLIS, null, config.teamName(), 0,
+                daysIterated(Math.floorDiv(startMillis, MILLIS_PER_DAY), Math.floorDiv(endMillis, MILLIS_PER_DAY)), startNanos);
+        return millis;
+    }
+
+    private long businessMillisBetween(long startMillis, long endMillis, TeamConfig config) {
+        if (mode == Mode.DAY_LOOP) {
+            return durationBetween(OrderTimeline.toLocalDateTime(startMillis), OrderTimeline.toLocalDateTime(endMillis),
+                    config).toMillis();
+        }
+        BusinessCalendar calendar = config.calendar();
+        return (calendar.businessNanosAtEpochMillis(endMillis) - calendar.businessNanosAtEpochMillis(startMillis))
+                / NANOS_PER_MILLI;
+    }
+
+    // Calendar days the day loop visits; the calendar lookups visit none
+    private long daysIterated(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || start.isAfter(end)) {
+            return 0;
+        }
+        return daysIterated(start.toLocalDate().toEpochDay(), end.toLocalDate().toEpochDay());
+    }
+
+    private long daysIterated(long startEpochDay, long endEpochDay) {
+        return mode == Mode.DAY_LOOP ? endEpochDay - startEpochDay + 1 : 0;
+    }
+
+    public boolean isAfterCutoff(long epochMillis, TeamConfig config) {
+        long epochDay = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        long nanoOfDay = Math.floorMod(epochMillis, MILLIS_PER_DAY) * NANOS_PER_MILLI;
+        if (mode == Mode.DAY_LOOP) {
+            return nanoOfDay > getCutoffTime(java.time.LocalDate.ofEpochDay(epochDay), config).toNanoOfDay();
+        }
+        return nanoOfDay > config.calendar().cutoffNanoOfDay(epochDay);
+    }
+
+    private boolean isBusinessDay(java.time.LocalDate date, TeamConfig config) {
+        if (mode == Mode.CONSTANT_TIME) {
+            return config.calendar().isBusinessDay(date);
+        }
+        return !isWeekend(date) && (config.holidays() == null || !config.holidays().contains(date));
+    }
+
+    private boolean isWeekend(java.time.LocalDate date) {
+        DayOfWeek day = date.getDayOfWeek();
+        return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+    }
+
+    private Duration calculateBusinessDuration(LocalDateTime start, LocalDateTime end, TeamConfig config) {
+        Duration totalDuration = Duration.ZERO;
+        LocalDateTime current = start;
+
+        while (current.isBefore(end)) {
+            if (!isBusinessDay(current.toLocalDate(), config)) {
+                // Skip to next day start (which might be Monday)
+                current = LocalDateTime.of(current.toLocalDate().plusDays(1), config.startTime());
+                continue;
+            }
+
+            LocalTime cutoffTime = getCutoffTime(current.toLocalDate(), config);
+            LocalDateTime dayEnd = LocalDateTime.of(current.toLocalDate(), cutoffTime); // Using cutoff as end
+                                                                                         // of business day?
+            // Requirement says "cutoff time which marked their end of day".
+            // So we count time until cutoff.
+
+            // If current time is already past cutoff (shouldn't happen with adjusted start,
+            // but for safety), skip to next day
+            if (current.toLocalTime().isAfter(cutoffTime)) {
+                current = LocalDateTime.of(current.toLocalDate().plusDays(1), config.startTime());
+                continue;
+            }
+
+            // If current time is before start (shouldn't happen with adjusted start), move
+            // to start
+            if (current.toLocalTime().isBefore(config.startTime())) {
+                current = LocalDateTime.of(current.toLocalDate(), config.startTime());
+            }
+
+            // Determine the end of the counting interval for this day
+            // It's either the actual end time (if on same day) or the business day end
+            // (cutoff)
+            LocalDateTime intervalEnd;
+            if (end.toLocalDate().equals(current.toLocalDate())) {
+                if (end.toLocalTime().isBefore(cutoffTime)) {
+                    intervalEnd = end;
+                } else {
+                    intervalEnd = dayEnd;
+                }
+            } else {
+                intervalEnd = dayEnd;
+            }
+
+            if (current.isBefore(intervalEnd)) {
+                totalDuration = totalDuration.plus(Duration.between(current, intervalEnd));
+            }
+
+            // Move to next day start
+            current = LocalDateTime.of(current.toLocalDate().plusDays(1), config.startTime());
+        }
+
+        return totalDuration;
+    }
+}
@@ -0,0 +1,33 @@
+package com.trading.service;
+
+// Layout of a StreamingTatEngine checkpoint, all values big-endian. Strings are a short byte length and
+// UTF-8 bytes; times are local epoch millis, or UTC epoch millis with instantTimes, and Long.MIN_VALUE
+// stands for "not reached".
+//
+//   header        int magic "TATC", int version, long eventOffset, long watermark, long sequence,
+//                 long lateEvents, long recomputations, long droppedEvents,
+//                 long allowedLatenessMillis, int reorderBufferCapacity, byte recomputeLateEvents,
+//                 long completedRetentionMillis, int tombstoneCapacity, byte instantTimes
+//   teams         int teamCount, per team:
+//                   string teamName, long startNanoOfDay, long cutoffNanoOfDay (both -1 without hours),
+//                   string zoneId ("" without a zone), int blockCount,
+//                   blockCount x (long statusMask, long entryMask, long inProgressMask)
+//   open orders   int orderCount, per order:
+//                   string orderId, long lastTime,
+//                   accumulator: long firstDraft, firstSubmitted, firstStarted, lastStarted, lastCompleted,
+//                                byte previousOrdinal, long previousTime, long parkedMillis,
+//                                per block in team order: byte done, long entryTime, entryParked,
+//                                inProgressTime, inProgressParked, nextDayStart, nextDayStartParked,
+//                                endTime, endParked
+//                   int logSize (-1 without a transition log), logSize x (byte ordinal, long time)
+//   completed     the completed orders still kept, laid out like the open orders
+//   tombstones    int tombstoneCount, tombstoneCount x (string orderId, long completedTime), oldest first
+//   reorder buffer  int eventCount, eventCount x (string orderId, byte ordinal, long time, long sequence)
+final class CheckpointFormat {
+
+    static final int MAGIC = 0x54415443;
+    static final int VERSION = 2;
+
+    private CheckpointFormat() {
+    }
+}
@@ -0,0 +1,38 @@
+package com.trading.service;
+
+import com.trading.model.ActivityBlock;
+import com.trading.model.OrderStatus;
+
+// ActivityBlock reduced to ordinal bit masks. Entry and in-progress masks are empty when the status is
+// not part of the block, matching the Set-based lookups they replace. slaMillis is 0 without an SLA.
+public record CompiledActivityBlock(
+        long statusMask,
+        long entryMask,
+        long inProgressMask,
+        long slaMillis) {
+
+    public static CompiledActivityBlock compile(ActivityBlock block) {
+        long statusMask = OrderStatus.maskOf(block.statuses());
+        return new CompiledActivityBlock(
+                statusMask,
+                block.entryStatus() == null ? 0 : block.entryStatus().bit() & statusMask,
+                block.firstInProgressStatus() == null ? 0 : block.firstInProgressStatus().bit() & statusMask,
+                block.sla() == null ? 0 : block.sla().toMillis());
+    }
+
+    public boolean contains(int ordinal) {
+        return (statusMask >>> ordinal & 1) != 0;
+    }
+
+    public boolean isEntry(int ordinal) {
+        return (entryMask >>> ordinal & 1) != 0;
+    }
+
+    public boolean isInProgress(int ordinal) {
+        return (inProgressMask >>> ordinal & 1) != 0;
+    }
+
+    public boolean hasSla() {
+        return slaMillis > 0;
+    }
+}
@@ -0,0 +1,44 @@
+package com.trading.service;
+
+import com.trading.model.ActivityBlock;
+import com.trading.model.TeamConfig;
+
+import java.util.List;
+
+// TeamConfig prepared for the per-transition path: blocks become bit masks, built once per calculator
+public final class CompiledTeamConfig {
+
+    private final TeamConfig config;
+    private final CompiledActivityBlock[] blocks;
+
+    private CompiledTeamConfig(TeamConfig config, CompiledActivityBlock[] blocks) {
+        this.config = config;
+        this.blocks = blocks;
+    }
+
+    public static CompiledTeamConfig compile(TeamConfig config) {
+        List<ActivityBlock> activityBlocks = config.activityBlocks();
+        int count = activityBlocks == null ? 0 : activityBlocks.size();
+        CompiledActivityBlock[] blocks = new CompiledActivityBlock[count];
+        for (int i = 0; i < count; i++) {
+            blocks[i] = CompiledActivityBlock.compile(activityBlocks.get(i));
+        }
+        return new CompiledTeamConfig(config, blocks);
+    }
+
+    public TeamConfig config() {
+        return config;
+    }
+
+    public String teamName() {
+        return config.teamName();
+    }
+
+    public int blockCount() {
+        return blocks.length;
+    }
+
+    public CompiledActivityBlock block(int index) {
+        return blocks[index];
+    }
+}
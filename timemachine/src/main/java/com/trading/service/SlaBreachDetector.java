@@ -0,0 +1,206 @@
+package com.trading.service;
+
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.SlaBreach;
+import com.trading.model.TeamConfig;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Watches the SLA of every open order's activity blocks on a hashed timer wheel instead of polling
+// the orders. Entering a block with an SLA schedules its deadline: the SLA added as business time to
+// the entry. Parking cancels the timer and keeps the business time that was left; leaving parked
+// reschedules from there, which pushes the deadline back by the parked time. Leaving the block
+// cancels it; a deadline that passes first is reported to the sink once.
+//
+// Feed time-ordered events (see StreamingTatEngine for reordering); each event first advances the
+// wheel to its time, and advanceTo moves the clock between events. Times are local epoch millis, or
+// UTC epoch millis with instantTimes, in which case deadlines follow each team's business hours in its
+// own zone. Not thread-safe.
+public class SlaBreachDetector {
+
+    private static final int COMPLETED = OrderStatus.COMPLETED.ordinal();
+    private static final long DEFAULT_TICK_MILLIS = 60_000;
+    private static final int DEFAULT_WHEEL_SIZE = 4096;
+
+    private final BusinessDurationCalculator durationCalculator;
+    private final List<CompiledTeamConfig> teams;
+    private final List<String> teamNames;
+    private final Consumer<SlaBreach> sink;
+    private final TimerWheel<BlockTimer> wheel;
+    private final int slaBlockCount;
+    private final boolean instantTimes;
+
+    private final Map<String, BlockTimer[]> openOrders = new HashMap<>();
+    private long breaches;
+
+    public SlaBreachDetector(TatCalculator calculator, Consumer<SlaBreach> sink) {
+        this(calculator, sink, 0, 0, false);
+    }
+
+    // A tick of a minute and 4096 slots by default: one lap covers almost three days
+    @Builder
+    public SlaBreachDetector(TatCalculator calculator, Consumer<SlaBreach> sink, long tickMillis, int wheelSize,
+            boolean instantTimes) {
+        this.durationCalculator = calculator.durationCalculator();
+        this.teams = calculator.teams();
+        this.teamNames = calculator.teamNames();
+        this.sink = sink;
+        this.wheel = new TimerWheel<>(tickMillis > 0 ? tickMillis : DEFAULT_TICK_MILLIS,
+                wheelSize > 0 ? wheelSize : DEFAULT_WHEEL_SIZE);
+        int count = 0;
+        for (CompiledTeamConfig team : teams) {
+            for (int block = 0; block < team.blockCount(); block++) {
+                count += team.block(block).hasSla() ? 1 : 0;
+            }
+        }
+        this.slaBlockCount = count;
+        this.instantTimes = instantTimes;
+    }
+
+    public void onEvent(String orderId, OrderStatus status, LocalDateTime timestamp) {
+        onEvent(orderId, status, OrderTimeline.toEpochMillis(timestamp));
+    }
+
+    public void onEvent(String orderId, OrderStatus status, long epochMillis) {
+        advanceTo(epochMillis);
+        if (slaBlockCount == 0) {
+            return;
+        }
+
+        int ordinal = status.ordinal();
+        BlockTimer[] timers = openOrders.get(orderId);
+        if (timers == null) {
+            if (ordinal == COMPLETED) {
+                return;
+            }
+            timers = newTimers(orderId);
+            openOrders.put(orderId, timers);
+        }
+        for (BlockTimer timer : timers) {
+            timer.apply(ordinal, epochMillis);
+        }
+        if (ordinal == COMPLETED) {
+            for (BlockTimer timer : timers) {
+                wheel.cancel(timer.timer);
+            }
+            openOrders.remove(orderId);
+        }
+    }
+
+    // Fires every deadline at or before now
+    public void advanceTo(long epochMillis) {
+        wheel.advanceTo(epochMillis, this::breach);
+    }
+
+    public int openOrderCount() {
+        return openOrders.size();
+    }
+
+    public int scheduledTimerCount() {
+        return wheel.size();
+    }
+
+    public long breachCount() {
+        return breaches;
+    }
+
+    private BlockTimer[] newTimers(String orderId) {
+        BlockTimer[] timers = new BlockTimer[slaBlockCount];
+        int i = 0;
+        for (int team = 0; team < teams.size(); team++) {
+            for (int block = 0; block < teams.get(team).blockCount(); block++) {
+                if (teams.get(team).block(block).hasSla()) {
+                    timers[i++] = new BlockTimer(orderId, team, block);
+                }
+            }
+        }
+        return timers;
+    }
+
+    private void breach(BlockTimer timer) {
+        timer.state = BlockTimer.BREACHED;
+        breaches++;
+        sink.accept(new SlaBreach(timer.orderId, teamNames.get(timer.team), timer.block, timer.entryMillis,
+                timer.timer.deadlineMillis()));
+    }
+
+    private final class BlockTimer {
+
+        private static final int WAITING = 0;
+        private static final int RUNNING = 1;
+        private static final int PAUSED = 2;
+        private static final int DONE = 3;
+        private static final int BREACHED = 4;
+
+        private final String orderId;
+        private final int team;
+        private final int block;
+        private final CompiledActivityBlock spec;
+        private final TeamConfig config;
+
+        private int state = WAITING;
+        private long entryMillis;
+        private long remainingMillis;
+        private TimerWheel.Timer<BlockTimer> timer;
+
+        private BlockTimer(String orderId, int team, int block) {
+            this.orderId = orderId;
+            this.team = team;
+            this.block = block;
+            this.spec = teams.get(team).block(block);
+            this.config = teams.get(team).config();
+        }
+
+        private void apply(int ordinal, long time) {
+            boolean parked = OrderStatus.isParked(ordinal);
+            switch (state) {
+                case WAITING -> {
+                    if (spec.isEntry(ordinal)) {
+                        entryMillis = time;
+                        remainingMillis = spec.slaMillis();
+                        state = PAUSED;
+                        if (!parked) {
+                            start(time);
+                        }
+                    }
+                }
+                case RUNNING -> {
+                    if (!spec.contains(ordinal)) {
+                        wheel.cancel(timer);
+                        state = DONE;
+                    } else if (parked) {
+                        remainingMillis = instantTimes
+                                ? durationCalculator.calculateInstantBusinessMillis(time, timer.deadlineMillis(), config)
+                                : durationCalculator.calculateBusinessMillis(time, timer.deadlineMillis(), config);
+                        wheel.cancel(timer);
+                        state = PAUSED;
+                    }
+                }
+                case PAUSED -> {
+                    if (!spec.contains(ordinal)) {
+                        state = DONE;
+                    } else if (!parked) {
+                        start(time);
+                    }
+                }
+                default -> {
+                    // Done or already breached
+                }
+            }
+        }
+
+        private void start(long time) {
+            long deadline = instantTimes
+                    ? durationCalculator.addInstantBusinessMillis(time, remainingMillis, config)
+                    : durationCalculator.addBusinessMillis(time, remainingMillis, config);
+            timer = wheel.schedule(deadline, this);
+            state = RUNNING;
+        }
+    }
+}
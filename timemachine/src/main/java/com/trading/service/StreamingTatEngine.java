@@ -0,0 +1,551 @@
+package com.trading.service;
+
+import com.trading.model.BusinessCalendar;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.TatReport;
+import lombok.Builder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Computes TAT live from status-change events. Each open order keeps a TatAccumulator, whose size
+// depends on the number of configured blocks and not on how many transitions the order has seen.
+// The report is handed to the sink when COMPLETED is applied.
+//
+// Like TatCalculator, TAT runs to the order's last COMPLETED, so a completed order keeps its state until
+// the watermark is completedRetentionMillis past its COMPLETED. An order reopened within that time
+// continues where it left off and is reported again when it completes again; the last report per order
+// is the one TatCalculator gives for all its transitions. After that the state is dropped and only the
+// order id and COMPLETED time are kept, in a tombstone set bounded by tombstoneCapacity; events for a
+// tombstoned order can no longer be merged and are counted as dropped.
+//
+// Event times are local epoch millis like OrderTimeline's. With instantTimes they are UTC epoch millis
+// instead and each team's cutoff is read in its own zone, as in TatCalculator.calculateInstantReport.
+//
+// Out-of-order feeds: events wait in a bounded reorder buffer until the partition watermark (latest
+// event time seen minus the allowed lateness) passes them, and are then applied in time order.
+// An event that still lands before its order's last applied transition is late; with
+// recomputeLateEvents it is inserted into the order's transition log and only the blocks it can
+// affect are replayed, otherwise it is dropped. Both outcomes are counted. A late event for a completed
+// order whose state is still kept is handled the same way, and a recomputed order is reported again.
+//
+// A checkpoint saves every open and retained completed order's state, the reorder buffer and the watermark together with the
+// number of events received so far. A restored engine continues from there, so only the events after
+// that offset have to be replayed instead of the whole feed.
+//
+// Not thread-safe: partition events by orderId and give each partition its own engine.
+public class StreamingTatEngine {
+
+    private static final int COMPLETED = OrderStatus.COMPLETED.ordinal();
+    private static final int DEFAULT_TOMBSTONE_CAPACITY = 100_000;
+    // Strings are written with an unsigned short length, see CheckpointFormat
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private final TatCalculator calculator;
+    private final Consumer<TatReport> sink;
+    private final long allowedLatenessMillis;
+    private final int reorderBufferCapacity;
+    private final boolean recomputeLateEvents;
+    private final long completedRetentionMillis;
+    private final int tombstoneCapacity;
+    private final boolean instantTimes;
+
+    private final Map<String, OrderState> openOrders = new HashMap<>();
+    private final Map<String, OrderState> completedOrders = new HashMap<>();
+    private final PriorityQueue<Completion> completions = new PriorityQueue<>();
+    // Order id to COMPLETED time of released orders, oldest first
+    private final Map<String, Long> tombstones = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > tombstoneCapacity;
+        }
+    };
+    private final PriorityQueue<PendingEvent> reorderBuffer = new PriorityQueue<>();
+
+    private long watermark = Long.MIN_VALUE;
+    private long sequence;
+    private long lateEvents;
+    private long recomputations;
+    private long droppedEvents;
+    private long eventOffset;
+
+    public StreamingTatEngine(TatCalculator calculator, Consumer<TatReport> sink) {
+        this(calculator, sink, 0, 0, false, 0, 0, false);
+    }
+
+    @Builder
+    public StreamingTatEngine(TatCalculator calculator, Consumer<TatReport> sink, long allowedLatenessMillis,
+            int reorderBufferCapacity, boolean recomputeLateEvents, long completedRetentionMillis,
+            int tombstoneCapacity, boolean instantTimes) {
+        this.calculator = calculator;
+        this.sink = sink;
+        this.allowedLatenessMillis = allowedLatenessMillis;
+        this.reorderBufferCapacity = reorderBufferCapacity;
+        this.recomputeLateEvents = recomputeLateEvents;
+        this.completedRetentionMillis = completedRetentionMillis;
+        this.tombstoneCapacity = tombstoneCapacity > 0 ? tombstoneCapacity : DEFAULT_TOMBSTONE_CAPACITY;
+        this.instantTimes = instantTimes;
+    }
+
+    public void onEvent(String orderId, OrderStatus status, LocalDateTime timestamp) {
+        onEvent(orderId, status, OrderTimeline.toEpochMillis(timestamp));
+    }
+
+    public void onEvent(String orderId, OrderStatus status, long epochMillis) {
+        eventOffset++;
+        if (epochMillis - allowedLatenessMillis > watermark) {
+            watermark = epochMillis - allowedLatenessMillis;
+        }
+        if (epochMillis <= watermark && reorderBuffer.isEmpty()) {
+            apply(orderId, status.ordinal(), epochMillis);
+        } else {
+            reorderBuffer.add(new PendingEvent(orderId, status.ordinal(), epochMillis, sequence++));
+            while (!reorderBuffer.isEmpty()
+                    && (reorderBuffer.peek().time <= watermark || reorderBuffer.size() > reorderBufferCapacity)) {
+                PendingEvent event = reorderBuffer.poll();
+                apply(event.orderId, event.ordinal, event.time);
+            }
+        }
+        releaseCompleted();
+    }
+
+    // Applies everything still waiting in the reorder buffer, e.g. at the end of a replayed feed
+    public void flush() {
+        while (!reorderBuffer.isEmpty()) {
+            PendingEvent event = reorderBuffer.poll();
+            apply(event.orderId, event.ordinal, event.time);
+        }
+    }
+
+    // TAT so far for an order that has not completed; blocks it has not left yet count as zero
+    public TatReport currentReport(String orderId) {
+        OrderState state = openOrders.get(orderId);
+        return state == null ? null : state.accumulator.toReport(orderId);
+    }
+
+    public int openOrderCount() {
+        return openOrders.size();
+    }
+
+    // Completed orders whose state is still kept for reopenings and late events
+    public int completedOrderCount() {
+        return completedOrders.size();
+    }
+
+    public int tombstoneCount() {
+        return tombstones.size();
+    }
+
+    public int bufferedEventCount() {
+        return reorderBuffer.size();
+    }
+
+    public long watermark() {
+        return watermark;
+    }
+
+    // Events that arrived after a later transition of the same order had already been applied
+    public long lateEventCount() {
+        return lateEvents;
+    }
+
+    public long recomputationCount() {
+        return recomputations;
+    }
+
+    public long droppedEventCount() {
+        return droppedEvents;
+    }
+
+    // Events received so far; after restore, replay the feed from this position
+    public long eventOffset() {
+        return eventOffset;
+    }
+
+    public void checkpoint(Path path) throws IOException {
+        write(path, encode());
+    }
+
+    // Encodes the state on the calling thread, which is all the engine waits for; the file is written and
+    // synced on the executor. The encoding pauses the engine for time proportional to its open, retained
+    // and buffered state, and the encoded copy is held until the write completes.
+    //
+    // A checkpoint is written to a temporary file next to the target, forced to disk and moved over the
+    // target in one step, so a crash at any point leaves either the previous checkpoint or the new one.
+    public CompletableFuture<Path> checkpoint(Path path, Executor executor) {
+        CheckpointBuffer snapshot;
+        try {
+            snapshot = encode();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                write(path, snapshot);
+                return path;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    // The engine settings come from the checkpoint. The calculator must have the same teams in the same order,
+    // each with the same hours, zone and blocks; holidays, half-days and SLAs are not compared.
+    public static StreamingTatEngine restore(Path path, TatCalculator calculator, Consumer<TatReport> sink)
+            throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Checkpoint too large to map: " + path);
+            }
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return decode(in, calculator, sink, path);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated checkpoint: " + path, e);
+        }
+    }
+
+    private CheckpointBuffer encode() throws IOException {
+        CheckpointBuffer bytes = new CheckpointBuffer();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(CheckpointFormat.MAGIC);
+            out.writeInt(CheckpointFormat.VERSION);
+            out.writeLong(eventOffset);
+            out.writeLong(watermark);
+            out.writeLong(sequence);
+            out.writeLong(lateEvents);
+            out.writeLong(recomputations);
+            out.writeLong(droppedEvents);
+            out.writeLong(allowedLatenessMillis);
+            out.writeInt(reorderBufferCapacity);
+            out.writeByte(recomputeLateEvents ? 1 : 0);
+            out.writeLong(completedRetentionMillis);
+            out.writeInt(tombstoneCapacity);
+            out.writeByte(instantTimes ? 1 : 0);
+
+            List<String> teamNames = calculator.teamNames();
+            out.writeInt(teamNames.size());
+            for (int team = 0; team < teamNames.size(); team++) {
+                writeTeam(out, teamNames.get(team), calculator.teams().get(team));
+            }
+
+            writeOrders(out, openOrders);
+            writeOrders(out, completedOrders);
+            out.writeInt(tombstones.size());
+            for (Map.Entry<String, Long> tombstone : tombstones.entrySet()) {
+                writeString(out, tombstone.getKey());
+                out.writeLong(tombstone.getValue());
+            }
+
+            out.writeInt(reorderBuffer.size());
+            for (PendingEvent event : reorderBuffer) {
+                writeString(out, event.orderId);
+                out.writeByte(event.ordinal);
+                out.writeLong(event.time);
+                out.writeLong(event.sequence);
+            }
+        }
+        return bytes;
+    }
+
+    private static StreamingTatEngine decode(ByteBuffer in, TatCalculator calculator, Consumer<TatReport> sink,
+            Path path) throws IOException {
+        if (in.remaining() < 8 || in.getInt() != CheckpointFormat.MAGIC) {
+            throw new IOException("Not a TAT engine checkpoint: " + path);
+        }
+        int version = in.getInt();
+        if (version != CheckpointFormat.VERSION) {
+            throw new IOException("Unsupported checkpoint version " + version + ": " + path);
+        }
+        long eventOffset = in.getLong();
+        long watermark = in.getLong();
+        long sequence = in.getLong();
+        long lateEvents = in.getLong();
+        long recomputations = in.getLong();
+        long droppedEvents = in.getLong();
+        StreamingTatEngine engine = new StreamingTatEngine(calculator, sink, in.getLong(), in.getInt(), in.get() != 0,
+                in.getLong(), in.getInt(), in.get() != 0);
+        engine.eventOffset = eventOffset;
+        engine.watermark = watermark;
+        engine.sequence = sequence;
+        engine.lateEvents = lateEvents;
+        engine.recomputations = recomputations;
+        engine.droppedEvents = droppedEvents;
+
+        List<String> teamNames = calculator.teamNames();
+        if (in.getInt() != teamNames.size()) {
+            throw new IOException("Checkpoint was taken with a different set of teams: " + path);
+        }
+        for (int team = 0; team < teamNames.size(); team++) {
+            if (!readTeamMatches(in, teamNames.get(team), calculator.teams().get(team))) {
+                throw new IOException("Checkpoint was taken with a different configuration of team "
+                        + teamNames.get(team) + ": " + path);
+            }
+        }
+
+        Supplier<TatAccumulator> accumulators = () -> calculator.newAccumulator(engine.instantTimes);
+        readOrders(in, accumulators, engine.openOrders);
+        readOrders(in, accumulators, engine.completedOrders);
+        engine.completedOrders.forEach((orderId, state) -> engine.completions.add(new Completion(orderId, state.lastTime)));
+        int tombstoneCount = in.getInt();
+        for (int i = 0; i < tombstoneCount; i++) {
+            engine.tombstones.put(readString(in), in.getLong());
+        }
+
+        int eventCount = in.getInt();
+        for (int i = 0; i < eventCount; i++) {
+            engine.reorderBuffer.add(new PendingEvent(readString(in), in.get(), in.getLong(), in.getLong()));
+        }
+        return engine;
+    }
+
+    // The per-block state of an order only means something against the blocks, hours and zone it was
+    // accumulated with, so all of them are written and compared on restore
+    private static void writeTeam(DataOutput out, String teamName, CompiledTeamConfig team) throws IOException {
+        writeString(out, teamName);
+        BusinessCalendar calendar = team.config().calendar();
+        out.writeLong(calendar == null ? -1 : calendar.startNanoOfDay());
+        out.writeLong(calendar == null ? -1 : calendar.cutoffTime().toNanoOfDay());
+        writeString(out, team.config().zoneId() == null ? "" : team.config().zoneId().getId());
+        out.writeInt(team.blockCount());
+        for (int block = 0; block < team.blockCount(); block++) {
+            out.writeLong(team.block(block).statusMask());
+            out.writeLong(team.block(block).entryMask());
+            out.writeLong(team.block(block).inProgressMask());
+        }
+    }
+
+    private static boolean readTeamMatches(ByteBuffer in, String teamName, CompiledTeamConfig team) {
+        BusinessCalendar calendar = team.config().calendar();
+        if (!readString(in).equals(teamName)
+                || in.getLong() != (calendar == null ? -1 : calendar.startNanoOfDay())
+                || in.getLong() != (calendar == null ? -1 : calendar.cutoffTime().toNanoOfDay())
+                || !readString(in).equals(team.config().zoneId() == null ? "" : team.config().zoneId().getId())
+                || in.getInt() != team.blockCount()) {
+            return false;
+        }
+        for (int block = 0; block < team.blockCount(); block++) {
+            if (in.getLong() != team.block(block).statusMask()
+                    || in.getLong() != team.block(block).entryMask()
+                    || in.getLong() != team.block(block).inProgressMask()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeOrders(DataOutput out, Map<String, OrderState> orders) throws IOException {
+        out.writeInt(orders.size());
+        for (Map.Entry<String, OrderState> entry : orders.entrySet()) {
+            OrderState state = entry.getValue();
+            writeString(out, entry.getKey());
+            out.writeLong(state.lastTime);
+            state.accumulator.writeTo(out);
+            if (state.log == null) {
+                out.writeInt(-1);
+            } else {
+                state.log.writeTo(out);
+            }
+        }
+    }
+
+    private static void readOrders(ByteBuffer in, Supplier<TatAccumulator> accumulators,
+            Map<String, OrderState> orders) {
+        int orderCount = in.getInt();
+        for (int i = 0; i < orderCount; i++) {
+            String orderId = readString(in);
+            long lastTime = in.getLong();
+            TatAccumulator accumulator = accumulators.get();
+            accumulator.readFrom(in);
+            int logSize = in.getInt();
+            OrderState state = new OrderState(accumulator, logSize < 0 ? null : TransitionLog.readFrom(in, logSize));
+            state.lastTime = lastTime;
+            orders.put(orderId, state);
+        }
+    }
+
+    private static void write(Path path, CheckpointBuffer snapshot) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        // A unique name per write, so concurrent checkpoints to the same path never share a temporary file
+        Path temporary = Files.createTempFile(directory, path.getFileName() + ".", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer contents = snapshot.contents();
+                while (contents.hasRemaining()) {
+                    channel.write(contents);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        syncDirectory(directory);
+    }
+
+    // Makes the move durable. Not every platform can open a directory for this, e.g. Windows, in which
+    // case the move is left to the file system.
+    private static void syncDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IOException("Cannot checkpoint an id of " + bytes.length + " UTF-8 bytes, the limit is "
+                    + MAX_STRING_BYTES + ": " + value.substring(0, 32) + "...");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void apply(String orderId, int ordinal, long time) {
+        OrderState state = openOrders.get(orderId);
+        boolean wasCompleted = false;
+        if (state == null) {
+            state = completedOrders.get(orderId);
+            wasCompleted = state != null;
+        }
+        if (state == null) {
+            Long completedTime = tombstones.get(orderId);
+            if (completedTime != null) {
+                // Completed and released: too late to merge, whether it belongs before COMPLETED or reopens
+                if (time < completedTime) {
+                    lateEvents++;
+                }
+                droppedEvents++;
+                return;
+            }
+            state = new OrderState(calculator.newAccumulator(instantTimes), recomputeLateEvents ? new TransitionLog() : null);
+            openOrders.put(orderId, state);
+        }
+
+        if (time >= state.lastTime) {
+            state.accumulator.accept(ordinal, time);
+            state.lastTime = time;
+            if (state.log != null) {
+                state.log.append(ordinal, time);
+            }
+        } else {
+            lateEvents++;
+            if (state.log == null) {
+                droppedEvents++;
+                return;
+            }
+            state.log.insert(ordinal, time);
+            state.accumulator.replay(state.log, time);
+            recomputations++;
+        }
+
+        boolean completed = state.accumulator.lastOrdinal() == COMPLETED;
+        if (completed && !wasCompleted) {
+            openOrders.remove(orderId);
+            completedOrders.put(orderId, state);
+        } else if (!completed && wasCompleted) {
+            // Reopened: reported again once it completes again
+            completedOrders.remove(orderId);
+            openOrders.put(orderId, state);
+        }
+        // Still completed after a late event: the earlier report is corrected
+        if (completed && (ordinal == COMPLETED || wasCompleted)) {
+            if (ordinal == COMPLETED) {
+                completions.add(new Completion(orderId, state.lastTime));
+            }
+            sink.accept(state.accumulator.toReport(orderId));
+        }
+    }
+
+    // Drops completed orders the watermark has moved completedRetentionMillis past
+    private void releaseCompleted() {
+        while (!completions.isEmpty() && completions.peek().time + completedRetentionMillis < watermark) {
+            Completion completion = completions.poll();
+            OrderState state = completedOrders.get(completion.orderId);
+            // Entries left behind by a reopening or a later COMPLETED are skipped
+            if (state != null && state.lastTime == completion.time) {
+                completedOrders.remove(completion.orderId);
+                tombstones.put(completion.orderId, completion.time);
+            }
+        }
+    }
+
+    private static final class OrderState {
+
+        private final TatAccumulator accumulator;
+        private final TransitionLog log;
+        private long lastTime = Long.MIN_VALUE;
+
+        private OrderState(TatAccumulator accumulator, TransitionLog log) {
+            this.accumulator = accumulator;
+            this.log = log;
+        }
+    }
+
+    private record Completion(String orderId, long time) implements Comparable<Completion> {
+
+        @Override
+        public int compareTo(Completion other) {
+            return Long.compare(time, other.time);
+        }
+    }
+
+    private record PendingEvent(String orderId, int ordinal, long time, long sequence)
+            implements Comparable<PendingEvent> {
+
+        @Override
+        public int compareTo(PendingEvent other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    // The encoded checkpoint, written straight from the stream's own buffer rather than a copy of it
+    private static final class CheckpointBuffer extends ByteArrayOutputStream {
+
+        private CheckpointBuffer() {
+            super(8192);
+        }
+
+        private ByteBuffer contents() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
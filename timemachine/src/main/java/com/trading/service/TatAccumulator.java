@@ -0,0 +1,283 @@
+package com.trading.service;
+
+import com.trading.model.OrderStatus;
+import com.trading.model.TatReport;
+import com.trading.model.TeamConfig;
+import com.trading.model.ZoneOffsetTable;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+// Running TAT state of one order, fed one time-ordered transition at a time. Produces the same
+// numbers as TatCalculator's per-metric methods without looking back at earlier transitions:
+// parked time is tracked as a running total, sampled at every point a block window may start or end.
+//
+// With instantTimes the transition times are UTC epoch millis. Durations are then real elapsed time,
+// and only a block's cutoff check and next business day are read on its team's clock. Block entry times
+// in the report are converted to that clock as well.
+final class TatAccumulator {
+
+    private static final int DRAFT = OrderStatus.DRAFT.ordinal();
+    private static final int SUBMITTED = OrderStatus.SUBMITTED.ordinal();
+    private static final int STARTED = OrderStatus.STARTED.ordinal();
+    private static final int COMPLETED = OrderStatus.COMPLETED.ordinal();
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final BusinessDurationCalculator durationCalculator;
+    private final List<CompiledTeamConfig> teams;
+    private final List<String> teamNames;
+    private final boolean instantTimes;
+    private final BlockState[][] blocks;
+
+    private long firstDraft = NONE;
+    private long firstSubmitted = NONE;
+    private long firstStarted = NONE;
+    private long lastStarted = NONE;
+    private long lastCompleted = NONE;
+
+    private int previousOrdinal = -1;
+    private long previousTime;
+    // Parked time accumulated up to previousTime
+    private long parkedMillis;
+
+    TatAccumulator(BusinessDurationCalculator durationCalculator, List<CompiledTeamConfig> teams,
+            List<String> teamNames, boolean instantTimes) {
+        this.durationCalculator = durationCalculator;
+        this.teams = teams;
+        this.teamNames = teamNames;
+        this.instantTimes = instantTimes;
+        this.blocks = new BlockState[teams.size()][];
+        for (int team = 0; team < teams.size(); team++) {
+            CompiledTeamConfig config = teams.get(team);
+            blocks[team] = new BlockState[config.blockCount()];
+            for (int block = 0; block < config.blockCount(); block++) {
+                blocks[team][block] = new BlockState(config.block(block));
+            }
+        }
+    }
+
+    void accept(int ordinal, long time) {
+        if (previousOrdinal >= 0) {
+            boolean previousParked = OrderStatus.isParked(previousOrdinal);
+            long parkedAtTime = parkedMillis + (previousParked ? time - previousTime : 0);
+            for (BlockState[] teamBlocks : blocks) {
+                for (BlockState block : teamBlocks) {
+                    if (!block.done) {
+                        block.advance(previousOrdinal, previousParked, ordinal, time, parkedAtTime);
+                    }
+                }
+            }
+            parkedMillis = parkedAtTime;
+        }
+
+        for (int team = 0; team < blocks.length; team++) {
+            for (BlockState block : blocks[team]) {
+                if (!block.done) {
+                    block.enter(ordinal, time, teams.get(team).config());
+                }
+            }
+        }
+
+        if (ordinal == DRAFT && firstDraft == NONE) {
+            firstDraft = time;
+        } else if (ordinal == SUBMITTED && firstSubmitted == NONE) {
+            firstSubmitted = time;
+        } else if (ordinal == STARTED) {
+            firstStarted = firstStarted == NONE ? time : firstStarted;
+            lastStarted = time;
+        } else if (ordinal == COMPLETED) {
+            lastCompleted = time;
+        }
+
+        previousOrdinal = ordinal;
+        previousTime = time;
+    }
+
+    // Re-runs the log after a transition was inserted at insertedTime. Order-level markers and the
+    // parked total are rebuilt from the start; of the blocks, only those that had not closed by
+    // insertedTime are reset, the others stay done and are skipped by accept.
+    void replay(TransitionLog log, long insertedTime) {
+        firstDraft = NONE;
+        firstSubmitted = NONE;
+        firstStarted = NONE;
+        lastStarted = NONE;
+        lastCompleted = NONE;
+        previousOrdinal = -1;
+        parkedMillis = 0;
+
+        for (BlockState[] teamBlocks : blocks) {
+            for (int block = 0; block < teamBlocks.length; block++) {
+                if (!teamBlocks[block].done || teamBlocks[block].endTime > insertedTime) {
+                    teamBlocks[block] = new BlockState(teamBlocks[block].block);
+                }
+            }
+        }
+
+        for (int i = 0; i < log.size(); i++) {
+            accept(log.ordinalAt(i), log.timeAt(i));
+        }
+    }
+
+    // Ordinal of the last accepted transition, -1 before the first
+    int lastOrdinal() {
+        return previousOrdinal;
+    }
+
+    // Checkpoint encoding, see CheckpointFormat; blocks in the calculator's team and block order
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(firstDraft);
+        out.writeLong(firstSubmitted);
+        out.writeLong(firstStarted);
+        out.writeLong(lastStarted);
+        out.writeLong(lastCompleted);
+        out.writeByte(previousOrdinal);
+        out.writeLong(previousTime);
+        out.writeLong(parkedMillis);
+        for (BlockState[] teamBlocks : blocks) {
+            for (BlockState block : teamBlocks) {
+                out.writeByte(block.done ? 1 : 0);
+                out.writeLong(block.entryTime);
+                out.writeLong(block.entryParked);
+                out.writeLong(block.inProgressTime);
+                out.writeLong(block.inProgressParked);
+                out.writeLong(block.nextDayStart);
+                out.writeLong(block.nextDayStartParked);
+                out.writeLong(block.endTime);
+                out.writeLong(block.endParked);
+            }
+        }
+    }
+
+    void readFrom(ByteBuffer in) {
+        firstDraft = in.getLong();
+        firstSubmitted = in.getLong();
+        firstStarted = in.getLong();
+        lastStarted = in.getLong();
+        lastCompleted = in.getLong();
+        previousOrdinal = in.get();
+        previousTime = in.getLong();
+        parkedMillis = in.getLong();
+        for (BlockState[] teamBlocks : blocks) {
+            for (BlockState block : teamBlocks) {
+                block.done = in.get() != 0;
+                block.entryTime = in.getLong();
+                block.entryParked = in.getLong();
+                block.inProgressTime = in.getLong();
+                block.inProgressParked = in.getLong();
+                block.nextDayStart = in.getLong();
+                block.nextDayStartParked = in.getLong();
+                block.endTime = in.getLong();
+                block.endParked = in.getLong();
+            }
+        }
+    }
+
+    TatReport toReport(String orderId) {
+        long[][] blockMillis = new long[blocks.length][];
+        long[][] blockEntryMillis = new long[blocks.length][];
+        for (int team = 0; team < blocks.length; team++) {
+            blockMillis[team] = new long[blocks[team].length];
+            blockEntryMillis[team] = new long[blocks[team].length];
+            for (int block = 0; block < blocks[team].length; block++) {
+                blockMillis[team][block] = blocks[team][block].durationMillis();
+                blockEntryMillis[team][block] = teamLocal(blocks[team][block].entryTime, team);
+            }
+        }
+        return new TatReport(orderId,
+                between(firstDraft, lastCompleted),
+                between(firstSubmitted, lastStarted),
+                between(firstStarted, lastCompleted),
+                teamNames, blockMillis, blockEntryMillis,
+                previousOrdinal < 0 ? null : OrderStatus.fromOrdinal(previousOrdinal));
+    }
+
+    // Entry times in reports are local epoch millis on the team's clock, whichever clock the timeline uses
+    private long teamLocal(long time, int team) {
+        ZoneOffsetTable zoneOffsets = teams.get(team).config().zoneOffsets();
+        return !instantTimes || time == NONE || zoneOffsets == null ? time : zoneOffsets.toLocalEpochMillis(time);
+    }
+
+    private static long between(long start, long end) {
+        return start == NONE || end == NONE ? 0 : end - start;
+    }
+
+    private final class BlockState {
+
+        private final CompiledActivityBlock block;
+
+        private boolean done;
+        private long entryTime = NONE;
+        private long entryParked;
+        private long inProgressTime = NONE;
+        private long inProgressParked;
+        // Next business day start for an entry after cutoff, and the parked total once time reaches it
+        private long nextDayStart = NONE;
+        private long nextDayStartParked = NONE;
+        private long endTime;
+        private long endParked;
+
+        private BlockState(CompiledActivityBlock block) {
+            this.block = block;
+        }
+
+        // Moving from the previous transition to one at the given time
+        private void advance(int previous, boolean previousParked, int current, long time, long parkedAtTime) {
+            if (nextDayStart != NONE && nextDayStartParked == NONE && nextDayStart <= time) {
+                nextDayStartParked = parkedMillis + (previousParked ? nextDayStart - previousTime : 0);
+            }
+            if (block.contains(previous) && !block.contains(current)) {
+                done = true;
+                endTime = time;
+                endParked = parkedAtTime;
+            }
+        }
+
+        private void enter(int ordinal, long time, TeamConfig config) {
+            if (!block.contains(ordinal)) {
+                return;
+            }
+            if (block.isEntry(ordinal) && entryTime == NONE) {
+                entryTime = time;
+                entryParked = parkedMillis;
+                if (instantTimes) {
+                    if (durationCalculator.isInstantAfterCutoff(time, config)) {
+                        nextDayStart = durationCalculator.getNextBusinessDayStartEpochMillis(time, config);
+                    }
+                } else if (durationCalculator.isAfterCutoff(time, config)) {
+                    nextDayStart = durationCalculator
+                            .getNextBusinessDayStartMillis(Math.floorDiv(time, MILLIS_PER_DAY) + 1, config);
+                }
+            }
+            if (block.isInProgress(ordinal) && inProgressTime == NONE) {
+                inProgressTime = time;
+                inProgressParked = parkedMillis;
+            }
+        }
+
+        private long durationMillis() {
+            if (!done || entryTime == NONE) {
+                return 0;
+            }
+
+            long effectiveStart = entryTime;
+            long effectiveStartParked = entryParked;
+            if (nextDayStart != NONE) {
+                if (inProgressTime != NONE && inProgressTime < nextDayStart) {
+                    effectiveStart = inProgressTime;
+                    effectiveStartParked = inProgressParked;
+                } else {
+                    effectiveStart = nextDayStart;
+                    effectiveStartParked = nextDayStartParked;
+                }
+            }
+
+            if (effectiveStart > endTime) {
+                return 0;
+            }
+            return (endTime - effectiveStart) - (endParked - effectiveStartParked);
+        }
+    }
+}
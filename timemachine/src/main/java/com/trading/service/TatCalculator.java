@@ -0,0 +1,405 @@
+package com.trading.service;
+
+import com.trading.metrics.TatInstrumentation;
+import com.trading.metrics.TatOperation;
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.StatusDwellTimes;
+import com.trading.model.TatReport;
+import com.trading.model.TatSnapshot;
+import com.trading.model.TeamConfig;
+import com.trading.model.TransitionSequence;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TatCalculator {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final BusinessDurationCalculator durationCalculator;
+    private final Map<String, CompiledTeamConfig> teamConfigs;
+    private final List<String> teamNames;
+    private final List<CompiledTeamConfig> teams;
+    // Team handles index these; a null slot is a team that was configured once and has been removed
+    private final List<String> handleNames;
+    private final CompiledTeamConfig[] handleTeams;
+    private final TatInstrumentation instrumentation;
+
+    public TatCalculator(BusinessDurationCalculator durationCalculator, Map<String, TeamConfig> teamConfigs) {
+        this(durationCalculator, teamConfigs, TatInstrumentation.NOOP);
+    }
+
+    // Pass the same instrumentation to the BusinessDurationCalculator to see business-time calls as well
+    public TatCalculator(BusinessDurationCalculator durationCalculator, Map<String, TeamConfig> teamConfigs,
+            TatInstrumentation instrumentation) {
+        this(durationCalculator, teamConfigs, instrumentation, List.copyOf(teamConfigs.keySet()));
+    }
+
+    // Handles follow handleNames, which must list every configured team; names not configured keep their
+    // slot as a tombstone so the handles after them do not move
+    TatCalculator(BusinessDurationCalculator durationCalculator, Map<String, TeamConfig> teamConfigs,
+            TatInstrumentation instrumentation, List<String> handleNames) {
+        this.durationCalculator = durationCalculator;
+        this.instrumentation = instrumentation;
+        this.teamConfigs = new HashMap<>();
+        teamConfigs.forEach((name, config) -> this.teamConfigs.put(name, CompiledTeamConfig.compile(config)));
+        this.teamNames = List.copyOf(teamConfigs.keySet());
+        this.teams = teamNames.stream().map(this.teamConfigs::get).toList();
+        this.handleNames = List.copyOf(handleNames);
+        this.handleTeams = this.handleNames.stream().map(this.teamConfigs::get).toArray(CompiledTeamConfig[]::new);
+        if (!this.handleNames.containsAll(teamNames)) {
+            throw new IllegalArgumentException("Team handles " + handleNames + " do not cover teams " + teamNames);
+        }
+    }
+
+    // Overall, review, execution and every configured team's TAT from one walk over the timeline
+    public TatReport calculateReport(Order order) {
+        return calculateReport(timeline(order));
+    }
+
+    public TatReport calculateReport(TransitionSequence timeline) {
+        long startNanos = instrumentation.enabled() ? System.nanoTime() : 0;
+        TatAccumulator accumulator = newAccumulator();
+        for (int i = 0; i < timeline.size(); i++) {
+            accumulator.accept(timeline.ordinalAt(i), timeline.timeAt(i));
+        }
+        TatReport report = accumulator.toReport(timeline.orderId());
+        if (instrumentation.enabled()) {
+            instrumentation.record(TatOperation.REPORT, timeline.orderId(), null, timeline.size(), 0, startNanos);
+        }
+        return report;
+    }
+
+    // The same report for a timeline whose times are UTC epoch millis rather than local ones. Each team's
+    // cutoff and next business day are read in its own zone through its ZoneOffsetTable, so teams in
+    // different zones and across DST changes are each measured on their own clock; a team without a
+    // zone works in UTC. TATs are real elapsed time; block entry times in the report are converted to local
+    // epoch millis in each team's zone, so grouping by entry day uses the team's own day.
+    public TatReport calculateInstantReport(TransitionSequence timeline) {
+        TatAccumulator accumulator = newAccumulator(true);
+        for (int i = 0; i < timeline.size(); i++) {
+            accumulator.accept(timeline.ordinalAt(i), timeline.timeAt(i));
+        }
+        return accumulator.toReport(timeline.orderId());
+    }
+
+    private OrderTimeline timeline(Order order) {
+        if (!instrumentation.enabled()) {
+            return OrderTimeline.of(order);
+        }
+        long startNanos = System.nanoTime();
+        OrderTimeline timeline = OrderTimeline.of(order);
+        instrumentation.record(TatOperation.TIMELINE, order.orderId(), null, timeline.size(), 0, startNanos);
+        return timeline;
+    }
+
+    // The report over the transitions at or before asOfMillis. The binary search only bounds the prefix;
+    // the accumulator still replays all of it, so one query costs the prefix length. For many points on
+    // one timeline use the array overload, which shares the replay between them.
+    public TatSnapshot calculateAsOf(TransitionSequence timeline, long asOfMillis) {
+        int low = 0;
+        int high = timeline.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timeline.timeAt(mid) <= asOfMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        TatAccumulator accumulator = newAccumulator();
+        for (int i = 0; i < low; i++) {
+            accumulator.accept(timeline.ordinalAt(i), timeline.timeAt(i));
+        }
+        return snapshot(accumulator, timeline.orderId(), asOfMillis);
+    }
+
+    public TatSnapshot calculateAsOf(TransitionSequence timeline, LocalDateTime asOf) {
+        return calculateAsOf(timeline, OrderTimeline.toEpochMillis(asOf));
+    }
+
+    // One snapshot per point in time, in one sweep that interleaves the ascending asOfMillis with the
+    // transitions, so the cost is transitions plus points rather than their product
+    public List<TatSnapshot> calculateAsOf(TransitionSequence timeline, long[] asOfMillis) {
+        List<TatSnapshot> snapshots = new ArrayList<>(asOfMillis.length);
+        TatAccumulator accumulator = newAccumulator();
+        int next = 0;
+        for (int point = 0; point < asOfMillis.length; point++) {
+            if (point > 0 && asOfMillis[point] < asOfMillis[point - 1]) {
+                throw new IllegalArgumentException("As-of times must be in ascending order");
+            }
+            for (; next < timeline.size() && timeline.timeAt(next) <= asOfMillis[point]; next++) {
+                accumulator.accept(timeline.ordinalAt(next), timeline.timeAt(next));
+            }
+            snapshots.add(snapshot(accumulator, timeline.orderId(), asOfMillis[point]));
+        }
+        return snapshots;
+    }
+
+    TatAccumulator newAccumulator() {
+        return newAccumulator(false);
+    }
+
+    TatAccumulator newAccumulator(boolean instantTimes) {
+        return new TatAccumulator(durationCalculator, teams, teamNames, instantTimes);
+    }
+
+    BusinessDurationCalculator durationCalculator() {
+        return durationCalculator;
+    }
+
+    List<CompiledTeamConfig> teams() {
+        return teams;
+    }
+
+    List<String> teamNames() {
+        return teamNames;
+    }
+
+    List<String> handleNames() {
+        return handleNames;
+    }
+
+    private TatSnapshot snapshot(TatAccumulator accumulator, String orderId, long asOfMillis) {
+        int ordinal = accumulator.lastOrdinal();
+        if (ordinal >= 0) {
+            for (int team = 0; team < teams.size(); team++) {
+                for (int block = 0; block < teams.get(team).blockCount(); block++) {
+                    if (teams.get(team).block(block).contains(ordinal)) {
+                        return new TatSnapshot(asOfMillis, accumulator.toReport(orderId), OrderStatus.fromOrdinal(ordinal),
+                                teamNames.get(team), block);
+                    }
+                }
+            }
+        }
+        return new TatSnapshot(asOfMillis, accumulator.toReport(orderId),
+                ordinal < 0 ? null : OrderStatus.fromOrdinal(ordinal), null, -1);
+    }
+
+    public Duration calculateOverallTat(Order order) {
+        return calculateOverallTat(timeline(order));
+    }
+
+    public Duration calculateOverallTat(TransitionSequence timeline) {
+        return calculateDurationBetween(timeline, OrderStatus.DRAFT, OrderStatus.COMPLETED);
+    }
+
+    public Duration calculateReviewTat(Order order) {
+        return calculateReviewTat(timeline(order));
+    }
+
+    public Duration calculateReviewTat(TransitionSequence timeline) {
+        return calculateDurationBetween(timeline, OrderStatus.SUBMITTED, OrderStatus.STARTED);
+    }
+
+    public Duration calculateExecutionTat(Order order) {
+        return calculateExecutionTat(timeline(order));
+    }
+
+    public Duration calculateExecutionTat(TransitionSequence timeline) {
+        return calculateDurationBetween(timeline, OrderStatus.STARTED, OrderStatus.COMPLETED);
+    }
+
+    public Duration calculateTeamTat(Order order, String teamName) {
+        return calculateTeamTat(timeline(order), teamName);
+    }
+
+    public Duration calculateTeamTat(TransitionSequence timeline, String teamName) {
+        CompiledTeamConfig team = teamConfigs.get(teamName);
+        if (team == null) {
+            throw new IllegalArgumentException("Unknown team: " + teamName);
+        }
+        return calculateTeamTat(timeline, team, teamName);
+    }
+
+    // Stable id of a team for calculateTeamTat; -1 for a team this calculator is not configured with.
+    // A calculator built directly numbers its teams in order. Calculators from a TeamConfigRegistry keep
+    // every handle they have handed out, so a handle never comes to mean another team.
+    public int teamHandle(String teamName) {
+        int handle = handleNames.indexOf(teamName);
+        return handle >= 0 && handleTeams[handle] != null ? handle : -1;
+    }
+
+    // Hot-path variant without the name lookup; the handle must come from this calculator or an earlier
+    // snapshot of the same registry
+    public Duration calculateTeamTat(TransitionSequence timeline, int teamHandle) {
+        if (teamHandle < 0 || teamHandle >= handleTeams.length) {
+            throw new IllegalArgumentException("Unknown team handle: " + teamHandle);
+        }
+        CompiledTeamConfig team = handleTeams[teamHandle];
+        if (team == null) {
+            throw new IllegalArgumentException(
+                    "Team handle " + teamHandle + " belongs to removed team " + handleNames.get(teamHandle));
+        }
+        return calculateTeamTat(timeline, team, handleNames.get(teamHandle));
+    }
+
+    private Duration calculateTeamTat(TransitionSequence timeline, CompiledTeamConfig team, String teamName) {
+        long startNanos = instrumentation.enabled() ? System.nanoTime() : 0;
+        ParkedTimeIndex parkedTime = ParkedTimeIndex.of(timeline);
+        if (instrumentation.enabled()) {
+            instrumentation.record(TatOperation.PARKED_INDEX, timeline.orderId(), teamName, timeline.size(), 0, startNanos);
+        }
+        long totalMillis = 0;
+        for (int i = 0; i < team.blockCount(); i++) {
+            totalMillis += calculateBlockDuration(timeline, parkedTime, team.block(i), team.config());
+        }
+        if (instrumentation.enabled()) {
+            // Each block scans the timeline once on top of the index build
+            instrumentation.record(TatOperation.TEAM_TAT, timeline.orderId(), teamName,
+                    (long) timeline.size() * (team.blockCount() + 1), 0, startNanos);
+        }
+        return Duration.ofMillis(totalMillis);
+    }
+
+    // Parked time inside each block's TAT window, measured in the team's business hours rather than
+    // wall clock; zero for blocks the order did not complete
+    public List<Duration> calculateParkedBusinessTime(Order order, String teamName) {
+        return calculateParkedBusinessTime(timeline(order), teamName);
+    }
+
+    public List<Duration> calculateParkedBusinessTime(TransitionSequence timeline, String teamName) {
+        CompiledTeamConfig team = teamConfigs.get(teamName);
+        if (team == null) {
+            throw new IllegalArgumentException("Unknown team: " + teamName);
+        }
+
+        ParkedTimeIndex parkedTime = ParkedTimeIndex.of(timeline, team.config().calendar());
+        List<Duration> durations = new ArrayList<>(team.blockCount());
+        for (int i = 0; i < team.blockCount(); i++) {
+            long[] window = blockWindow(timeline, team.block(i), team.config());
+            durations.add(Duration.ofMillis(window == null ? 0 : parkedTime.parkedBusinessMillis(window[0], window[1])));
+        }
+        return durations;
+    }
+
+    public Duration calculateAuditReviewTeamTat(Order order) {
+        return calculateTeamTat(order, TatReport.AUDIT_REVIEW_TEAM);
+    }
+
+    public Duration calculateAuditReviewTeamTat(TransitionSequence timeline) {
+        return calculateTeamTat(timeline, TatReport.AUDIT_REVIEW_TEAM);
+    }
+
+    public Duration calculateTradingTeamTat(Order order) {
+        return calculateTeamTat(order, TatReport.TRADING_TEAM);
+    }
+
+    public Duration calculateTradingTeamTat(TransitionSequence timeline) {
+        return calculateTeamTat(timeline, TatReport.TRADING_TEAM);
+    }
+
+    private Duration calculateDurationBetween(TransitionSequence timeline, OrderStatus startStatus,
+            OrderStatus endStatus) {
+        int startIndex = timeline.firstIndexOf(startStatus);
+        int endIndex = timeline.lastIndexOf(endStatus);
+
+        if (startIndex >= 0 && endIndex >= 0) {
+            return Duration.ofMillis(timeline.timeAt(endIndex) - timeline.timeAt(startIndex));
+        }
+        return Duration.ZERO;
+    }
+
+    // Wall-clock and business time per status in one pass; business time follows the team's calendar
+    public StatusDwellTimes calculateDwellTimes(Order order, String teamName) {
+        return calculateDwellTimes(timeline(order), teamName);
+    }
+
+    public StatusDwellTimes calculateDwellTimes(TransitionSequence timeline, String teamName) {
+        CompiledTeamConfig team = teamConfigs.get(teamName);
+        if (team == null) {
+            throw new IllegalArgumentException("Unknown team: " + teamName);
+        }
+
+        long startNanos = instrumentation.enabled() ? System.nanoTime() : 0;
+        long[] wallMillis = new long[OrderStatus.values().length];
+        long[] businessMillis = new long[wallMillis.length];
+        for (int i = 0; i + 1 < timeline.size(); i++) {
+            int ordinal = timeline.ordinalAt(i);
+            long start = timeline.timeAt(i);
+            long end = timeline.timeAt(i + 1);
+            wallMillis[ordinal] += end - start;
+            businessMillis[ordinal] += durationCalculator.calculateBusinessMillis(start, end, team.config());
+        }
+        if (instrumentation.enabled()) {
+            instrumentation.record(TatOperation.DWELL_TIMES, timeline.orderId(), teamName, timeline.size(), 0, startNanos);
+        }
+        return new StatusDwellTimes(timeline.orderId(), wallMillis, businessMillis);
+    }
+
+    private long calculateBlockDuration(TransitionSequence timeline, ParkedTimeIndex parkedTime,
+            CompiledActivityBlock block, TeamConfig config) {
+        long[] window = blockWindow(timeline, block, config);
+        if (window == null) {
+            return 0;
+        }
+
+        // 3. Calculate Duration (Wall Clock - Parked)
+        return (window[1] - window[0]) - parkedTime.parkedMillis(window[0], window[1]);
+    }
+
+    // The block's TAT window as {effective start, end}, null if the order never completed the block
+    private long[] blockWindow(TransitionSequence timeline, CompiledActivityBlock block, TeamConfig config) {
+        if (timeline.isEmpty()) {
+            return null;
+        }
+
+        // 1. Identify Block's Transitions
+        int startIndex = -1;
+        int inProgressIndex = -1;
+        int endIndex = -1;
+
+        for (int i = 0; i < timeline.size(); i++) {
+            int ordinal = timeline.ordinalAt(i);
+            if (block.contains(ordinal)) {
+                if (block.isEntry(ordinal) && startIndex < 0) {
+                    startIndex = i;
+                }
+
+                // Check for IN_PROGRESS
+                if (block.isInProgress(ordinal) && inProgressIndex < 0) {
+                    inProgressIndex = i;
+                }
+
+                // Look ahead for end of block
+                if (i + 1 < timeline.size() && !block.contains(timeline.ordinalAt(i + 1))) {
+                    endIndex = i + 1;
+                    break; // Exited block
+                }
+            }
+        }
+
+        if (startIndex < 0 || endIndex < 0) {
+            return null;
+        }
+
+        // 2. Calculate Effective Start Time
+        long effectiveStart = calculateEffectiveStartTime(timeline.timeAt(startIndex),
+                inProgressIndex < 0 ? Long.MAX_VALUE : timeline.timeAt(inProgressIndex), config);
+        long endTime = timeline.timeAt(endIndex);
+        return effectiveStart > endTime ? null : new long[] {effectiveStart, endTime};
+    }
+
+    private long calculateEffectiveStartTime(long entryTime, long inProgressTime, TeamConfig config) {
+        // Check if entry is after cutoff
+        if (durationCalculator.isAfterCutoff(entryTime, config)) {
+            long nextBusinessDayStart = durationCalculator
+                    .getNextBusinessDayStartMillis(Math.floorDiv(entryTime, MILLIS_PER_DAY) + 1, config);
+
+            // Special Case: Team started working (IN_PROGRESS) before next business day
+            if (inProgressTime < nextBusinessDayStart) {
+                return inProgressTime;
+            }
+
+            return nextBusinessDayStart;
+        }
+
+        return entryTime;
+    }
+}
@@ -0,0 +1,193 @@
+package com.trading.service;
+
+import com.trading.model.BusinessCalendar;
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.TatMetricSpec;
+import com.trading.model.TransitionSequence;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// TatMetricSpecs compiled into a table of actions per status ordinal, so any number of metrics are
+// evaluated in one scan of an order. At each transition the running parked totals are advanced (in
+// wall millis and in business nanos of every calendar in use), then each metric that starts or ends
+// on that status samples its clock position and parked total. A metric is the difference of its two
+// samples, minus the parked difference when it excludes parked time.
+//
+// Immutable and thread-safe; evaluation state lives in the call.
+public final class TatMetricEvaluator {
+
+    private static final long NONE = Long.MIN_VALUE;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final List<String> names;
+    private final BusinessCalendar[] calendars;
+    // Per metric: index into calendars, or -1 for wall-clock time
+    private final int[] calendarOf;
+    private final boolean[] excludeParked;
+    private final boolean[] firstStart;
+    private final boolean[] firstEnd;
+    // Per status ordinal: the metrics that start or end on it
+    private final int[][] startActions;
+    private final int[][] endActions;
+
+    private TatMetricEvaluator(List<String> names, BusinessCalendar[] calendars, int[] calendarOf,
+            boolean[] excludeParked, boolean[] firstStart, boolean[] firstEnd, int[][] startActions,
+            int[][] endActions) {
+        this.names = names;
+        this.calendars = calendars;
+        this.calendarOf = calendarOf;
+        this.excludeParked = excludeParked;
+        this.firstStart = firstStart;
+        this.firstEnd = firstEnd;
+        this.startActions = startActions;
+        this.endActions = endActions;
+    }
+
+    public static TatMetricEvaluator compile(List<TatMetricSpec> specs) {
+        int count = specs.size();
+        List<String> names = new ArrayList<>(count);
+        List<BusinessCalendar> calendars = new ArrayList<>();
+        int[] calendarOf = new int[count];
+        boolean[] excludeParked = new boolean[count];
+        boolean[] firstStart = new boolean[count];
+        boolean[] firstEnd = new boolean[count];
+        List<List<Integer>> starts = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        for (int ordinal = 0; ordinal < OrderStatus.values().length; ordinal++) {
+            starts.add(new ArrayList<>());
+            ends.add(new ArrayList<>());
+        }
+
+        for (int metric = 0; metric < count; metric++) {
+            TatMetricSpec spec = specs.get(metric);
+            if (names.contains(spec.name())) {
+                throw new IllegalArgumentException("Duplicate TAT metric: " + spec.name());
+            }
+            names.add(spec.name());
+            if (spec.calendar() == null) {
+                calendarOf[metric] = -1;
+            } else {
+                if (!calendars.contains(spec.calendar())) {
+                    calendars.add(spec.calendar());
+                }
+                calendarOf[metric] = calendars.indexOf(spec.calendar());
+            }
+            excludeParked[metric] = spec.excludeParked();
+            firstStart[metric] = spec.startOccurrence() == TatMetricSpec.Occurrence.FIRST;
+            firstEnd[metric] = spec.endOccurrence() == TatMetricSpec.Occurrence.FIRST;
+            for (OrderStatus status : spec.startStatuses()) {
+                starts.get(status.ordinal()).add(metric);
+            }
+            for (OrderStatus status : spec.endStatuses()) {
+                ends.get(status.ordinal()).add(metric);
+            }
+        }
+
+        return new TatMetricEvaluator(List.copyOf(names), calendars.toArray(new BusinessCalendar[0]), calendarOf,
+                excludeParked, firstStart, firstEnd, toTable(starts), toTable(ends));
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public int metricCount() {
+        return names.size();
+    }
+
+    public Map<String, Duration> evaluate(Order order) {
+        return evaluate(OrderTimeline.of(order));
+    }
+
+    // Metrics by name, in spec order
+    public Map<String, Duration> evaluate(TransitionSequence timeline) {
+        long[] millis = evaluateMillis(timeline);
+        Map<String, Duration> result = new LinkedHashMap<>();
+        for (int metric = 0; metric < millis.length; metric++) {
+            result.put(names.get(metric), Duration.ofMillis(millis[metric]));
+        }
+        return result;
+    }
+
+    public long[] evaluateMillis(TransitionSequence timeline) {
+        long[] millis = new long[metricCount()];
+        evaluateMillis(timeline, millis);
+        return millis;
+    }
+
+    // Writes each metric's millis into out, indexed like names()
+    public void evaluateMillis(TransitionSequence timeline, long[] out) {
+        int count = metricCount();
+        long[] startTime = new long[count];
+        long[] startClock = new long[count];
+        long[] startParked = new long[count];
+        long[] endTime = new long[count];
+        long[] endClock = new long[count];
+        long[] endParked = new long[count];
+        Arrays.fill(startTime, NONE);
+        Arrays.fill(endTime, NONE);
+
+        // Clock position and parked total per calendar; index calendars.length is wall-clock millis
+        long[] position = new long[calendars.length + 1];
+        long[] parked = new long[calendars.length + 1];
+        boolean previousParked = false;
+
+        for (int i = 0; i < timeline.size(); i++) {
+            long time = timeline.timeAt(i);
+            int ordinal = timeline.ordinalAt(i);
+
+            for (int c = 0; c <= calendars.length; c++) {
+                long next = c == calendars.length ? time : calendars[c].businessNanosAtEpochMillis(time);
+                if (previousParked) {
+                    parked[c] += next - position[c];
+                }
+                position[c] = next;
+            }
+            previousParked = OrderStatus.isParked(ordinal);
+
+            for (int metric : startActions[ordinal]) {
+                if (startTime[metric] == NONE || !firstStart[metric]) {
+                    int c = calendarOf[metric] < 0 ? calendars.length : calendarOf[metric];
+                    startTime[metric] = time;
+                    startClock[metric] = position[c];
+                    startParked[metric] = parked[c];
+                }
+            }
+            for (int metric : endActions[ordinal]) {
+                if (endTime[metric] == NONE || !firstEnd[metric]) {
+                    int c = calendarOf[metric] < 0 ? calendars.length : calendarOf[metric];
+                    endTime[metric] = time;
+                    endClock[metric] = position[c];
+                    endParked[metric] = parked[c];
+                }
+            }
+        }
+
+        for (int metric = 0; metric < count; metric++) {
+            if (startTime[metric] == NONE || endTime[metric] == NONE) {
+                out[metric] = 0;
+                continue;
+            }
+            long value = endClock[metric] - startClock[metric];
+            if (excludeParked[metric]) {
+                value -= endParked[metric] - startParked[metric];
+            }
+            out[metric] = calendarOf[metric] < 0 ? value : value / NANOS_PER_MILLI;
+        }
+    }
+
+    private static int[][] toTable(List<List<Integer>> actions) {
+        int[][] table = new int[actions.size()][];
+        for (int ordinal = 0; ordinal < table.length; ordinal++) {
+            table[ordinal] = actions.get(ordinal).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return table;
+    }
+}
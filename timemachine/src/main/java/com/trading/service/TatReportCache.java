@@ -0,0 +1,197 @@
+package com.trading.service;
+
+import com.trading.model.Order;
+import com.trading.model.OrderTimeline;
+import com.trading.model.TatReport;
+import com.trading.model.TransitionSequence;
+import lombok.Builder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Bounded cache of TatReports in front of a TatCalculator, for orders whose TAT is asked for over and
+// over. An entry is stamped with the version it was computed from, by default the order's transition
+// count, so appending a transition makes only that order's entry stale; it is recomputed on the next
+// request. Entries older than maxAge are recomputed as well.
+//
+// Reads go straight to a ConcurrentHashMap and never lock. Two threads missing on the same order may
+// both compute it; the higher version is kept. Once the cache is over maxSize, a small sample of entries
+// probed at random positions in the table is scanned and the least recently read one is evicted, so the
+// bound is kept without an LRU list. An order without an id has nothing to key it by; its report is
+// computed every time and counted as a miss.
+public class TatReportCache {
+
+    private static final int DEFAULT_MAX_SIZE = 10_000;
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(5);
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final TatCalculator calculator;
+    private final int maxSize;
+    private final long maxAgeMillis;
+    private final Clock clock;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public TatReportCache(TatCalculator calculator) {
+        this(calculator, 0, null, null);
+    }
+
+    @Builder
+    public TatReportCache(TatCalculator calculator, int maxSize, Duration maxAge, Clock clock) {
+        this.calculator = calculator;
+        this.maxSize = maxSize > 0 ? maxSize : DEFAULT_MAX_SIZE;
+        this.maxAgeMillis = (maxAge != null ? maxAge : DEFAULT_MAX_AGE).toMillis();
+        this.clock = clock != null ? clock : Clock.systemUTC();
+    }
+
+    public TatReport report(Order order) {
+        long version = order.statusTransitions() == null ? 0 : order.statusTransitions().size();
+        return report(order.orderId(), version, () -> OrderTimeline.of(order));
+    }
+
+    public TatReport report(TransitionSequence timeline) {
+        return report(timeline.orderId(), timeline.size(), () -> timeline);
+    }
+
+    // For callers with their own version stamp; the timeline is only built on a miss
+    public TatReport report(String orderId, long version, Supplier<? extends TransitionSequence> timeline) {
+        if (orderId == null) {
+            misses.increment();
+            return calculator.calculateReport(timeline.get());
+        }
+        long now = clock.millis();
+        Entry entry = entries.get(orderId);
+        if (entry != null && entry.version == version) {
+            if (now - entry.createdMillis < maxAgeMillis) {
+                entry.lastReadMillis = now;
+                hits.increment();
+                return entry.report;
+            }
+            expirations.increment();
+        }
+
+        misses.increment();
+        Entry fresh = new Entry(version, calculator.calculateReport(timeline.get()), now);
+        entries.merge(orderId, fresh, (current, computed) -> current.version > computed.version ? current : computed);
+        if (entry == null && entries.size() > maxSize) {
+            evict();
+        }
+        return fresh.report;
+    }
+
+    // For changes that leave the version as it was, e.g. a corrected transition time
+    public void invalidate(String orderId) {
+        if (orderId != null) {
+            entries.remove(orderId);
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    // Drops every entry past maxAge; expired entries are otherwise only replaced when read
+    public void cleanUp() {
+        long now = clock.millis();
+        entries.values().removeIf(entry -> {
+            boolean expired = now - entry.createdMillis >= maxAgeMillis;
+            if (expired) {
+                expirations.increment();
+            }
+            return expired;
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), entries.size());
+    }
+
+    private void evict() {
+        List<Map.Entry<String, Entry>> sample = new ArrayList<>(EVICTION_SAMPLE);
+        while (entries.size() > maxSize) {
+            sample.clear();
+            // A probe that lands on empty buckets is retried, up to a bound
+            for (int probe = 0; probe < 4 * EVICTION_SAMPLE && sample.size() < EVICTION_SAMPLE; probe++) {
+                randomStretch().tryAdvance(sample::add);
+            }
+            if (sample.isEmpty()) {
+                // Every probe fell on empty buckets; sample the front of the table instead
+                Iterator<Map.Entry<String, Entry>> front = entries.entrySet().iterator();
+                while (sample.size() < EVICTION_SAMPLE && front.hasNext()) {
+                    sample.add(front.next());
+                }
+                if (sample.isEmpty()) {
+                    return;
+                }
+            }
+
+            Map.Entry<String, Entry> victim = sample.get(0);
+            for (Map.Entry<String, Entry> candidate : sample) {
+                if (candidate.getValue().lastReadMillis < victim.getValue().lastReadMillis) {
+                    victim = candidate;
+                }
+            }
+            if (entries.remove(victim.getKey(), victim.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    // A few buckets at a random position in the table. Halving the map's spliterator and keeping a random
+    // half each time reaches them without walking the entries in front. Each probe takes one entry from
+    // its own stretch, since neighbouring buckets hold ids with neighbouring hashes, e.g. ORDER-120..127.
+    private Spliterator<Map.Entry<String, Entry>> randomStretch() {
+        Spliterator<Map.Entry<String, Entry>> stretch = entries.entrySet().spliterator();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (stretch.estimateSize() > 1) {
+            Spliterator<Map.Entry<String, Entry>> front = stretch.trySplit();
+            if (front == null) {
+                break;
+            }
+            if (random.nextBoolean()) {
+                stretch = front;
+            }
+        }
+        return stretch;
+    }
+
+    public record Stats(long hits, long misses, long evictions, long expirations, int size) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private static final class Entry {
+
+        private final long version;
+        private final TatReport report;
+        private final long createdMillis;
+        private volatile long lastReadMillis;
+
+        private Entry(long version, TatReport report, long createdMillis) {
+            this.version = version;
+            this.report = report;
+            this.createdMillis = createdMillis;
+            this.lastReadMillis = createdMillis;
+        }
+    }
+}
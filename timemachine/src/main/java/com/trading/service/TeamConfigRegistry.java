@@ -0,0 +1,73 @@
+package com.trading.service;
+
+import com.trading.metrics.TatInstrumentation;
+import com.trading.model.TeamConfig;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Current team configuration as an immutable, fully compiled TatCalculator. An update compiles a new
+// calculator off to the side and swaps it in with one reference write, so readers never lock and never
+// see a half-applied change. Work that took a snapshot keeps using it until it is done; the next
+// snapshot() returns the new one.
+//
+// Team handles never move. New teams get the next handle; a removed team's handle is kept as a
+// tombstone that calculateTeamTat rejects, and goes back to the team if it is configured again.
+public class TeamConfigRegistry {
+
+    private final BusinessDurationCalculator durationCalculator;
+    private final TatInstrumentation instrumentation;
+    private final AtomicReference<Snapshot> current;
+
+    public TeamConfigRegistry(BusinessDurationCalculator durationCalculator, Map<String, TeamConfig> teamConfigs) {
+        this(durationCalculator, teamConfigs, TatInstrumentation.NOOP);
+    }
+
+    public TeamConfigRegistry(BusinessDurationCalculator durationCalculator, Map<String, TeamConfig> teamConfigs,
+            TatInstrumentation instrumentation) {
+        this.durationCalculator = durationCalculator;
+        this.instrumentation = instrumentation;
+        this.current = new AtomicReference<>(new Snapshot(1, compile(List.of(), teamConfigs)));
+    }
+
+    public TatCalculator snapshot() {
+        return current.get().calculator();
+    }
+
+    // Starts at 1 and goes up by one per update
+    public long version() {
+        return current.get().version();
+    }
+
+    public int teamHandle(String teamName) {
+        return snapshot().teamHandle(teamName);
+    }
+
+    // Writers are serialized so that no update is lost; readers are never blocked by them
+    public synchronized TatCalculator update(Map<String, TeamConfig> teamConfigs) {
+        Snapshot previous = current.get();
+        TatCalculator calculator = compile(previous.calculator().handleNames(), teamConfigs);
+        current.set(new Snapshot(previous.version() + 1, calculator));
+        return calculator;
+    }
+
+    private TatCalculator compile(List<String> previousHandles, Map<String, TeamConfig> teamConfigs) {
+        // New teams take handles after every team seen before, in the map's own iteration order
+        List<String> handles = new ArrayList<>(previousHandles);
+        teamConfigs.keySet().stream().filter(team -> !previousHandles.contains(team)).forEach(handles::add);
+
+        Map<String, TeamConfig> ordered = new LinkedHashMap<>();
+        for (String team : handles) {
+            if (teamConfigs.containsKey(team)) {
+                ordered.put(team, teamConfigs.get(team));
+            }
+        }
+        return new TatCalculator(durationCalculator, ordered, instrumentation, handles);
+    }
+
+    private record Snapshot(long version, TatCalculator calculator) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.trading.service;
+
+import java.util.function.Consumer;
+
+// Hashed timer wheel: a ring of slots, each a doubly linked list of timers whose deadline falls in
+// that slot's tick modulo the ring size. Scheduling and cancelling are O(1); advancing visits only
+// the slots of the elapsed ticks, skipping timers that belong to a later lap. Not thread-safe.
+final class TimerWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Timer<T>[] slots;
+
+    // Every timer with a deadline before this tick has fired
+    private long currentTick = Long.MIN_VALUE;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickMillis, int wheelSize) {
+        if (tickMillis <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Timer wheel needs a positive tick and a power-of-two size");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.slots = new Timer[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            slots[i] = new Timer<>(Long.MIN_VALUE, null);
+            slots[i].next = slots[i];
+            slots[i].previous = slots[i];
+        }
+    }
+
+    Timer<T> schedule(long deadlineMillis, T payload) {
+        // Already due: goes in the current slot and fires on the next advance
+        long tick = Math.max(Math.floorDiv(deadlineMillis, tickMillis), currentTick);
+        Timer<T> timer = new Timer<>(deadlineMillis, payload);
+        Timer<T> head = slots[(int) (tick & mask)];
+        timer.previous = head.previous;
+        timer.next = head;
+        head.previous.next = timer;
+        head.previous = timer;
+        size++;
+        return timer;
+    }
+
+    void cancel(Timer<T> timer) {
+        if (timer != null && timer.next != null) {
+            unlink(timer);
+        }
+    }
+
+    // Fires, in tick order, every timer with a deadline at or before now
+    void advanceTo(long nowMillis, Consumer<T> onExpiry) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        if (nowTick < currentTick) {
+            return;
+        }
+        // More than a full lap behind, or never advanced: each slot needs one visit
+        long firstTick = Math.max(currentTick, nowTick - mask);
+        for (long tick = firstTick; tick <= nowTick && size > 0; tick++) {
+            Timer<T> head = slots[(int) (tick & mask)];
+            Timer<T> timer = head.next;
+            while (timer != head) {
+                Timer<T> next = timer.next;
+                if (timer.deadlineMillis <= nowMillis) {
+                    unlink(timer);
+                    onExpiry.accept(timer.payload);
+                }
+                timer = next;
+            }
+        }
+        // The current tick may still hold timers due later within it
+        currentTick = nowTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void unlink(Timer<T> timer) {
+        timer.previous.next = timer.next;
+        timer.next.previous = timer.previous;
+        timer.next = null;
+        timer.previous = null;
+        size--;
+    }
+
+    static final class Timer<T> {
+
+        private final long deadlineMillis;
+        private final T payload;
+        private Timer<T> next;
+        private Timer<T> previous;
+
+        private Timer(long deadlineMillis, T payload) {
+            this.deadlineMillis = deadlineMillis;
+            this.payload = payload;
+        }
+
+        long deadlineMillis() {
+            return deadlineMillis;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.trading.service;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Growable, time-ordered (epoch millis, status ordinal) log of one order's applied transitions
+final class TransitionLog {
+
+    private long[] times;
+    private byte[] ordinals;
+    private int size;
+
+    TransitionLog() {
+        this(8);
+    }
+
+    TransitionLog(int capacity) {
+        this.times = new long[Math.max(capacity, 1)];
+        this.ordinals = new byte[Math.max(capacity, 1)];
+    }
+
+    void append(int ordinal, long time) {
+        ensureCapacity();
+        times[size] = time;
+        ordinals[size] = (byte) ordinal;
+        size++;
+    }
+
+    // Inserts after every entry at or before the given time, the position a stable sort would give it
+    void insert(int ordinal, long time) {
+        ensureCapacity();
+        int index = size;
+        while (index > 0 && times[index - 1] > time) {
+            index--;
+        }
+        System.arraycopy(times, index, times, index + 1, size - index);
+        System.arraycopy(ordinals, index, ordinals, index + 1, size - index);
+        times[index] = time;
+        ordinals[index] = (byte) ordinal;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long timeAt(int index) {
+        return times[index];
+    }
+
+    int ordinalAt(int index) {
+        return ordinals[index];
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeByte(ordinals[i]);
+            out.writeLong(times[i]);
+        }
+    }
+
+    // The records that follow the size written by writeTo
+    static TransitionLog readFrom(ByteBuffer in, int size) {
+        TransitionLog log = new TransitionLog(size);
+        for (int i = 0; i < size; i++) {
+            log.ordinals[i] = in.get();
+            log.times[i] = in.getLong();
+        }
+        log.size = size;
+        return log;
+    }
+
+    private void ensureCapacity() {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            ordinals = Arrays.copyOf(ordinals, size * 2);
+        }
+    }
+}
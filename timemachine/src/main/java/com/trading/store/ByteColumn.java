@@ -0,0 +1,51 @@
+package com.trading.store;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Byte counterpart of LongColumn
+final class ByteColumn {
+
+    private final boolean offHeap;
+    private final int chunkShift;
+    private final int chunkMask;
+
+    private byte[][] heapChunks = new byte[0][];
+    private ByteBuffer[] directChunks = new ByteBuffer[0];
+    private long size;
+
+    ByteColumn(boolean offHeap, int chunkShift) {
+        this.offHeap = offHeap;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1 << chunkShift) - 1;
+    }
+
+    void append(byte value) {
+        int chunk = (int) (size >>> chunkShift);
+        int position = (int) (size & chunkMask);
+        if (offHeap) {
+            if (chunk == directChunks.length) {
+                directChunks = Arrays.copyOf(directChunks, chunk + 1);
+                directChunks[chunk] = ByteBuffer.allocateDirect(1 << chunkShift);
+            }
+            directChunks[chunk].put(position, value);
+        } else {
+            if (chunk == heapChunks.length) {
+                heapChunks = Arrays.copyOf(heapChunks, chunk + 1);
+                heapChunks[chunk] = new byte[1 << chunkShift];
+            }
+            heapChunks[chunk][position] = value;
+        }
+        size++;
+    }
+
+    byte get(long index) {
+        int chunk = (int) (index >>> chunkShift);
+        int position = (int) (index & chunkMask);
+        return offHeap ? directChunks[chunk].get(position) : heapChunks[chunk][position];
+    }
+
+    long size() {
+        return size;
+    }
+}
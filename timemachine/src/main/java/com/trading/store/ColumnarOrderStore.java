@@ -0,0 +1,160 @@
+package com.trading.store;
+
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.TatReport;
+import com.trading.model.TatSnapshot;
+import com.trading.model.TransitionSequence;
+import com.trading.service.TatCalculator;
+
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Orders held as columns: one long timestamp and one status byte per transition, plus a per-order
+// offset into those columns. Order ids are kept as bytes in columns of their own and map to dense int
+// indexes. About 9 bytes per transition instead of a StatusTransition and LocalDateTime each; with
+// offHeap the columns, ids included, live in direct memory and add nothing for the GC to trace.
+//
+// Orders are added whole and in one go; a single writer may add while no one reads, after which any
+// number of threads can read slices concurrently.
+public final class ColumnarOrderStore {
+
+    private static final int DEFAULT_CHUNK_SHIFT = 20;
+
+    private final OrderIdColumn orderIds;
+    private final LongColumn offsets;
+    private final ByteColumn orderStatuses;
+    private final LongColumn times;
+    private final ByteColumn statuses;
+
+    public ColumnarOrderStore() {
+        this(false);
+    }
+
+    public ColumnarOrderStore(boolean offHeap) {
+        this(offHeap, DEFAULT_CHUNK_SHIFT);
+    }
+
+    ColumnarOrderStore(boolean offHeap, int chunkShift) {
+        this.orderIds = new OrderIdColumn(offHeap, chunkShift);
+        this.offsets = new LongColumn(offHeap, chunkShift);
+        this.orderStatuses = new ByteColumn(offHeap, chunkShift);
+        this.times = new LongColumn(offHeap, chunkShift);
+        this.statuses = new ByteColumn(offHeap, chunkShift);
+        offsets.append(0);
+    }
+
+    public int add(Order order) {
+        return add(OrderTimeline.of(order), order.status());
+    }
+
+    // The sequence must already be in time order
+    public int add(TransitionSequence transitions, OrderStatus status) {
+        int index = orderIds.add(transitions.orderId());
+        if (index < 0) {
+            throw new IllegalArgumentException("Order already stored: " + transitions.orderId());
+        }
+
+        for (int i = 0; i < transitions.size(); i++) {
+            times.append(transitions.timeAt(i));
+            statuses.append((byte) transitions.ordinalAt(i));
+        }
+        offsets.append(times.size());
+        orderStatuses.append(status == null ? -1 : (byte) status.ordinal());
+        return index;
+    }
+
+    public int orderCount() {
+        return orderIds.size();
+    }
+
+    public long transitionCount() {
+        return times.size();
+    }
+
+    // -1 when the order is not stored
+    public int indexOf(String orderId) {
+        return orderIds.indexOf(orderId);
+    }
+
+    public String orderId(int index) {
+        return orderIds.get(index);
+    }
+
+    public OrderStatus status(int index) {
+        byte status = orderStatuses.get(index);
+        return status < 0 ? null : OrderStatus.fromOrdinal(status);
+    }
+
+    public OrderSlice slice(int index) {
+        return new OrderSlice().moveTo(index);
+    }
+
+    public Stream<OrderSlice> slices() {
+        return IntStream.range(0, orderCount()).mapToObj(this::slice);
+    }
+
+    // Walks every order with one reused slice
+    public void calculateReports(TatCalculator calculator, Consumer<TatReport> sink) {
+        OrderSlice slice = new OrderSlice();
+        for (int index = 0; index < orderCount(); index++) {
+            sink.accept(calculator.calculateReport(slice.moveTo(index)));
+        }
+    }
+
+    // Snapshots of the orders still open at each of the ascending asOfMillis, one sweep per order
+    public void calculateAsOf(TatCalculator calculator, long[] asOfMillis, Consumer<TatSnapshot> sink) {
+        OrderSlice slice = new OrderSlice();
+        for (int index = 0; index < orderCount(); index++) {
+            for (TatSnapshot snapshot : calculator.calculateAsOf(slice.moveTo(index), asOfMillis)) {
+                if (snapshot.isOpen()) {
+                    sink.accept(snapshot);
+                }
+            }
+        }
+    }
+
+    // One order's range of the transition columns
+    public final class OrderSlice implements TransitionSequence {
+
+        private int index;
+        private long start;
+        private int size;
+
+        private OrderSlice() {
+        }
+
+        public OrderSlice moveTo(int index) {
+            this.index = index;
+            this.start = offsets.get(index);
+            this.size = (int) (offsets.get(index + 1) - start);
+            return this;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        @Override
+        public String orderId() {
+            return orderIds.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public long timeAt(int i) {
+            return times.get(start + i);
+        }
+
+        @Override
+        public int ordinalAt(int i) {
+            return statuses.get(start + i);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.trading.store;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Append-only column of longs stored in fixed-size chunks, either long[] on the heap or direct buffers
+// off the heap. Chunking keeps growth copy-free and lets a column exceed the 2 GB limit of one buffer.
+final class LongColumn {
+
+    private final boolean offHeap;
+    private final int chunkShift;
+    private final int chunkMask;
+
+    private long[][] heapChunks = new long[0][];
+    private ByteBuffer[] directChunks = new ByteBuffer[0];
+    private long size;
+
+    LongColumn(boolean offHeap, int chunkShift) {
+        this.offHeap = offHeap;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1 << chunkShift) - 1;
+    }
+
+    void append(long value) {
+        int chunk = (int) (size >>> chunkShift);
+        int position = (int) (size & chunkMask);
+        if (offHeap) {
+            if (chunk == directChunks.length) {
+                directChunks = Arrays.copyOf(directChunks, chunk + 1);
+                directChunks[chunk] = ByteBuffer.allocateDirect(Long.BYTES << chunkShift);
+            }
+            directChunks[chunk].putLong(position << 3, value);
+        } else {
+            if (chunk == heapChunks.length) {
+                heapChunks = Arrays.copyOf(heapChunks, chunk + 1);
+                heapChunks[chunk] = new long[1 << chunkShift];
+            }
+            heapChunks[chunk][position] = value;
+        }
+        size++;
+    }
+
+    long get(long index) {
+        int chunk = (int) (index >>> chunkShift);
+        int position = (int) (index & chunkMask);
+        return offHeap ? directChunks[chunk].getLong(position << 3) : heapChunks[chunk][position];
+    }
+
+    long size() {
+        return size;
+    }
+}
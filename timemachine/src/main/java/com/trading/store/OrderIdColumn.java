@@ -0,0 +1,126 @@
+package com.trading.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Order ids of a ColumnarOrderStore: UTF-8 bytes appended to a ByteColumn with each id's start in a
+// LongColumn, so the ids live in the same heap or direct chunks as the transitions. Lookup by id is an
+// open-addressing table of int indexes and hashes, with no boxed index or map entry per order.
+// get() decodes a new String on every call. Like the HashMap it replaced, the column holds at most one
+// null id; that order takes no bytes and stays out of the table, so it never matches "".
+final class OrderIdColumn {
+
+    private final ByteColumn bytes;
+    private final LongColumn starts;
+    // Order index + 1 per slot, 0 for a free slot
+    private int[] slots = new int[1 << 10];
+    private int[] hashes = new int[1 << 10];
+    private int size;
+    // Index of the null id, -1 when none is held
+    private int nullIndex = -1;
+
+    OrderIdColumn(boolean offHeap, int chunkShift) {
+        this.bytes = new ByteColumn(offHeap, chunkShift);
+        this.starts = new LongColumn(offHeap, chunkShift);
+        starts.append(0);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Index of the added id, -1 when the id is already held
+    int add(String orderId) {
+        if (orderId == null) {
+            if (nullIndex >= 0) {
+                return -1;
+            }
+            starts.append(bytes.size());
+            nullIndex = size;
+            return size++;
+        }
+        byte[] id = orderId.getBytes(StandardCharsets.UTF_8);
+        int hash = Arrays.hashCode(id);
+        if (find(id, hash) >= 0) {
+            return -1;
+        }
+        if ((size + 1) * 2 > slots.length) {
+            rehash();
+        }
+        insert(size, hash);
+        for (byte b : id) {
+            bytes.append(b);
+        }
+        starts.append(bytes.size());
+        return size++;
+    }
+
+    int indexOf(String orderId) {
+        if (orderId == null) {
+            return nullIndex;
+        }
+        byte[] id = orderId.getBytes(StandardCharsets.UTF_8);
+        return find(id, Arrays.hashCode(id));
+    }
+
+    String get(int index) {
+        if (index == nullIndex) {
+            return null;
+        }
+        long start = starts.get(index);
+        byte[] id = new byte[(int) (starts.get(index + 1) - start)];
+        for (int i = 0; i < id.length; i++) {
+            id[i] = bytes.get(start + i);
+        }
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    private int find(byte[] id, int hash) {
+        int mask = slots.length - 1;
+        for (int slot = mix(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && matches(slots[slot] - 1, id)) {
+                return slots[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matches(int index, byte[] id) {
+        long start = starts.get(index);
+        if (starts.get(index + 1) - start != id.length) {
+            return false;
+        }
+        for (int i = 0; i < id.length; i++) {
+            if (bytes.get(start + i) != id[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insert(int index, int hash) {
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = index + 1;
+        hashes[slot] = hash;
+    }
+
+    private void rehash() {
+        int[] oldSlots = slots;
+        int[] oldHashes = hashes;
+        slots = new int[oldSlots.length * 2];
+        hashes = new int[oldSlots.length * 2];
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != 0) {
+                insert(oldSlots[i] - 1, oldHashes[i]);
+            }
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
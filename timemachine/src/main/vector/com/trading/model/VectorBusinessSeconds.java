@@ -0,0 +1,94 @@
+package com.trading.model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Vector kernel behind BusinessSecondsKernel, only loaded once the incubator module is known to be
+// present. Per lane it computes the calendar's cumulative business position of start and end with the
+// same table lookups as businessNanosAt: the epoch day through a double division (exact for the
+// non-negative millis it is used on), the day's cumulative and close nanos by gathers, and the clamp of
+// the time of day to the window by lane-wise min/max. A chunk with any lane before 1970 or outside the
+// calendar horizon, and the tail shorter than a vector, go through the scalar kernel instead.
+final class VectorBusinessSeconds {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private VectorBusinessSeconds() {
+    }
+
+    static int lanes() {
+        return LONGS.length();
+    }
+
+    static void compute(BusinessCalendar calendar, long[] starts, long[] ends, long[] seconds, int length) {
+        long firstDay = calendar.firstDay();
+        long[] closeNanos = calendar.closeNanos();
+        long[] cumulativeNanos = calendar.cumulativeNanos();
+        long open = calendar.startNanoOfDay();
+        int lanes = LONGS.length();
+        int[] startIndexes = new int[lanes];
+        int[] endIndexes = new int[lanes];
+        long[] scratch = new long[lanes];
+
+        int upper = LONGS.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += lanes) {
+            LongVector start = LongVector.fromArray(LONGS, starts, i);
+            LongVector end = LongVector.fromArray(LONGS, ends, i);
+            LongVector startDay = epochDay(start);
+            LongVector endDay = epochDay(end);
+            LongVector startIndex = startDay.sub(firstDay);
+            LongVector endIndex = endDay.sub(firstDay);
+
+            VectorMask<Long> inside = start.compare(VectorOperators.GE, 0)
+                    .and(end.compare(VectorOperators.GE, 0))
+                    .and(startIndex.compare(VectorOperators.GE, 0))
+                    .and(startIndex.compare(VectorOperators.LT, closeNanos.length))
+                    .and(endIndex.compare(VectorOperators.GE, 0))
+                    .and(endIndex.compare(VectorOperators.LT, closeNanos.length));
+            if (!inside.allTrue()) {
+                BusinessSecondsKernel.scalar(calendar, starts, ends, seconds, i, i + lanes);
+                continue;
+            }
+
+            toInts(startIndex, scratch, startIndexes);
+            toInts(endIndex, scratch, endIndexes);
+            LongVector nanos = position(end, endDay, endIndexes, open, closeNanos, cumulativeNanos)
+                    .sub(position(start, startDay, startIndexes, open, closeNanos, cumulativeNanos))
+                    .max(0);
+            nanos.intoArray(seconds, i);
+            // Lane-wise long division is not intrinsified; C2 turns this constant division into a multiply
+            for (int lane = i; lane < i + lanes; lane++) {
+                seconds[lane] /= NANOS_PER_SECOND;
+            }
+        }
+        BusinessSecondsKernel.scalar(calendar, starts, ends, seconds, i, length);
+    }
+
+    private static LongVector epochDay(LongVector millis) {
+        DoubleVector days = ((DoubleVector) millis.convert(VectorOperators.L2D, 0)).div((double) MILLIS_PER_DAY);
+        return (LongVector) days.convert(VectorOperators.D2L, 0);
+    }
+
+    private static void toInts(LongVector vector, long[] scratch, int[] ints) {
+        vector.intoArray(scratch, 0);
+        for (int lane = 0; lane < ints.length; lane++) {
+            ints[lane] = (int) scratch[lane];
+        }
+    }
+
+    // cumulative[day] + the part of the day's window before the time of day
+    private static LongVector position(LongVector millis, LongVector day, int[] indexes, long open, long[] closeNanos,
+            long[] cumulativeNanos) {
+        LongVector nanoOfDay = millis.sub(day.mul(MILLIS_PER_DAY)).mul(NANOS_PER_MILLI);
+        LongVector close = LongVector.fromArray(LONGS, closeNanos, 0, indexes, 0);
+        LongVector elapsed = nanoOfDay.max(open).min(close).sub(open).max(0);
+        return LongVector.fromArray(LONGS, cumulativeNanos, 0, indexes, 0).add(elapsed);
+    }
+}
@@ -0,0 +1,191 @@
+package com.trading.analytics;
+
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.StatusTransition;
+import com.trading.model.TatReport;
+import com.trading.model.TeamConfig;
+import com.trading.service.BatchTatEngine;
+import com.trading.service.BusinessDurationCalculator;
+import com.trading.service.TatCalculator;
+import com.trading.service.TestFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TatAggregatorTest {
+
+        private final TatCalculator tatCalculator = TestFixtures.tatCalculator();
+
+        private static List<Order> randomOrders(int count) {
+                Random random = new Random(13);
+                List<Order> orders = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                        orders.add(Order.builder()
+                                        .orderId("ORDER-" + i)
+                                        .statusTransitions(TestFixtures.randomTransitions(random, random.nextInt(30), random.nextBoolean()))
+                                        .build());
+                }
+                return orders;
+        }
+
+        @Test
+        void testSingleOrderGroups() {
+                LocalDateTime t0 = LocalDateTime.of(2023, 1, 2, 9, 0);
+                Order order = Order.builder()
+                                .orderId("A")
+                                .statusTransitions(List.of(
+                                                new StatusTransition(OrderStatus.TRADING_OPEN, t0),
+                                                new StatusTransition(OrderStatus.TRADING_IN_PROGRESS, t0.plusMinutes(30)),
+                                                new StatusTransition(OrderStatus.STARTED, t0.plusMinutes(90))))
+                                .build();
+
+                List<TatGroupStats> stats = List.of(tatCalculator.calculateReport(order)).stream()
+                                .collect(TatAggregator.groupingBy(TatDimension.TEAM, TatDimension.ENTRY_DAY,
+                                                TatDimension.TERMINAL_STATUS));
+
+                assertEquals(List.of(new TatGroupStats("TRADING", -1, LocalDate.of(2023, 1, 2), OrderStatus.STARTED,
+                                1, 5_400_000, 5_400_000, 5_400_000)), stats);
+        }
+
+        @Test
+        void testInstantReportsGroupByTheTeamsLocalDay() {
+                TatCalculator zoned = new TatCalculator(new BusinessDurationCalculator(),
+                                TestFixtures.teamConfigs(ZoneId.of("America/New_York"), ZoneId.of("Europe/London")));
+                // 02:00Z on the 14th is still the evening of the 13th in New York
+                OrderTimeline timeline = OrderTimeline.of(Order.builder()
+                                .orderId("A")
+                                .statusTransitions(List.of(
+                                                new StatusTransition(OrderStatus.TRADING_OPEN, LocalDateTime.of(2023, 3, 14, 2, 0)),
+                                                new StatusTransition(OrderStatus.COMPLETED, LocalDateTime.of(2023, 3, 14, 14, 0))))
+                                .build());
+
+                List<TatGroupStats> stats = List.of(zoned.calculateInstantReport(timeline)).stream()
+                                .collect(TatAggregator.groupingBy(TatDimension.TEAM, TatDimension.ENTRY_DAY));
+
+                assertEquals(1, stats.size());
+                assertEquals(TatReport.TRADING_TEAM, stats.get(0).team());
+                assertEquals(LocalDate.of(2023, 3, 13), stats.get(0).entryDay());
+        }
+
+        @Test
+        void testReportsWithDifferentTeamOrdersGroupByName() {
+                // Same teams as tatCalculator, listed the other way round
+                Map<String, TeamConfig> reversed = new LinkedHashMap<>();
+                List<String> names = new ArrayList<>(tatCalculator.calculateReport(randomOrders(1).get(0)).teamNames());
+                Collections.reverse(names);
+                names.forEach(name -> reversed.put(name, TestFixtures.teamConfigs().get(name)));
+                TatCalculator reordered = new TatCalculator(new BusinessDurationCalculator(), reversed);
+
+                List<Order> orders = randomOrders(1_000);
+                List<TatGroupStats> expected = orders.stream().map(tatCalculator::calculateReport)
+                                .collect(TatAggregator.groupingBy(TatDimension.TEAM, TatDimension.BLOCK));
+                List<TatGroupStats> mixed = IntStream.range(0, orders.size()).parallel()
+                                .mapToObj(i -> (i % 2 == 0 ? tatCalculator : reordered).calculateReport(orders.get(i)))
+                                .collect(TatAggregator.groupingBy(TatDimension.TEAM, TatDimension.BLOCK));
+
+                // Rows come out in name order, whichever worker's table the others were merged into
+                Comparator<TatGroupStats> byGroup = Comparator.comparing(TatGroupStats::team)
+                                .thenComparingInt(TatGroupStats::block);
+                assertEquals(expected.stream().sorted(byGroup).toList(), expected);
+                assertEquals(expected, mixed);
+        }
+
+        @Test
+        void testRejectsMoreTeamsOrBlocksThanTheKeyHolds() {
+                List<String> teams = IntStream.range(0, 1_024).mapToObj(team -> "TEAM-" + team).toList();
+                long[][] oneBlockEach = new long[teams.size()][];
+                long[][] enteredEach = new long[teams.size()][];
+                for (int team = 0; team < teams.size(); team++) {
+                        oneBlockEach[team] = new long[] {60_000};
+                        enteredEach[team] = new long[] {0};
+                }
+                TatReport manyTeams = new TatReport("A", 0, 0, 0, teams, oneBlockEach, enteredEach, null);
+                assertThrows(IllegalArgumentException.class,
+                                () -> List.of(manyTeams).stream().collect(TatAggregator.groupingBy(TatDimension.TEAM)));
+
+                TatReport manyBlocks = new TatReport("B", 0, 0, 0, List.of("TEAM"),
+                                new long[][] {new long[1_024]}, new long[][] {new long[1_024]}, null);
+                assertThrows(IllegalArgumentException.class,
+                                () -> List.of(manyBlocks).stream().collect(TatAggregator.groupingBy(TatDimension.BLOCK)));
+                // Without BLOCK the block index is not packed, so any number of blocks is fine
+                assertEquals(1, List.of(manyBlocks).stream().collect(TatAggregator.groupingBy(TatDimension.TEAM))
+                                .get(0).count());
+        }
+
+        @Test
+        void testParallelGroupingMatchesBoxedMaps() {
+                List<Order> orders = randomOrders(3_000);
+                List<TatReport> reports = orders.stream().map(tatCalculator::calculateReport).toList();
+
+                // Reference: one row per entered block, keyed by team, block and entry day
+                Map<List<Object>, long[]> expected = new HashMap<>();
+                for (TatReport report : reports) {
+                        for (int team = 0; team < report.teamNames().size(); team++) {
+                                for (int block = 0; block < report.blockCount(team); block++) {
+                                        long entry = report.blockEntryMillis(team, block);
+                                        if (entry == TatReport.NOT_ENTERED) {
+                                                continue;
+                                        }
+                                        long millis = report.blockTatMillis(team, block);
+                                        LocalDate day = OrderTimeline.toLocalDateTime(entry).toLocalDate();
+                                        long[] stats = expected.computeIfAbsent(
+                                                        List.of(report.teamNames().get(team), block, day),
+                                                        k -> new long[] {0, 0, Long.MAX_VALUE, Long.MIN_VALUE});
+                                        stats[0]++;
+                                        stats[1] += millis;
+                                        stats[2] = Math.min(stats[2], millis);
+                                        stats[3] = Math.max(stats[3], millis);
+                                }
+                        }
+                }
+
+                List<TatGroupStats> actual;
+                try (BatchTatEngine engine = new BatchTatEngine(tatCalculator, 4)) {
+                        actual = engine.collect(orders.spliterator(), Collectors.mapping(tatCalculator::calculateReport,
+                                        TatAggregator.groupingBy(TatDimension.TEAM, TatDimension.BLOCK, TatDimension.ENTRY_DAY)));
+                }
+
+                assertEquals(expected.size(), actual.size());
+                for (TatGroupStats group : actual) {
+                        long[] stats = expected.get(List.of(group.team(), group.block(), group.entryDay()));
+                        assertEquals(stats[0], group.count());
+                        assertEquals(stats[1], group.sumMillis());
+                        assertEquals(stats[2], group.minMillis());
+                        assertEquals(stats[3], group.maxMillis());
+                        assertNull(group.terminalStatus());
+                }
+
+                // Grouped by terminal status only, the counts are the orders that entered each team
+                long teamRows = reports.stream()
+                                .mapToLong(report -> IntStream.range(0, report.teamNames().size())
+                                                .filter(team -> IntStream.range(0, report.blockCount(team)).anyMatch(
+                                                                block -> report.blockEntryMillis(team, block) != TatReport.NOT_ENTERED))
+                                                .count())
+                                .sum();
+                List<TatGroupStats> byStatus = reports.parallelStream()
+                                .collect(TatAggregator.groupingBy(TatDimension.TERMINAL_STATUS));
+                assertEquals(teamRows, byStatus.stream().mapToLong(TatGroupStats::count).sum());
+                long teamMillis = reports.stream()
+                                .mapToLong(report -> IntStream.range(0, report.teamNames().size()).mapToLong(report::teamTatMillis).sum())
+                                .sum();
+                assertEquals(teamMillis, byStatus.stream().mapToLong(TatGroupStats::sumMillis).sum());
+        }
+}
@@ -0,0 +1,156 @@
+package com.trading.analytics;
+
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.StatusTransition;
+import com.trading.model.TatReport;
+import com.trading.service.BatchTatEngine;
+import com.trading.service.TatCalculator;
+import com.trading.service.TestFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TatHistogramTest {
+
+        private final TatCalculator tatCalculator = TestFixtures.tatCalculator();
+
+        @Test
+        void testPercentilesWithinPrecision() {
+                Random random = new Random(3);
+                long[] values = new long[100_000];
+                TatHistogram histogram = new TatHistogram();
+                for (int i = 0; i < values.length; i++) {
+                        // Spread over several orders of magnitude, up to a few days
+                        values[i] = (long) Math.pow(10, random.nextDouble() * 8.5);
+                        histogram.record(values[i]);
+                }
+                Arrays.sort(values);
+
+                for (double percentile : new double[] {0, 50, 90, 99, 99.9, 100}) {
+                        long exact = values[Math.max(0, (int) Math.ceil(percentile / 100 * values.length) - 1)];
+                        long estimate = histogram.valueAtPercentile(percentile);
+                        assertTrue(estimate >= exact && estimate <= exact + exact / 128 + 1,
+                                        "p" + percentile + ": " + estimate + " vs " + exact);
+                }
+                assertEquals(values[0], histogram.minMillis());
+                assertEquals(values[values.length - 1], histogram.maxMillis());
+                assertEquals(values.length, histogram.totalCount());
+        }
+
+        @Test
+        void testSmallValuesAreExact() {
+                TatHistogram histogram = new TatHistogram();
+                for (long value = 0; value < 100; value++) {
+                        histogram.record(value);
+                }
+                assertEquals(49, histogram.valueAtPercentile(50));
+                assertEquals(98, histogram.valueAtPercentile(99));
+        }
+
+        @Test
+        void testMergedAndSerializedMatchSingleHistogram() throws IOException {
+                Random random = new Random(9);
+                TatHistogram single = new TatHistogram();
+                TatHistogram first = new TatHistogram();
+                TatHistogram second = new TatHistogram();
+                for (int i = 0; i < 10_000; i++) {
+                        long value = random.nextInt(1_000_000_000);
+                        single.record(value);
+                        (i % 2 == 0 ? first : second).record(value);
+                }
+                first.merge(second);
+
+                for (double percentile : new double[] {1, 50, 90, 99, 100}) {
+                        assertEquals(single.valueAtPercentile(percentile), first.valueAtPercentile(percentile));
+                }
+                assertEquals(single.meanMillis(), first.meanMillis(), 1e-6);
+
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes);
+                first.writeTo(out);
+                TatHistogram restored = TatHistogram.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+                assertEquals(single.totalCount(), restored.totalCount());
+                assertEquals(single.minMillis(), restored.minMillis());
+                assertEquals(single.maxMillis(), restored.maxMillis());
+                assertEquals(single.valueAtPercentile(99), restored.valueAtPercentile(99));
+        }
+
+        @Test
+        void testZeroTeamTatIsRecordedOnlyForEnteredTeams() {
+                // In and out of trading after Monday's cutoff: entered, but no business time
+                LocalDateTime entry = LocalDateTime.of(2023, 1, 2, 18, 0);
+                Order order = Order.builder()
+                                .orderId("CLOSED-HOURS")
+                                .statusTransitions(List.of(new StatusTransition(OrderStatus.TRADING_OPEN, entry),
+                                                new StatusTransition(OrderStatus.COMPLETED, entry.plusHours(1))))
+                                .build();
+
+                TeamTatHistograms histograms = new TeamTatHistograms();
+                histograms.record(entry.toLocalDate(), tatCalculator.calculateReport(order));
+
+                assertEquals(Set.of("TRADING"), histograms.teams());
+                TatHistogram trading = histograms.histogram("TRADING");
+                assertEquals(1, trading.totalCount());
+                assertEquals(0, trading.maxMillis());
+        }
+
+        @Test
+        void testParallelCollectorMatchesSequentialRecording() throws IOException {
+                Random random = new Random(21);
+                List<Order> orders = new ArrayList<>();
+                for (int i = 0; i < 3_000; i++) {
+                        orders.add(Order.builder()
+                                        .orderId("ORDER-" + i)
+                                        .status(OrderStatus.COMPLETED)
+                                        .statusTransitions(TestFixtures.randomTransitions(random, 1 + random.nextInt(30), true))
+                                        .build());
+                }
+
+                TeamTatHistograms expected = new TeamTatHistograms();
+                for (Order order : orders) {
+                        TatReport report = tatCalculator.calculateReport(order);
+                        LocalDate day = order.statusTransitions().get(order.statusTransitions().size() - 1)
+                                        .getChangeTime().toLocalDate();
+                        expected.record(day, report);
+                }
+
+                TeamTatHistograms actual;
+                try (BatchTatEngine engine = new BatchTatEngine(tatCalculator, 4)) {
+                        actual = engine.collect(orders.spliterator(), TeamTatHistograms.collector(tatCalculator));
+                }
+                // Partial results written separately combine to the same totals
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                actual.writeTo(bytes);
+                TeamTatHistograms restored = TeamTatHistograms.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+
+                assertEquals(expected.teams(), restored.teams());
+                for (String team : expected.teams()) {
+                        assertEquals(expected.days(team), restored.days(team));
+                        for (LocalDate day : expected.days(team)) {
+                                TatHistogram e = expected.histogram(team, day);
+                                TatHistogram a = restored.histogram(team, day);
+                                assertEquals(e.totalCount(), a.totalCount());
+                                assertEquals(e.valueAtPercentile(50), a.valueAtPercentile(50));
+                                assertEquals(e.valueAtPercentile(99), a.valueAtPercentile(99));
+                        }
+                        assertEquals(expected.histogram(team).valueAtPercentile(90),
+                                        restored.histogram(team).valueAtPercentile(90));
+                }
+        }
+}
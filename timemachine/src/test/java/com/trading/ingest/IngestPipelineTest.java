@@ -0,0 +1,134 @@
+package com.trading.ingest;
+
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.StatusTransition;
+import com.trading.service.TatCalculator;
+import com.trading.service.TestFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IngestPipelineTest {
+
+        private final TatCalculator tatCalculator = TestFixtures.tatCalculator();
+
+        private record Row(String orderId, StatusTransition transition) {
+        }
+
+        private static InputStream input(String text) {
+                return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void assertPipelineMatchesOrders(TransitionFormat format) throws IOException {
+                Random random = new Random(11);
+                List<Order> orders = new ArrayList<>();
+                List<Row> rows = new ArrayList<>();
+                for (int i = 0; i < 1_000; i++) {
+                        List<StatusTransition> transitions = TestFixtures.randomTransitions(random, random.nextInt(30), true);
+                        Order order = Order.builder().orderId("ORDER-" + i).statusTransitions(transitions).build();
+                        orders.add(order);
+                        transitions.forEach(t -> rows.add(new Row(order.orderId(), t)));
+                }
+                // An export is in time order; the stable sort keeps each order's own sequence
+                rows.sort(Comparator.comparing(row -> row.transition().getChangeTime()));
+
+                StringBuilder text = new StringBuilder(format == TransitionFormat.CSV ? "orderId,status,changeTime\n" : "");
+                for (Row row : rows) {
+                        if (format == TransitionFormat.CSV) {
+                                text.append(row.orderId()).append(',').append(row.transition().getStatus()).append(',')
+                                                .append(row.transition().getChangeTime()).append('\n');
+                        } else {
+                                text.append("{\"orderId\":\"").append(row.orderId())
+                                                .append("\", \"status\":\"").append(row.transition().getStatus())
+                                                .append("\", \"source\":{\"system\":\"oms\"}, \"changeTime\":\"")
+                                                .append(row.transition().getChangeTime()).append("\"}\n");
+                        }
+                }
+
+                Map<String, String> expected = orders.stream().collect(Collectors.toMap(Order::orderId,
+                                order -> tatCalculator.calculateReport(order).toString()));
+                Map<String, String> actual = new ConcurrentHashMap<>();
+                IngestPipeline pipeline = IngestPipeline.builder()
+                                .calculator(tatCalculator)
+                                .partitions(3)
+                                .batchSize(16)
+                                .queueCapacity(2)
+                                .build();
+                IngestSummary summary = pipeline.run(input(text.toString()), format,
+                                report -> actual.put(report.orderId(), report.toString()));
+
+                assertEquals(expected, actual);
+                assertEquals(rows.size(), summary.rows());
+                assertEquals(orders.size(), summary.reports());
+                assertEquals(0, summary.openOrders());
+        }
+
+        @Test
+        void testCsvExport() throws IOException {
+                assertPipelineMatchesOrders(TransitionFormat.CSV);
+        }
+
+        @Test
+        void testJsonlExport() throws IOException {
+                assertPipelineMatchesOrders(TransitionFormat.JSONL);
+        }
+
+        @Test
+        void testTimestampFormats() throws IOException {
+                String csv = """
+                                status, timestamp ,orderId
+                                DRAFT,2024-02-29T23:59:59.9876,A\r
+                                SUBMITTED,"1999-12-31 08:05",A
+
+                                STARTED,1700000000123,B
+                                """;
+                List<Long> times = new ArrayList<>();
+                List<String> orderIds = new ArrayList<>();
+                // A tiny chunk forces lines to be carried across reads
+                long rows = new TransitionParser(TransitionFormat.CSV, 8, 16).parse(input(csv), (orderId, ordinal, time) -> {
+                        orderIds.add(orderId);
+                        times.add(time);
+                });
+
+                assertEquals(3, rows);
+                assertEquals(List.of("A", "A", "B"), orderIds);
+                assertTrue(orderIds.get(0) == orderIds.get(1));
+                assertEquals(List.of(
+                                OrderTimeline.toEpochMillis(LocalDateTime.of(2024, 2, 29, 23, 59, 59, 987_600_000)),
+                                OrderTimeline.toEpochMillis(LocalDateTime.of(1999, 12, 31, 8, 5)),
+                                1_700_000_000_123L), times);
+        }
+
+        @Test
+        void testMalformedLinesNameTheLine() {
+                IllegalArgumentException unknownStatus = assertThrows(IllegalArgumentException.class,
+                                () -> new TransitionParser(TransitionFormat.JSONL).parse(
+                                                input("{\"orderId\":\"A\",\"status\":\"DRAFT\",\"changeTime\":\"2023-01-02T09:00\"}\n"
+                                                                + "{\"orderId\":\"A\",\"status\":\"LOST\",\"changeTime\":\"2023-01-02T09:00\"}"),
+                                                (orderId, ordinal, time) -> {
+                                                }));
+                assertEquals("Line 2: Unknown status: LOST", unknownStatus.getMessage());
+
+                assertThrows(IllegalArgumentException.class, () -> new TransitionParser(TransitionFormat.CSV).parse(
+                                input("orderId,status,changeTime\nA,DRAFT,2023-02-30T09:00\n"), (orderId, ordinal, time) -> {
+                                }));
+                assertEquals(OrderStatus.DRAFT.ordinal(), ByteFields.statusOrdinal("DRAFT".getBytes(), 0, 5));
+        }
+}
@@ -0,0 +1,134 @@
+package com.trading.io;
+
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.TatReport;
+import com.trading.service.TatCalculator;
+import com.trading.service.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransitionLogTest {
+
+        private final TatCalculator tatCalculator = TestFixtures.tatCalculator();
+
+        @TempDir
+        Path directory;
+
+        private static List<Order> randomOrders(int count) {
+                Random random = new Random(99);
+                List<Order> orders = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                        orders.add(Order.builder()
+                                        .orderId("ORDER-" + i)
+                                        .status(OrderStatus.COMPLETED)
+                                        .statusTransitions(TestFixtures.randomTransitions(random, random.nextInt(40), true))
+                                        .build());
+                }
+                return orders;
+        }
+
+        @Test
+        void testRoundTripMatchesObjectModelReports() throws IOException {
+                List<Order> orders = randomOrders(1_000);
+                Path log = directory.resolve("transitions.tatl");
+                assertEquals(1_000, TransitionLogWriter.convert(orders, log));
+
+                List<String> expected = orders.stream().map(o -> tatCalculator.calculateReport(o).toString()).toList();
+                List<String> actual = new ArrayList<>();
+                // A small window forces remapping as the reader moves through the file
+                try (TransitionLogReader reader = new TransitionLogReader(log, 4_096)) {
+                        reader.calculateReports(tatCalculator, report -> actual.add(report.toString()));
+                }
+
+                assertEquals(expected, actual);
+        }
+
+        @Test
+        void testRecordsArePacked() throws IOException {
+                Order order = randomOrders(1).get(0);
+                Path log = directory.resolve("single.tatl");
+                TransitionLogWriter.convert(List.of(order), log);
+
+                long expectedSize = 8 + 7 + order.orderId().length() + 9L * order.statusTransitions().size();
+                assertEquals(expectedSize, Files.size(log));
+
+                try (TransitionLogReader reader = new TransitionLogReader(log)) {
+                        reader.next();
+                        TransitionLogReader.MappedOrder mapped = reader.current();
+                        TatReport report = tatCalculator.calculateReport(mapped);
+                        assertEquals(order.orderId(), mapped.orderId());
+                        assertEquals(OrderStatus.COMPLETED, mapped.status());
+                        assertEquals(tatCalculator.calculateReport(order).toString(), report.toString());
+                }
+        }
+
+        @Test
+        void testRejectsOtherFiles() throws IOException {
+                Path other = directory.resolve("other.bin");
+                Files.write(other, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+                assertThrows(IOException.class, () -> new TransitionLogReader(other));
+        }
+
+        // Reads every order of a copy of the log with its bytes changed by corrupt
+        private IOException readCorrupted(Consumer<ByteBuffer> corrupt) throws IOException {
+                Path log = directory.resolve("valid.tatl");
+                TransitionLogWriter.convert(randomOrders(3), log);
+                ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(log));
+                corrupt.accept(bytes);
+                Path corrupted = directory.resolve("corrupted.tatl");
+                Files.write(corrupted, bytes.array());
+
+                return assertThrows(IOException.class, () -> {
+                        try (TransitionLogReader reader = new TransitionLogReader(corrupted)) {
+                                reader.forEach(order -> { });
+                        }
+                });
+        }
+
+        @Test
+        void testRejectsTruncatedLog() throws IOException {
+                Path log = directory.resolve("full.tatl");
+                TransitionLogWriter.convert(randomOrders(3), log);
+                byte[] full = Files.readAllBytes(log);
+
+                // Cut inside the last order's records, then inside the header of an order appended after it
+                for (byte[] truncated : new byte[][] {
+                                Arrays.copyOf(full, full.length - 4),
+                                Arrays.copyOf(full, full.length + 3)}) {
+                        Path cut = directory.resolve("cut.tatl");
+                        Files.write(cut, truncated);
+                        IOException e = assertThrows(IOException.class, () -> {
+                                try (TransitionLogReader reader = new TransitionLogReader(cut)) {
+                                        reader.forEach(order -> { });
+                                }
+                        });
+                        assertTrue(e.getMessage().startsWith("Truncated transition log"), e.getMessage());
+                }
+        }
+
+        @Test
+        void testRejectsCorruptOrderHeader() throws IOException {
+                // The first order's header starts right after the 8-byte file header
+                assertTrue(readCorrupted(bytes -> bytes.putInt(8, -1)).getMessage().startsWith("Corrupt order header"));
+                assertTrue(readCorrupted(bytes -> bytes.put(12, (byte) OrderStatus.values().length)).getMessage()
+                                .startsWith("Corrupt order header"));
+                assertTrue(readCorrupted(bytes -> bytes.putShort(13, (short) -2)).getMessage()
+                                .startsWith("Corrupt order header"));
+        }
+}
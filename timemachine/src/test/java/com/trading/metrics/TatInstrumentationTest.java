@@ -0,0 +1,111 @@
+package com.trading.metrics;
+
+import com.trading.model.Order;
+import com.trading.model.TeamConfig;
+import com.trading.service.BusinessDurationCalculator;
+import com.trading.service.TatCalculator;
+import com.trading.service.TestFixtures;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TatInstrumentationTest {
+
+        private final Map<String, TeamConfig> teamConfigs = TestFixtures.teamConfigs();
+
+        private Order order(Random random, int i) {
+                return Order.builder()
+                                .orderId("ORDER-" + i)
+                                .statusTransitions(TestFixtures.randomTransitions(random, 20, true))
+                                .build();
+        }
+
+        @Test
+        void testCountersPerMethod() {
+                MetricsRegistry registry = new MetricsRegistry();
+                TatInstrumentation instrumentation = TatInstrumentation.of(registry, false);
+                TatCalculator calculator = new TatCalculator(
+                                new BusinessDurationCalculator(BusinessDurationCalculator.Mode.DAY_LOOP, instrumentation),
+                                teamConfigs, instrumentation);
+
+                Random random = new Random(21);
+                for (int i = 0; i < 50; i++) {
+                        Order order = order(random, i);
+                        calculator.calculateReport(order);
+                        calculator.calculateTradingTeamTat(order);
+                }
+                // Monday to Wednesday in the day loop
+                calculator.calculateDwellTimes(order(random, 50), "TRADING");
+                new BusinessDurationCalculator(BusinessDurationCalculator.Mode.DAY_LOOP, instrumentation).calculateDuration(
+                                LocalDateTime.of(2023, 1, 2, 10, 0), LocalDateTime.of(2023, 1, 4, 10, 0), teamConfigs.get("TRADING"));
+
+                Map<String, MethodMetrics> methods = registry.methods();
+                assertEquals(101, methods.get("OrderTimeline.of").calls());
+                assertEquals(50, methods.get("TatCalculator.calculateReport").calls());
+                assertEquals(50 * 21, methods.get("TatCalculator.calculateReport").transitionsScanned());
+                assertEquals(50, methods.get("ParkedTimeIndex.of").calls());
+                assertEquals(50 * 21 * 2, methods.get("TatCalculator.calculateTeamTat").transitionsScanned());
+                assertEquals(1, methods.get("TatCalculator.calculateDwellTimes").calls());
+                assertEquals(20, methods.get("BusinessDurationCalculator.calculateBusinessMillis").calls());
+                assertEquals(1, methods.get("BusinessDurationCalculator.calculateDuration").calls());
+                assertEquals(3, methods.get("BusinessDurationCalculator.calculateDuration").daysIterated());
+
+                MethodMetrics report = methods.get("TatCalculator.calculateReport");
+                assertTrue(report.totalNanos() > 0);
+                assertTrue(report.percentileNanos(50) <= report.percentileNanos(99));
+                assertTrue(report.percentileNanos(100) >= report.meanNanos());
+
+                registry.reset();
+                assertEquals(0, report.calls());
+        }
+
+        @Test
+        void testNoopLeavesRegistryEmpty() {
+                MetricsRegistry registry = new MetricsRegistry();
+                TatCalculator calculator = new TatCalculator(new BusinessDurationCalculator(), teamConfigs);
+                calculator.calculateReport(order(new Random(22), 0));
+                assertTrue(registry.methods().isEmpty());
+                assertFalse(TatInstrumentation.NOOP.enabled());
+        }
+
+        @Test
+        void testJfrEvents(@TempDir Path directory) throws Exception {
+                TatInstrumentation instrumentation = TatInstrumentation.of(new MetricsRegistry());
+                TatCalculator calculator = new TatCalculator(new BusinessDurationCalculator(), teamConfigs, instrumentation);
+                Path file = directory.resolve("tat.jfr");
+
+                try (Recording recording = new Recording()) {
+                        recording.enable("com.trading.TatCalculation");
+                        recording.start();
+                        Random random = new Random(23);
+                        for (int i = 0; i < 10; i++) {
+                                calculator.calculateAuditReviewTeamTat(order(random, i));
+                        }
+                        recording.stop();
+                        recording.dump(file);
+                }
+
+                List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                                .filter(e -> e.getEventType().getName().equals("com.trading.TatCalculation"))
+                                .toList();
+                assertEquals(30, events.size());
+                RecordedEvent teamTat = events.stream()
+                                .filter(e -> e.getString("method").equals("TatCalculator.calculateTeamTat"))
+                                .findFirst().orElseThrow();
+                assertEquals("AUDIT_REVIEW", teamTat.getString("teamName"));
+                assertEquals(21 * 3, teamTat.getLong("transitionsScanned"));
+                assertTrue(teamTat.getString("orderId").startsWith("ORDER-"));
+        }
+}
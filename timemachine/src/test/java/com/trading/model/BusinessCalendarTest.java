@@ -0,0 +1,37 @@
+package com.trading.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BusinessCalendarTest {
+
+        private static final LocalTime START = LocalTime.of(9, 0);
+        private static final LocalTime CUTOFF = LocalTime.of(17, 0);
+
+        @Test
+        void testReleasedCalendarIsPurgedFromTheSharedCache() {
+                // Holidays no other test uses, so only this test holds the calendars
+                Set<LocalDate> holidays = Set.of(LocalDate.of(2031, 7, 9));
+                Set<LocalDate> otherHolidays = Set.of(LocalDate.of(2031, 7, 10));
+                BusinessCalendar calendar = BusinessCalendar.shared(START, CUTOFF, holidays, null);
+                assertSame(calendar, BusinessCalendar.shared(START, CUTOFF, holidays, null));
+
+                assertTrue(BusinessCalendar.releaseShared(START, CUTOFF, holidays, null));
+                // Released entries stay until the next lookup purges them
+                assertTrue(BusinessCalendar.isShared(START, CUTOFF, holidays, null));
+                BusinessCalendar.shared(START, CUTOFF, otherHolidays, null);
+                assertFalse(BusinessCalendar.isShared(START, CUTOFF, holidays, null));
+                assertTrue(BusinessCalendar.isShared(START, CUTOFF, otherHolidays, null));
+
+                assertNotSame(calendar, BusinessCalendar.shared(START, CUTOFF, holidays, null));
+                assertTrue(BusinessCalendar.isShared(START, CUTOFF, holidays, null));
+        }
+}
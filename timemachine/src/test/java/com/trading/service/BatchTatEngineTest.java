@@ -0,0 +1,104 @@
+package com.trading.service;
+
+import com.trading.model.ActivityBlock;
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.StatusTransition;
+import com.trading.model.TatReport;
+import com.trading.model.TeamConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchTatEngineTest {
+
+        private final TatCalculator tatCalculator = new TatCalculator(new BusinessDurationCalculator(), Map.of(
+                        "TRADING", TeamConfig.builder()
+                                        .teamName("TRADING")
+                                        .activityBlocks(List.of(ActivityBlock.builder()
+                                                        .statuses(Set.of(OrderStatus.TRADING_OPEN,
+                                                                        OrderStatus.TRADING_IN_PROGRESS,
+                                                                        OrderStatus.TRADING_PARKED,
+                                                                        OrderStatus.TRADING_SUBMITTED))
+                                                        .entryStatus(OrderStatus.TRADING_OPEN)
+                                                        .firstInProgressStatus(OrderStatus.TRADING_IN_PROGRESS)
+                                                        .build()))
+                                        .startTime(LocalTime.of(9, 0))
+                                        .cutoffTime(LocalTime.of(17, 0))
+                                        .zoneId(ZoneId.systemDefault())
+                                        .build()));
+
+        private static List<Order> randomOrders(int count) {
+                Random random = new Random(42);
+                OrderStatus[] statuses = OrderStatus.values();
+                List<Order> orders = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                        LocalDateTime time = LocalDateTime.of(2023, 1, 2, 8, 0).plusMinutes(random.nextInt(10_000));
+                        List<StatusTransition> transitions = new ArrayList<>();
+                        for (int j = 0; j < 20; j++) {
+                                transitions.add(new StatusTransition(statuses[random.nextInt(statuses.length)], time));
+                                time = time.plusMinutes(random.nextInt(600));
+                        }
+                        // Shared lists must come through untouched even though they are unsorted
+                        Collections.shuffle(transitions, random);
+                        orders.add(Order.builder().orderId("ORDER-" + i).statusTransitions(transitions).build());
+                }
+                return orders;
+        }
+
+        // Deep copies of every order's transitions, in their original order
+        private static List<List<StatusTransition>> copyTransitions(List<Order> orders) {
+                return orders.stream()
+                                .map(order -> order.statusTransitions().stream()
+                                                .map(t -> new StatusTransition(t.getStatus(), t.getChangeTime()))
+                                                .toList())
+                                .toList();
+        }
+
+        @Test
+        void testOrderedBatchMatchesSequential() {
+                List<Order> orders = randomOrders(2_000);
+                List<List<StatusTransition>> inputs = copyTransitions(orders);
+                List<String> expected = orders.stream().map(o -> tatCalculator.calculateReport(o).toString()).toList();
+
+                try (BatchTatEngine engine = new BatchTatEngine(tatCalculator, 4)) {
+                        List<String> actual = engine.calculateReports(orders).stream().map(TatReport::toString).toList();
+                        assertEquals(expected, actual);
+                }
+                assertEquals(inputs, orders.stream().map(Order::statusTransitions).toList());
+        }
+
+        @Test
+        void testUnorderedBatchProducesEveryReport() {
+                List<Order> orders = randomOrders(2_000);
+                List<List<StatusTransition>> inputs = copyTransitions(orders);
+                List<String> expected = orders.stream()
+                                .map(o -> tatCalculator.calculateReport(o).toString())
+                                .sorted()
+                                .toList();
+
+                try (BatchTatEngine engine = new BatchTatEngine(tatCalculator, 4)) {
+                        ConcurrentLinkedQueue<TatReport> sink = new ConcurrentLinkedQueue<>();
+                        engine.forEachReport(orders.spliterator(), sink::add);
+                        assertEquals(expected, sink.stream().map(TatReport::toString).sorted().toList());
+
+                        List<String> unordered = engine.calculateReports(orders.spliterator(), false).stream()
+                                        .map(TatReport::toString)
+                                        .sorted()
+                                        .toList();
+                        assertEquals(expected, unordered);
+                }
+                assertEquals(inputs, orders.stream().map(Order::statusTransitions).toList());
+        }
+}
@@ -0,0 +1,398 @@
+package com.trading.service;
+
+import com.trading.model.BusinessCalendar;
+import com.trading.model.BusinessSecondsKernel;
+import com.trading.model.OrderTimeline;
+import com.trading.model.TeamConfig;
+import com.trading.model.ZoneOffsetTable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BusinessDurationCalculatorTest {
+
+        private final BusinessDurationCalculator dayLoop = new BusinessDurationCalculator(
+                        BusinessDurationCalculator.Mode.DAY_LOOP);
+        private final BusinessDurationCalculator constantTime = new BusinessDurationCalculator(
+                        BusinessDurationCalculator.Mode.CONSTANT_TIME);
+
+        private static TeamConfig config(LocalTime startTime, LocalTime cutoffTime) {
+                return TeamConfig.builder()
+                                .teamName("TEST")
+                                .startTime(startTime)
+                                .cutoffTime(cutoffTime)
+                                .zoneId(ZoneId.systemDefault())
+                                .build();
+        }
+
+        @Test
+        void testSameDay() {
+                TeamConfig config = config(LocalTime.of(9, 0), LocalTime.of(17, 0));
+                LocalDateTime start = LocalDateTime.of(2023, 1, 2, 10, 0); // Monday
+                LocalDateTime end = LocalDateTime.of(2023, 1, 2, 12, 30);
+
+                assertEquals(Duration.ofMinutes(150), constantTime.calculateDuration(start, end, config));
+        }
+
+        @Test
+        void testOverWeekend() {
+                TeamConfig config = config(LocalTime.of(9, 0), LocalTime.of(17, 0));
+                // Friday 16:00 -> Monday 10:00
+                // Friday: 1h, Monday: 1h
+                LocalDateTime start = LocalDateTime.of(2023, 1, 6, 16, 0);
+                LocalDateTime end = LocalDateTime.of(2023, 1, 9, 10, 0);
+
+                assertEquals(Duration.ofHours(2), constantTime.calculateDuration(start, end, config));
+        }
+
+        @Test
+        void testMultiMonthSpan() {
+                TeamConfig config = config(LocalTime.of(9, 0), LocalTime.of(17, 0));
+                // Monday 2023-01-02 09:00 -> Monday 2023-04-03 09:00 = 13 weeks of 5 x 8h
+                LocalDateTime start = LocalDateTime.of(2023, 1, 2, 9, 0);
+                LocalDateTime end = LocalDateTime.of(2023, 4, 3, 9, 0);
+
+                assertEquals(Duration.ofHours(13 * 5 * 8), constantTime.calculateDuration(start, end, config));
+        }
+
+        @Test
+        void testHolidayIsSkipped() {
+                TeamConfig config = TeamConfig.builder()
+                                .teamName("TEST")
+                                .startTime(LocalTime.of(9, 0))
+                                .cutoffTime(LocalTime.of(17, 0))
+                                .zoneId(ZoneId.systemDefault())
+                                .holidays(Set.of(LocalDate.of(2023, 1, 3)))
+                                .build();
+                // Monday 16:00 -> Wednesday 10:00, Tuesday is a holiday
+                // Monday: 1h, Wednesday: 1h
+                LocalDateTime start = LocalDateTime.of(2023, 1, 2, 16, 0);
+                LocalDateTime end = LocalDateTime.of(2023, 1, 4, 10, 0);
+
+                assertEquals(Duration.ofHours(2), constantTime.calculateDuration(start, end, config));
+                assertEquals(LocalDateTime.of(2023, 1, 4, 9, 0),
+                                constantTime.getNextBusinessDayStart(LocalDate.of(2023, 1, 3), config));
+        }
+
+        @Test
+        void testHalfDayEndsAtItsOwnCutoff() {
+                TeamConfig config = TeamConfig.builder()
+                                .teamName("TEST")
+                                .startTime(LocalTime.of(9, 0))
+                                .cutoffTime(LocalTime.of(17, 0))
+                                .zoneId(ZoneId.systemDefault())
+                                .halfDays(Map.of(LocalDate.of(2023, 12, 22), LocalTime.of(13, 0)))
+                                .build();
+                // Friday half-day 12:00 -> Monday 10:00
+                // Friday: 1h, Monday: 1h
+                LocalDateTime start = LocalDateTime.of(2023, 12, 22, 12, 0);
+                LocalDateTime end = LocalDateTime.of(2023, 12, 25, 10, 0);
+
+                assertEquals(Duration.ofHours(2), constantTime.calculateDuration(start, end, config));
+                assertEquals(LocalTime.of(13, 0), constantTime.getCutoffTime(LocalDate.of(2023, 12, 22), config));
+        }
+
+        @Test
+        void testCalendarIsSharedBetweenTeamsWithSameHours() {
+                TeamConfig audit = config(LocalTime.of(8, 30), LocalTime.of(16, 30));
+                TeamConfig trading = config(LocalTime.of(8, 30), LocalTime.of(16, 30));
+
+                assertSame(audit.calendar(), trading.calendar());
+        }
+
+        @Test
+        void testConstantTimeMatchesDayLoop() {
+                Random random = new Random(20231002L);
+                LocalDateTime base = LocalDateTime.of(2022, 12, 26, 0, 0);
+
+                List<TeamConfig> configs = new ArrayList<>();
+                for (int i = 0; i < 12; i++) {
+                        LocalTime startTime = LocalTime.ofSecondOfDay(random.nextInt(14 * 3600));
+                        LocalTime cutoffTime = i % 6 == 0
+                                        ? startTime.minusMinutes(random.nextInt(60))
+                                        : LocalTime.ofSecondOfDay(random.nextInt(10 * 3600) + 14 * 3600);
+                        Set<LocalDate> holidays = new HashSet<>();
+                        Map<LocalDate, LocalTime> halfDays = new HashMap<>();
+                        for (int j = 0; i % 2 == 1 && j < 40; j++) {
+                                holidays.add(base.toLocalDate().plusDays(random.nextInt(400)));
+                                halfDays.put(base.toLocalDate().plusDays(random.nextInt(400)),
+                                                LocalTime.ofSecondOfDay(random.nextInt(86_400)));
+                        }
+                        configs.add(TeamConfig.builder()
+                                        .teamName("TEST")
+                                        .startTime(startTime)
+                                        .cutoffTime(cutoffTime)
+                                        .zoneId(ZoneId.systemDefault())
+                                        .holidays(holidays)
+                                        .halfDays(halfDays)
+                                        .build());
+                }
+
+                for (int i = 0; i < 20_000; i++) {
+                        TeamConfig config = configs.get(random.nextInt(configs.size()));
+
+                        LocalDateTime start = base.plusSeconds(random.nextInt(60 * 86_400))
+                                        .plusNanos(random.nextInt(1_000_000_000));
+                        LocalDateTime end = (random.nextBoolean()
+                                        ? start.plusSeconds(random.nextInt(3 * 86_400))
+                                        : start.plusSeconds(random.nextInt(400 * 86_400)).minusDays(random.nextInt(3)))
+                                        .plusNanos(random.nextInt(1_000_000_000));
+
+                        assertEquals(dayLoop.calculateDuration(start, end, config),
+                                        constantTime.calculateDuration(start, end, config),
+                                        () -> "start=" + start + " end=" + end + " config=" + config);
+                        assertEquals(dayLoop.getNextBusinessDayStart(start.toLocalDate(), config),
+                                        constantTime.getNextBusinessDayStart(start.toLocalDate(), config));
+                }
+        }
+
+        @Test
+        void testAddBusinessDuration() {
+                TeamConfig config = config(LocalTime.of(9, 0), LocalTime.of(17, 0));
+                LocalDateTime monday = LocalDateTime.of(2023, 1, 2, 16, 0);
+                LocalDateTime friday = LocalDateTime.of(2023, 1, 6, 16, 0);
+
+                assertEquals(LocalDateTime.of(2023, 1, 3, 10, 0),
+                                constantTime.addBusinessDuration(monday, Duration.ofHours(2), config));
+                // Running out exactly at a cutoff is due at the cutoff, not the next morning
+                assertEquals(LocalDateTime.of(2023, 1, 6, 17, 0),
+                                constantTime.addBusinessDuration(friday, Duration.ofHours(1), config));
+                assertEquals(LocalDateTime.of(2023, 1, 9, 9, 30),
+                                constantTime.addBusinessDuration(friday, Duration.ofMinutes(90), config));
+                // Saturday entry starts counting on Monday morning
+                assertEquals(LocalDateTime.of(2023, 1, 9, 10, 0),
+                                constantTime.addBusinessDuration(friday.plusDays(1), Duration.ofHours(1), config));
+                assertEquals(monday, constantTime.addBusinessDuration(monday, Duration.ZERO, config));
+                // Outside the precomputed horizon the calendar falls back to weekday arithmetic
+                assertEquals(LocalDateTime.of(2150, 1, 5, 9, 30), constantTime.addBusinessDuration(
+                                LocalDateTime.of(2150, 1, 2, 16, 0), Duration.ofMinutes(90), config));
+                assertEquals(LocalDateTime.of(1990, 1, 8, 9, 30), constantTime.addBusinessDuration(
+                                LocalDateTime.of(1990, 1, 5, 16, 0), Duration.ofMinutes(90), config));
+        }
+
+        @Test
+        void testAddBusinessDurationInvertsCalculateDuration() {
+                Random random = new Random(20231019L);
+                LocalDateTime base = LocalDateTime.of(2022, 12, 26, 0, 0);
+
+                List<TeamConfig> configs = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                        LocalTime startTime = LocalTime.ofSecondOfDay(random.nextInt(14 * 3600));
+                        LocalTime cutoffTime = LocalTime.ofSecondOfDay(random.nextInt(10 * 3600) + 14 * 3600);
+                        Set<LocalDate> holidays = new HashSet<>();
+                        Map<LocalDate, LocalTime> halfDays = new HashMap<>();
+                        for (int j = 0; i % 2 == 1 && j < 40; j++) {
+                                holidays.add(base.toLocalDate().plusDays(random.nextInt(400)));
+                                halfDays.put(base.toLocalDate().plusDays(random.nextInt(400)),
+                                                LocalTime.ofSecondOfDay(random.nextInt(86_400)));
+                        }
+                        configs.add(TeamConfig.builder()
+                                        .teamName("TEST")
+                                        .startTime(startTime)
+                                        .cutoffTime(cutoffTime)
+                                        .zoneId(ZoneId.systemDefault())
+                                        .holidays(holidays)
+                                        .halfDays(halfDays)
+                                        .build());
+                }
+
+                for (int i = 0; i < 5_000; i++) {
+                        TeamConfig config = configs.get(random.nextInt(configs.size()));
+                        LocalDateTime start = base.plusSeconds(random.nextInt(60 * 86_400))
+                                        .plusNanos(random.nextInt(1_000_000_000));
+                        Duration duration = Duration.ofSeconds(random.nextInt(random.nextBoolean() ? 86_400 : 30 * 86_400))
+                                        .plusNanos(random.nextInt(1_000_000_000));
+
+                        LocalDateTime deadline = constantTime.addBusinessDuration(start, duration, config);
+                        assertEquals(dayLoop.addBusinessDuration(start, duration, config), deadline,
+                                        () -> "start=" + start + " duration=" + duration + " config=" + config);
+                        assertEquals(duration, constantTime.calculateDuration(start, deadline, config));
+                        // Earliest such time: a nanosecond earlier the duration has not elapsed
+                        assertEquals(duration.minusNanos(1), constantTime.calculateDuration(start, deadline.minusNanos(1), config));
+                }
+        }
+
+        private static final List<ZoneId> ZONES = List.of(ZoneId.of("Europe/London"), ZoneId.of("America/New_York"),
+                        ZoneId.of("Asia/Singapore"), ZoneId.of("Australia/Sydney"), ZoneId.of("Asia/Kolkata"),
+                        ZoneId.of("UTC"));
+
+        private static TeamConfig config(ZoneId zoneId) {
+                return TeamConfig.builder()
+                                .teamName("TEST")
+                                .startTime(LocalTime.of(9, 0))
+                                .cutoffTime(LocalTime.of(17, 0))
+                                .zoneId(zoneId)
+                                .build();
+        }
+
+        @Test
+        void testZoneOffsetTableMatchesZoneRules() {
+                Random random = new Random(22);
+                for (ZoneId zone : ZONES) {
+                        ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+                        assertSame(table, config(zone).zoneOffsets());
+
+                        // Random instants, including some outside the table, and local times around every transition
+                        List<Long> instants = new ArrayList<>();
+                        for (int i = 0; i < 2_000; i++) {
+                                instants.add(Instant.parse("1990-01-01T00:00:00Z").toEpochMilli()
+                                                + (long) (random.nextDouble() * 130 * 365 * 86_400_000L));
+                        }
+                        for (ZoneOffsetTransition transition : zone.getRules().getTransitions()) {
+                                for (long delta = -3; delta <= 3; delta++) {
+                                        instants.add(transition.getInstant().toEpochMilli() + delta * 1_800_000L - 1);
+                                        instants.add(transition.getInstant().toEpochMilli() + delta * 1_800_000L);
+                                }
+                        }
+
+                        for (long instant : instants) {
+                                LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(instant), zone);
+                                assertEquals(local, OrderTimeline.toLocalDateTime(table.toLocalEpochMillis(instant)),
+                                                () -> zone + " " + Instant.ofEpochMilli(instant));
+                                // The local clock reading of the same millis, which may fall in a gap or overlap
+                                LocalDateTime wall = OrderTimeline.toLocalDateTime(instant);
+                                assertEquals(ZonedDateTime.ofLocal(wall, zone, null).toInstant().toEpochMilli(),
+                                                table.toEpochMillis(instant), () -> zone + " " + wall);
+                        }
+                }
+        }
+
+        @Test
+        void testInstantDurationsFollowTeamZone() {
+                TeamConfig newYork = config(ZoneId.of("America/New_York"));
+                TeamConfig london = config(ZoneId.of("Europe/London"));
+                // Friday 09:00 EST to Monday 09:00 EDT, across the spring-forward weekend
+                Instant start = Instant.parse("2023-03-10T14:00:00Z");
+                Instant end = Instant.parse("2023-03-13T13:00:00Z");
+
+                assertEquals(Duration.ofHours(8), constantTime.calculateDuration(start, end, newYork));
+                // The same instants are Friday 14:00 to Monday 13:00 in London
+                assertEquals(Duration.ofHours(7), constantTime.calculateDuration(start, end, london));
+                assertEquals(Instant.parse("2023-03-13T14:00:00Z"),
+                                constantTime.addBusinessDuration(start, Duration.ofHours(9), newYork));
+                assertEquals(Duration.ofHours(8).toMillis(), constantTime.calculateInstantBusinessMillis(
+                                start.toEpochMilli(), end.toEpochMilli(), newYork));
+        }
+
+        @Test
+        void testInstantConstantTimeMatchesDayLoop() {
+                Random random = new Random(23);
+                long base = Instant.parse("2022-12-26T00:00:00Z").toEpochMilli();
+                for (int i = 0; i < 5_000; i++) {
+                        TeamConfig config = config(ZONES.get(random.nextInt(ZONES.size())));
+                        long startMillis = base + (long) (random.nextDouble() * 400 * 86_400_000L);
+                        long endMillis = startMillis + (long) (random.nextDouble() * 20 * 86_400_000L);
+                        Instant start = Instant.ofEpochMilli(startMillis);
+                        Instant end = Instant.ofEpochMilli(endMillis);
+                        long durationMillis = (long) (random.nextDouble() * 5 * 86_400_000L);
+
+                        assertEquals(dayLoop.calculateDuration(start, end, config),
+                                        constantTime.calculateDuration(start, end, config));
+                        assertEquals(dayLoop.calculateInstantBusinessMillis(startMillis, endMillis, config),
+                                        constantTime.calculateInstantBusinessMillis(startMillis, endMillis, config));
+                        assertEquals(dayLoop.addBusinessDuration(start, Duration.ofMillis(durationMillis), config),
+                                        constantTime.addBusinessDuration(start, Duration.ofMillis(durationMillis), config));
+                        assertEquals(dayLoop.addInstantBusinessMillis(startMillis, durationMillis, config),
+                                        constantTime.addInstantBusinessMillis(startMillis, durationMillis, config));
+                }
+        }
+
+        private static final long BATCH_BASE = OrderTimeline.toEpochMillis(LocalDateTime.of(2022, 12, 26, 0, 0));
+
+        // A random calendar with a holiday and a half-day
+        private static TeamConfig randomBatchConfig(Random random) {
+                return TeamConfig.builder()
+                                .teamName("TEST")
+                                .startTime(LocalTime.ofNanoOfDay(random.nextLong(12 * 3_600_000_000_000L)))
+                                .cutoffTime(LocalTime.ofNanoOfDay(random.nextLong(86_400_000_000_000L)))
+                                .holidays(Set.of(LocalDate.of(2023, 1, 6), LocalDate.of(2023, 4, 7)))
+                                .halfDays(Map.of(LocalDate.of(2023, 1, 4), LocalTime.of(13, 0)))
+                                .build();
+        }
+
+        // Pairs mostly inside the horizon, some before 1970 or after 2100, some reversed
+        private static long[][] randomBatch(Random random) {
+                int size = 1 + random.nextInt(500);
+                long[] starts = new long[size];
+                long[] ends = new long[size];
+                for (int i = 0; i < size; i++) {
+                        long origin = switch (random.nextInt(10)) {
+                                case 0 -> OrderTimeline.toEpochMillis(LocalDateTime.of(1969, 12, 1, 0, 0));
+                                case 1 -> OrderTimeline.toEpochMillis(LocalDateTime.of(2099, 12, 1, 0, 0));
+                                default -> BATCH_BASE;
+                        };
+                        starts[i] = origin + (long) (random.nextDouble() * 120 * 86_400_000L);
+                        ends[i] = starts[i] + (long) ((random.nextDouble() - 0.1) * 60 * 86_400_000L);
+                }
+                return new long[][] {starts, ends};
+        }
+
+        @Test
+        void testBatchBusinessSecondsMatchesPerPair() {
+                Random random = new Random(24);
+                for (int round = 0; round < 20; round++) {
+                        TeamConfig config = randomBatchConfig(random);
+                        long[][] batch = randomBatch(random);
+                        long[] starts = batch[0];
+                        long[] ends = batch[1];
+
+                        long[] scalar = new long[starts.length];
+                        long[] computed = new long[starts.length];
+                        BusinessSecondsKernel.scalar(config.calendar(), starts, ends, scalar);
+                        constantTime.calculateBusinessSeconds(starts, ends, computed, config);
+                        assertArrayEquals(scalar, computed);
+                        for (int i = 0; i < starts.length; i++) {
+                                LocalDateTime start = OrderTimeline.toLocalDateTime(starts[i]);
+                                LocalDateTime end = OrderTimeline.toLocalDateTime(ends[i]);
+                                assertEquals(constantTime.calculateDuration(start, end, config).getSeconds(), scalar[i]);
+                        }
+                }
+
+                TeamConfig config = config(LocalTime.of(9, 0), LocalTime.of(17, 0));
+                long[] starts = {BATCH_BASE, BATCH_BASE + 86_400_000L};
+                long[] ends = {BATCH_BASE + 3 * 86_400_000L, BATCH_BASE};
+                long[] seconds = new long[2];
+                dayLoop.calculateBusinessSeconds(starts, ends, seconds, config);
+                // Monday 00:00 to Thursday 00:00 is three full windows; a reversed pair is zero
+                assertArrayEquals(new long[] {3 * 8 * 3600, 0}, seconds);
+                assertThrows(IllegalArgumentException.class,
+                                () -> constantTime.calculateBusinessSeconds(starts, new long[1], seconds, config));
+        }
+
+        // Runs in the surefire execution that adds the incubator module, see the pom
+        @Test
+        void testVectorKernelMatchesScalar() {
+                assumeTrue(BusinessSecondsKernel.vectorAvailable(), "needs --add-modules jdk.incubator.vector");
+                Random random = new Random(25);
+                for (int round = 0; round < 20; round++) {
+                        TeamConfig config = randomBatchConfig(random);
+                        long[][] batch = randomBatch(random);
+                        long[] scalar = new long[batch[0].length];
+                        long[] vector = new long[batch[0].length];
+                        BusinessSecondsKernel.scalar(config.calendar(), batch[0], batch[1], scalar);
+                        BusinessSecondsKernel.vector(config.calendar(), batch[0], batch[1], vector);
+                        assertArrayEquals(scalar, vector);
+                }
+        }
+}
@@ -0,0 +1,88 @@
+package com.trading.service;
+
+import com.trading.model.BusinessCalendar;
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.StatusTransition;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParkedTimeIndexTest {
+
+        private final BusinessCalendar calendar = BusinessCalendar.shared(LocalTime.of(9, 0), LocalTime.of(17, 0),
+                        Set.of(LocalDate.of(2023, 1, 4)), Map.of(LocalDate.of(2023, 1, 5), LocalTime.of(13, 0)));
+
+        // Parked millis in [start, end] by intersecting every parked interval, the way TatCalculator used to
+        private static long[] scanParked(OrderTimeline timeline, BusinessCalendar calendar, long start, long end) {
+                long wall = 0;
+                long businessNanos = 0;
+                for (int i = 0; i + 1 < timeline.size(); i++) {
+                        if (OrderStatus.isParked(timeline.ordinalAt(i))) {
+                                long from = Math.max(timeline.timeAt(i), start);
+                                long to = Math.min(timeline.timeAt(i + 1), end);
+                                if (from < to) {
+                                        wall += to - from;
+                                        businessNanos += calendar.businessNanosAtEpochMillis(to)
+                                                        - calendar.businessNanosAtEpochMillis(from);
+                                }
+                        }
+                }
+                return new long[] {wall, businessNanos / 1_000_000};
+        }
+
+        @Test
+        void testMatchesLinearScan() {
+                Random random = new Random(17);
+                for (int i = 0; i < 2_000; i++) {
+                        List<StatusTransition> transitions = TestFixtures.randomTransitions(random, random.nextInt(60), false);
+                        // Park/unpark cycles on top of the random walk
+                        List<StatusTransition> cycled = new ArrayList<>();
+                        for (StatusTransition transition : transitions) {
+                                cycled.add(transition);
+                                if (random.nextInt(3) == 0) {
+                                        cycled.add(new StatusTransition(OrderStatus.TRADING_PARKED, transition.getChangeTime()));
+                                }
+                        }
+                        OrderTimeline timeline = OrderTimeline.of(Order.builder().orderId("O").statusTransitions(cycled).build());
+                        ParkedTimeIndex index = ParkedTimeIndex.of(timeline, calendar);
+                        if (timeline.isEmpty()) {
+                                assertEquals(0, index.parkedMillis(0, Long.MAX_VALUE));
+                                continue;
+                        }
+
+                        for (int q = 0; q < 20; q++) {
+                                long first = timeline.timeAt(0) - 3_600_000;
+                                long span = timeline.timeAt(timeline.size() - 1) - first + 7_200_000;
+                                long a = first + (long) (random.nextDouble() * span);
+                                long b = first + (long) (random.nextDouble() * span);
+                                // Windows that start or end exactly on a transition as well as in between
+                                if (random.nextBoolean()) {
+                                        a = timeline.timeAt(random.nextInt(timeline.size()));
+                                }
+                                long start = Math.min(a, b);
+                                long end = Math.max(a, b);
+
+                                long[] expected = scanParked(timeline, calendar, start, end);
+                                assertEquals(expected[0], index.parkedMillis(start, end));
+                                assertEquals(expected[1], index.parkedBusinessMillis(start, end));
+                        }
+                }
+        }
+
+        @Test
+        void testBusinessQueryNeedsCalendar() {
+                ParkedTimeIndex index = ParkedTimeIndex.of(OrderTimeline.of(Order.builder().orderId("O").build()));
+                assertThrows(IllegalStateException.class, () -> index.parkedBusinessMillis(0, 1));
+        }
+}
@@ -0,0 +1,196 @@
+package com.trading.service;
+
+import com.trading.model.ActivityBlock;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.SlaBreach;
+import com.trading.model.StatusTransition;
+import com.trading.model.TeamConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlaBreachDetectorTest {
+
+        private final BusinessDurationCalculator durationCalculator = new BusinessDurationCalculator();
+        private final TatCalculator tatCalculator = new TatCalculator(durationCalculator, slaConfigs(TestFixtures.teamConfigs()));
+
+        private record Event(String orderId, StatusTransition transition) {
+        }
+
+        // The given fixtures with an SLA on the trading block and on the first audit block
+        private static Map<String, TeamConfig> slaConfigs(Map<String, TeamConfig> fixtures) {
+                Map<String, TeamConfig> configs = new HashMap<>();
+                fixtures.forEach((name, config) -> {
+                        List<ActivityBlock> blocks = new ArrayList<>();
+                        for (int i = 0; i < config.activityBlocks().size(); i++) {
+                                ActivityBlock block = config.activityBlocks().get(i);
+                                Duration sla = name.equals("TRADING") ? Duration.ofHours(2)
+                                                : i == 0 ? Duration.ofHours(6) : null;
+                                blocks.add(new ActivityBlock(block.statuses(), block.entryStatus(),
+                                                block.firstInProgressStatus(), sla));
+                        }
+                        configs.put(name, TeamConfig.builder()
+                                        .teamName(config.teamName())
+                                        .activityBlocks(blocks)
+                                        .startTime(config.startTime())
+                                        .cutoffTime(config.cutoffTime())
+                                        .zoneId(config.zoneId())
+                                        .build());
+                });
+                return configs;
+        }
+
+        @Test
+        void testDeadlineSkipsNonBusinessHours() {
+                List<SlaBreach> breaches = new ArrayList<>();
+                SlaBreachDetector detector = new SlaBreachDetector(tatCalculator, breaches::add);
+                LocalDateTime monday = LocalDateTime.of(2023, 1, 2, 16, 0);
+
+                detector.onEvent("A", OrderStatus.TRADING_OPEN, monday);
+                assertEquals(1, detector.scheduledTimerCount());
+
+                // Two business hours from Monday 16:00 run out on Tuesday at 10:00
+                detector.advanceTo(OrderTimeline.toEpochMillis(LocalDateTime.of(2023, 1, 3, 9, 59)));
+                assertTrue(breaches.isEmpty());
+                detector.advanceTo(OrderTimeline.toEpochMillis(LocalDateTime.of(2023, 1, 3, 10, 0)));
+
+                assertEquals(1, breaches.size());
+                assertEquals("A", breaches.get(0).orderId());
+                assertEquals("TRADING", breaches.get(0).teamName());
+                assertEquals(LocalDateTime.of(2023, 1, 3, 10, 0), breaches.get(0).deadline());
+                assertEquals(0, detector.scheduledTimerCount());
+
+                // Breaches are reported once, and completing the order drops it
+                detector.onEvent("A", OrderStatus.COMPLETED, LocalDateTime.of(2023, 1, 4, 9, 0));
+                assertEquals(1, detector.breachCount());
+                assertEquals(0, detector.openOrderCount());
+        }
+
+        @Test
+        void testInstantDeadlineFollowsTeamZone() {
+                TatCalculator zoned = new TatCalculator(durationCalculator, slaConfigs(
+                                TestFixtures.teamConfigs(ZoneId.of("America/New_York"), ZoneId.of("Europe/London"))));
+                List<SlaBreach> breaches = new ArrayList<>();
+                SlaBreachDetector detector = SlaBreachDetector.builder()
+                                .calculator(zoned)
+                                .sink(breaches::add)
+                                .instantTimes(true)
+                                .build();
+
+                // 20:30Z is 16:30 EDT: half an hour left that day, the rest from 09:00 EDT, so 10:30 EDT (14:30Z)
+                detector.onEvent("A", OrderStatus.TRADING_OPEN,
+                                OrderTimeline.toEpochMillis(LocalDateTime.of(2023, 3, 13, 20, 30)));
+                detector.advanceTo(OrderTimeline.toEpochMillis(LocalDateTime.of(2023, 3, 14, 14, 29)));
+                assertTrue(breaches.isEmpty());
+                detector.advanceTo(OrderTimeline.toEpochMillis(LocalDateTime.of(2023, 3, 14, 14, 30)));
+
+                assertEquals(1, breaches.size());
+                assertEquals(LocalDateTime.of(2023, 3, 14, 14, 30), breaches.get(0).deadline());
+        }
+
+        @Test
+        void testParkingPushesDeadlineBack() {
+                List<SlaBreach> breaches = new ArrayList<>();
+                SlaBreachDetector detector = new SlaBreachDetector(tatCalculator, breaches::add);
+                LocalDateTime t0 = LocalDateTime.of(2023, 1, 2, 9, 0);
+
+                // Deadline 11:00, parked 10:00 -> 12:00 moves it to 13:00
+                detector.onEvent("A", OrderStatus.TRADING_OPEN, t0);
+                detector.onEvent("A", OrderStatus.TRADING_PARKED, t0.plusHours(1));
+                assertEquals(0, detector.scheduledTimerCount());
+                detector.onEvent("A", OrderStatus.TRADING_IN_PROGRESS, t0.plusHours(3));
+                detector.onEvent("A", OrderStatus.COMPLETED, t0.plusHours(3).plusMinutes(30));
+                assertTrue(breaches.isEmpty());
+
+                detector.onEvent("B", OrderStatus.TRADING_OPEN, t0);
+                detector.onEvent("B", OrderStatus.TRADING_PARKED, t0.plusHours(1));
+                detector.onEvent("B", OrderStatus.TRADING_IN_PROGRESS, t0.plusHours(3));
+                detector.advanceTo(OrderTimeline.toEpochMillis(t0.plusHours(4)));
+                assertEquals(1, breaches.size());
+                assertEquals(LocalDateTime.of(2023, 1, 2, 13, 0), breaches.get(0).deadline());
+        }
+
+        // Business time spent unparked in the block from entry to the first status outside it, or forever if the
+        // order is still there; a breach is expected when that reaches the SLA
+        private void expectBreaches(String orderId, List<StatusTransition> transitions, Set<String> expected) {
+                for (String teamName : tatCalculator.teamNames()) {
+                        TeamConfig config = slaConfigs(TestFixtures.teamConfigs()).get(teamName);
+                        for (int b = 0; b < config.activityBlocks().size(); b++) {
+                                ActivityBlock block = config.activityBlocks().get(b);
+                                if (block.sla() == null) {
+                                        continue;
+                                }
+                                int entry = 0;
+                                while (entry < transitions.size() && transitions.get(entry).getStatus() != block.entryStatus()) {
+                                        entry++;
+                                }
+                                long used = 0;
+                                for (int i = entry; i < transitions.size(); i++) {
+                                        if (!block.statuses().contains(transitions.get(i).getStatus())) {
+                                                break;
+                                        }
+                                        if (transitions.get(i).getStatus().isParked()) {
+                                                continue;
+                                        }
+                                        if (i + 1 == transitions.size()) {
+                                                used = Long.MAX_VALUE;
+                                                break;
+                                        }
+                                        used += durationCalculator.calculateBusinessMillis(
+                                                        OrderTimeline.toEpochMillis(transitions.get(i).getChangeTime()),
+                                                        OrderTimeline.toEpochMillis(transitions.get(i + 1).getChangeTime()), config);
+                                }
+                                if (entry < transitions.size() && used >= block.sla().toMillis()) {
+                                        expected.add(orderId + "/" + teamName + "/" + b);
+                                }
+                        }
+                }
+        }
+
+        @Test
+        void testInterleavedEventsMatchReference() {
+                Random random = new Random(19);
+                Set<String> expected = new HashSet<>();
+                List<Event> events = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                        String orderId = "ORDER-" + i;
+                        List<StatusTransition> transitions = TestFixtures.randomTransitions(random, random.nextInt(30),
+                                        random.nextInt(4) != 0);
+                        expectBreaches(orderId, transitions, expected);
+                        transitions.forEach(t -> events.add(new Event(orderId, t)));
+                }
+                events.sort(Comparator.comparing(e -> e.transition().getChangeTime()));
+
+                // A small wheel so that deadlines regularly lie more than one lap ahead
+                Set<String> actual = new HashSet<>();
+                SlaBreachDetector detector = SlaBreachDetector.builder()
+                                .calculator(tatCalculator)
+                                .sink(breach -> assertTrue(actual.add(
+                                                breach.orderId() + "/" + breach.teamName() + "/" + breach.block())))
+                                .tickMillis(Duration.ofMinutes(5).toMillis())
+                                .wheelSize(64)
+                                .build();
+                for (Event event : events) {
+                        detector.onEvent(event.orderId(), event.transition().getStatus(), event.transition().getChangeTime());
+                }
+                detector.advanceTo(OrderTimeline.toEpochMillis(LocalDateTime.of(2024, 1, 1, 0, 0)));
+
+                assertTrue(expected.size() > 50);
+                assertEquals(expected, actual);
+                assertEquals(expected.size(), detector.breachCount());
+        }
+}
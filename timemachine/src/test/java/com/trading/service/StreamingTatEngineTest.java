@@ -0,0 +1,482 @@
+package com.trading.service;
+
+import com.trading.model.ActivityBlock;
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.StatusTransition;
+import com.trading.model.TatReport;
+import com.trading.model.TeamConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingTatEngineTest {
+
+        private final TatCalculator tatCalculator = TestFixtures.tatCalculator();
+
+        private record Event(String orderId, StatusTransition transition) {
+        }
+
+        @Test
+        void testReportEmittedOnCompleted() {
+                List<TatReport> reports = new ArrayList<>();
+                StreamingTatEngine engine = new StreamingTatEngine(tatCalculator, reports::add);
+                LocalDateTime t0 = LocalDateTime.of(2023, 1, 2, 9, 0);
+
+                engine.onEvent("A", OrderStatus.DRAFT, t0);
+                engine.onEvent("A", OrderStatus.TRADING_OPEN, t0.plusMinutes(10));
+                engine.onEvent("A", OrderStatus.TRADING_PARKED, t0.plusMinutes(20));
+                engine.onEvent("A", OrderStatus.TRADING_IN_PROGRESS, t0.plusMinutes(50));
+
+                assertEquals(0, reports.size());
+                assertEquals(1, engine.openOrderCount());
+
+                engine.onEvent("A", OrderStatus.COMPLETED, t0.plusMinutes(70));
+
+                // Trading: 09:10 -> 10:10 = 60m, parked 09:20 -> 09:50 = 30m
+                assertEquals(1, reports.size());
+                assertEquals(Duration.ofMinutes(30), reports.get(0).tradingTeamTat());
+                assertEquals(Duration.ofMinutes(70), reports.get(0).overallTat());
+                assertEquals(0, engine.openOrderCount());
+                assertNull(engine.currentReport("A"));
+        }
+
+        @Test
+        void testInterleavedEventsMatchBatchReports() {
+                Random random = new Random(7);
+                Map<String, String> expected = new HashMap<>();
+                List<Event> events = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                        String orderId = "ORDER-" + i;
+                        List<StatusTransition> transitions = TestFixtures.randomTransitions(random, random.nextInt(40), true);
+                        Order order = Order.builder().orderId(orderId).statusTransitions(transitions).build();
+                        expected.put(orderId, tatCalculator.calculateReport(order).toString());
+                        transitions.forEach(t -> events.add(new Event(orderId, t)));
+                }
+                // Stable sort keeps each order's own transitions in sequence
+                events.sort(Comparator.comparing(e -> e.transition().getChangeTime()));
+
+                Map<String, String> actual = new HashMap<>();
+                StreamingTatEngine engine = new StreamingTatEngine(tatCalculator,
+                                report -> actual.put(report.orderId(), report.toString()));
+                for (Event event : events) {
+                        engine.onEvent(event.orderId(), event.transition().getStatus(), event.transition().getChangeTime());
+                }
+
+                assertEquals(expected, actual);
+                assertEquals(0, engine.openOrderCount());
+        }
+
+        @Test
+        void testInstantTimesMatchInstantReports(@TempDir Path directory) throws IOException {
+                TatCalculator zoned = new TatCalculator(new BusinessDurationCalculator(),
+                                TestFixtures.teamConfigs(ZoneId.of("America/New_York"), ZoneId.of("Europe/London")));
+                Random random = new Random(25);
+                Map<String, String> expected = new HashMap<>();
+                List<Event> events = new ArrayList<>();
+                for (int i = 0; i < 300; i++) {
+                        String orderId = "ORDER-" + i;
+                        List<StatusTransition> transitions = TestFixtures.randomTransitions(random, random.nextInt(30), true);
+                        Order order = Order.builder().orderId(orderId).statusTransitions(transitions).build();
+                        // The transition times stand for UTC instants
+                        expected.put(orderId, zoned.calculateInstantReport(OrderTimeline.of(order)).toString());
+                        transitions.forEach(t -> events.add(new Event(orderId, t)));
+                }
+                events.sort(Comparator.comparing(e -> e.transition().getChangeTime()));
+
+                Map<String, String> actual = new HashMap<>();
+                StreamingTatEngine engine = StreamingTatEngine.builder()
+                                .calculator(zoned)
+                                .sink(report -> actual.put(report.orderId(), report.toString()))
+                                .instantTimes(true)
+                                .build();
+                Path checkpoint = directory.resolve("engine.ckpt");
+                for (int i = 0; i < events.size(); i++) {
+                        if (i == events.size() / 2) {
+                                // The restored engine keeps reading times as instants
+                                engine.checkpoint(checkpoint);
+                                engine = StreamingTatEngine.restore(checkpoint, zoned,
+                                                report -> actual.put(report.orderId(), report.toString()));
+                        }
+                        Event event = events.get(i);
+                        engine.onEvent(event.orderId(), event.transition().getStatus(),
+                                        OrderTimeline.toEpochMillis(event.transition().getChangeTime()));
+                }
+
+                assertEquals(expected, actual);
+        }
+
+        @Test
+        void testReopenedOrdersMatchBatchReports() {
+                Random random = new Random(19);
+                Map<String, String> expected = new HashMap<>();
+                List<Event> events = new ArrayList<>();
+                for (int i = 0; i < 300; i++) {
+                        String orderId = "ORDER-" + i;
+                        List<StatusTransition> transitions = TestFixtures.randomTransitions(random, random.nextInt(20), true);
+                        if (i % 2 == 0) {
+                                // Reopened some time after COMPLETED and completed again
+                                List<StatusTransition> reopened = TestFixtures.randomTransitions(random, 1 + random.nextInt(20), true);
+                                Duration shift = Duration.between(reopened.get(0).getChangeTime(),
+                                                transitions.get(transitions.size() - 1).getChangeTime()).plusHours(1 + random.nextInt(48));
+                                reopened.forEach(t -> t.setChangeTime(t.getChangeTime().plus(shift)));
+                                transitions.addAll(reopened);
+                        }
+                        Order order = Order.builder().orderId(orderId).statusTransitions(transitions).build();
+                        expected.put(orderId, tatCalculator.calculateReport(order).toString());
+                        transitions.forEach(t -> events.add(new Event(orderId, t)));
+                }
+                events.sort(Comparator.comparing(e -> e.transition().getChangeTime()));
+
+                Map<String, String> actual = new HashMap<>();
+                StreamingTatEngine engine = StreamingTatEngine.builder()
+                                .calculator(tatCalculator)
+                                .sink(report -> actual.put(report.orderId(), report.toString()))
+                                .completedRetentionMillis(Duration.ofDays(60).toMillis())
+                                .build();
+                for (Event event : events) {
+                        engine.onEvent(event.orderId(), event.transition().getStatus(), event.transition().getChangeTime());
+                }
+
+                assertEquals(expected, actual);
+                assertEquals(0, engine.openOrderCount());
+                assertEquals(300, engine.completedOrderCount());
+        }
+
+        @Test
+        void testCompletedStateReleasedAfterRetention() {
+                StreamingTatEngine engine = StreamingTatEngine.builder()
+                                .calculator(tatCalculator)
+                                .sink(report -> {
+                                })
+                                .completedRetentionMillis(Duration.ofHours(1).toMillis())
+                                .build();
+                LocalDateTime t0 = LocalDateTime.of(2023, 1, 2, 9, 0);
+
+                engine.onEvent("A", OrderStatus.TRADING_OPEN, t0);
+                engine.onEvent("A", OrderStatus.COMPLETED, t0.plusMinutes(10));
+                engine.onEvent("B", OrderStatus.TRADING_OPEN, t0.plusMinutes(70));
+                assertEquals(1, engine.completedOrderCount());
+
+                engine.onEvent("B", OrderStatus.TRADING_IN_PROGRESS, t0.plusMinutes(71));
+                assertEquals(0, engine.completedOrderCount());
+                assertEquals(1, engine.openOrderCount());
+        }
+
+        // Orders with strictly increasing transition times, so re-ordering never hits a tie, plus the
+        // time each event is delivered: event time plus a random delay. With completedLast, COMPLETED is
+        // never delivered before the rest of its order.
+        private List<Event> delayedEvents(Random random, long maxDelayMinutes, boolean completedLast,
+                        Map<String, String> expected) {
+                List<Event> events = new ArrayList<>();
+                Map<Event, LocalDateTime> delivery = new HashMap<>();
+                for (int i = 0; i < 300; i++) {
+                        String orderId = "ORDER-" + i;
+                        List<StatusTransition> transitions = TestFixtures.randomTransitions(random, random.nextInt(40), true);
+                        for (int j = 0; j < transitions.size(); j++) {
+                                StatusTransition t = transitions.get(j);
+                                t.setChangeTime(t.getChangeTime().plusSeconds(j));
+                        }
+                        Order order = Order.builder().orderId(orderId).statusTransitions(transitions).build();
+                        expected.put(orderId, tatCalculator.calculateReport(order).toString());
+
+                        LocalDateTime lastDelivery = LocalDateTime.MIN;
+                        for (StatusTransition t : transitions) {
+                                Event event = new Event(orderId, t);
+                                LocalDateTime delivered = t.getChangeTime()
+                                                .plusMinutes((long) (random.nextDouble() * maxDelayMinutes));
+                                if (completedLast && t.getStatus() == OrderStatus.COMPLETED && !delivered.isAfter(lastDelivery)) {
+                                        delivered = lastDelivery.plusSeconds(1);
+                                }
+                                lastDelivery = delivered.isAfter(lastDelivery) ? delivered : lastDelivery;
+                                delivery.put(event, delivered);
+                                events.add(event);
+                        }
+                }
+                events.sort(Comparator.comparing(delivery::get));
+                return events;
+        }
+
+        @Test
+        void testReorderBufferAppliesEventsInOrder() {
+                Map<String, String> expected = new HashMap<>();
+                List<Event> events = delayedEvents(new Random(11), 120, true, expected);
+
+                Map<String, String> actual = new HashMap<>();
+                StreamingTatEngine engine = StreamingTatEngine.builder()
+                                .calculator(tatCalculator)
+                                .sink(report -> actual.put(report.orderId(), report.toString()))
+                                .allowedLatenessMillis(Duration.ofHours(3).toMillis())
+                                .reorderBufferCapacity(100_000)
+                                .build();
+                for (Event event : events) {
+                        engine.onEvent(event.orderId(), event.transition().getStatus(), event.transition().getChangeTime());
+                }
+                engine.flush();
+
+                assertEquals(expected, actual);
+                assertEquals(0, engine.lateEventCount());
+                assertEquals(0, engine.bufferedEventCount());
+        }
+
+        @Test
+        void testLateEventsTriggerRecomputation() {
+                Map<String, String> expected = new HashMap<>();
+                // COMPLETED may overtake the rest of its order; kept long enough for every delay
+                List<Event> events = delayedEvents(new Random(13), 24 * 60, false, expected);
+
+                Map<String, String> actual = new HashMap<>();
+                StreamingTatEngine engine = StreamingTatEngine.builder()
+                                .calculator(tatCalculator)
+                                .sink(report -> actual.put(report.orderId(), report.toString()))
+                                .allowedLatenessMillis(Duration.ofMinutes(30).toMillis())
+                                .reorderBufferCapacity(64)
+                                .recomputeLateEvents(true)
+                                .completedRetentionMillis(Duration.ofDays(1).toMillis())
+                                .build();
+                for (Event event : events) {
+                        engine.onEvent(event.orderId(), event.transition().getStatus(), event.transition().getChangeTime());
+                }
+                engine.flush();
+
+                assertEquals(expected, actual);
+                assertTrue(engine.lateEventCount() > 0);
+                assertEquals(engine.lateEventCount(), engine.recomputationCount());
+                assertEquals(0, engine.droppedEventCount());
+                assertEquals(0, engine.openOrderCount());
+        }
+
+        @Test
+        void testLateEventAfterCompletedIsRecomputedOrDropped() {
+                List<TatReport> reports = new ArrayList<>();
+                StreamingTatEngine engine = StreamingTatEngine.builder()
+                                .calculator(tatCalculator)
+                                .sink(reports::add)
+                                .recomputeLateEvents(true)
+                                .completedRetentionMillis(Duration.ofHours(1).toMillis())
+                                .build();
+                LocalDateTime t0 = LocalDateTime.of(2023, 1, 2, 9, 0);
+
+                engine.onEvent("A", OrderStatus.TRADING_OPEN, t0);
+                engine.onEvent("A", OrderStatus.TRADING_IN_PROGRESS, t0.plusMinutes(30));
+                engine.onEvent("A", OrderStatus.COMPLETED, t0.plusMinutes(60));
+                assertEquals(Duration.ofMinutes(60), reports.get(0).tradingTeamTat());
+
+                // Parked 09:10 -> 09:30 arrives after COMPLETED: the report is corrected
+                engine.onEvent("A", OrderStatus.TRADING_PARKED, t0.plusMinutes(10));
+                assertEquals(2, reports.size());
+                assertEquals(Duration.ofMinutes(40), reports.get(1).tradingTeamTat());
+                assertEquals(1, engine.recomputationCount());
+
+                // Once the watermark is past the retention the order is only a tombstone
+                engine.onEvent("B", OrderStatus.TRADING_OPEN, t0.plusMinutes(121));
+                engine.onEvent("A", OrderStatus.TRADING_IN_PROGRESS, t0.plusMinutes(20));
+                engine.onEvent("A", OrderStatus.TRADING_OPEN, t0.plusMinutes(130));
+
+                assertEquals(2, reports.size());
+                assertEquals(2, engine.lateEventCount());
+                assertEquals(2, engine.droppedEventCount());
+                assertEquals(0, engine.completedOrderCount());
+                assertEquals(1, engine.tombstoneCount());
+                assertEquals(1, engine.openOrderCount());
+                assertNull(engine.currentReport("A"));
+        }
+
+        @Test
+        void testLateEventsDroppedWithoutRecomputation() {
+                List<TatReport> reports = new ArrayList<>();
+                StreamingTatEngine engine = new StreamingTatEngine(tatCalculator, reports::add);
+                LocalDateTime t0 = LocalDateTime.of(2023, 1, 2, 9, 0);
+
+                engine.onEvent("A", OrderStatus.TRADING_OPEN, t0);
+                engine.onEvent("A", OrderStatus.TRADING_IN_PROGRESS, t0.plusMinutes(30));
+                engine.onEvent("A", OrderStatus.TRADING_PARKED, t0.plusMinutes(10));
+                engine.onEvent("A", OrderStatus.COMPLETED, t0.plusMinutes(60));
+
+                assertEquals(1, engine.lateEventCount());
+                assertEquals(1, engine.droppedEventCount());
+                assertEquals(Duration.ofMinutes(60), reports.get(0).tradingTeamTat());
+        }
+
+        private void assertRestoreMatchesUninterrupted(Path directory, boolean recomputeLateEvents) throws Exception {
+                List<Event> events = delayedEvents(new Random(17), 24 * 60, false, new HashMap<>());
+                Path checkpoint = directory.resolve("engine-" + recomputeLateEvents + ".ckpt");
+
+                Map<String, String> uninterrupted = new HashMap<>();
+                List<String> beforeCheckpoint = new ArrayList<>();
+                boolean[] checkpointed = {false};
+                StreamingTatEngine engine = StreamingTatEngine.builder()
+                                .calculator(tatCalculator)
+                                .sink(report -> {
+                                        if (checkpointed[0]) {
+                                                uninterrupted.put(report.orderId(), report.toString());
+                                        } else {
+                                                beforeCheckpoint.add(report.orderId());
+                                        }
+                                })
+                                .allowedLatenessMillis(Duration.ofMinutes(30).toMillis())
+                                .reorderBufferCapacity(64)
+                                .recomputeLateEvents(recomputeLateEvents)
+                                .completedRetentionMillis(Duration.ofHours(6).toMillis())
+                                .build();
+
+                ExecutorService executor = Executors.newSingleThreadExecutor();
+                try {
+                        for (int i = 0; i < events.size(); i++) {
+                                if (i == events.size() / 2) {
+                                        engine.checkpoint(checkpoint, executor).get();
+                                        checkpointed[0] = true;
+                                }
+                                Event event = events.get(i);
+                                engine.onEvent(event.orderId(), event.transition().getStatus(), event.transition().getChangeTime());
+                        }
+                } finally {
+                        executor.shutdown();
+                }
+                engine.flush();
+
+                Map<String, String> restored = new HashMap<>();
+                StreamingTatEngine restoredEngine = StreamingTatEngine.restore(checkpoint, tatCalculator,
+                                report -> restored.put(report.orderId(), report.toString()));
+                assertEquals(events.size() / 2, restoredEngine.eventOffset());
+                assertTrue(restoredEngine.openOrderCount() > 0);
+                for (int i = (int) restoredEngine.eventOffset(); i < events.size(); i++) {
+                        Event event = events.get(i);
+                        restoredEngine.onEvent(event.orderId(), event.transition().getStatus(), event.transition().getChangeTime());
+                }
+                restoredEngine.flush();
+
+                assertTrue(beforeCheckpoint.size() > 0);
+                assertEquals(uninterrupted, restored);
+                assertEquals(engine.lateEventCount(), restoredEngine.lateEventCount());
+                assertEquals(engine.droppedEventCount(), restoredEngine.droppedEventCount());
+                assertEquals(engine.watermark(), restoredEngine.watermark());
+                assertEquals(0, restoredEngine.openOrderCount());
+        }
+
+        @Test
+        void testCheckpointRestoreMatchesUninterrupted(@TempDir Path directory) throws Exception {
+                assertRestoreMatchesUninterrupted(directory, true);
+                assertRestoreMatchesUninterrupted(directory, false);
+        }
+
+        @Test
+        void testRestoreRejectsOtherTeamsAndCorruptFiles(@TempDir Path directory) throws Exception {
+                StreamingTatEngine engine = new StreamingTatEngine(tatCalculator, report -> {
+                });
+                engine.onEvent("A", OrderStatus.TRADING_OPEN, LocalDateTime.of(2023, 1, 2, 9, 0));
+                Path checkpoint = directory.resolve("engine.ckpt");
+                engine.checkpoint(checkpoint);
+
+                TatCalculator tradingOnly = new TatCalculator(new BusinessDurationCalculator(),
+                                Map.of("TRADING", TestFixtures.teamConfigs().get("TRADING")));
+                assertThrows(IOException.class, () -> StreamingTatEngine.restore(checkpoint, tradingOnly, report -> {
+                }));
+
+                byte[] bytes = Files.readAllBytes(checkpoint);
+                Files.write(checkpoint, Arrays.copyOf(bytes, bytes.length - 5));
+                assertThrows(IOException.class, () -> StreamingTatEngine.restore(checkpoint, tatCalculator, report -> {
+                }));
+        }
+
+        private static TeamConfig.TeamConfigBuilder tradingConfig() {
+                TeamConfig trading = TestFixtures.teamConfigs().get("TRADING");
+                return TeamConfig.builder()
+                                .teamName(trading.teamName())
+                                .activityBlocks(trading.activityBlocks())
+                                .startTime(trading.startTime())
+                                .cutoffTime(trading.cutoffTime())
+                                .zoneId(trading.zoneId());
+        }
+
+        private static TatCalculator calculatorWith(TeamConfig trading) {
+                Map<String, TeamConfig> configs = new HashMap<>(TestFixtures.teamConfigs());
+                configs.put("TRADING", trading);
+                return new TatCalculator(new BusinessDurationCalculator(), configs);
+        }
+
+        @Test
+        void testRestoreRejectsChangedBlocksHoursAndZones(@TempDir Path directory) throws Exception {
+                StreamingTatEngine engine = new StreamingTatEngine(calculatorWith(tradingConfig().build()), report -> {
+                });
+                engine.onEvent("A", OrderStatus.TRADING_OPEN, LocalDateTime.of(2023, 1, 2, 9, 0));
+                Path checkpoint = directory.resolve("engine.ckpt");
+                engine.checkpoint(checkpoint);
+
+                ActivityBlock block = TestFixtures.teamConfigs().get("TRADING").activityBlocks().get(0);
+                // Same team names and block counts throughout, so only the compared settings differ
+                List<TeamConfig> changed = List.of(
+                                tradingConfig().activityBlocks(List.of(ActivityBlock.builder()
+                                                .statuses(block.statuses())
+                                                .entryStatus(OrderStatus.TRADING_IN_PROGRESS)
+                                                .firstInProgressStatus(block.firstInProgressStatus())
+                                                .build())).build(),
+                                tradingConfig().activityBlocks(List.of(ActivityBlock.builder()
+                                                .statuses(Set.of(OrderStatus.TRADING_OPEN, OrderStatus.TRADING_IN_PROGRESS))
+                                                .entryStatus(block.entryStatus())
+                                                .firstInProgressStatus(block.firstInProgressStatus())
+                                                .build())).build(),
+                                tradingConfig().cutoffTime(LocalTime.of(18, 0)).build(),
+                                tradingConfig().zoneId(ZoneId.of("Pacific/Kiritimati")).build());
+                for (TeamConfig trading : changed) {
+                        IOException e = assertThrows(IOException.class, () -> StreamingTatEngine.restore(checkpoint,
+                                        calculatorWith(trading), report -> {
+                                        }));
+                        assertTrue(e.getMessage().contains("team TRADING"), e.getMessage());
+                }
+
+                assertEquals(1, StreamingTatEngine.restore(checkpoint, calculatorWith(tradingConfig().build()), report -> {
+                }).openOrderCount());
+        }
+
+        @Test
+        void testCheckpointRejectsOversizedIdsAndKeepsThePreviousFile(@TempDir Path directory) throws Exception {
+                StreamingTatEngine engine = new StreamingTatEngine(tatCalculator, report -> {
+                });
+                engine.onEvent("A", OrderStatus.TRADING_OPEN, LocalDateTime.of(2023, 1, 2, 9, 0));
+                Path checkpoint = directory.resolve("engine.ckpt");
+                engine.checkpoint(checkpoint);
+                byte[] previous = Files.readAllBytes(checkpoint);
+
+                // One more byte than the id length field can hold
+                engine.onEvent("A".repeat(65_536), OrderStatus.TRADING_OPEN, LocalDateTime.of(2023, 1, 2, 9, 5));
+                IOException error = assertThrows(IOException.class, () -> engine.checkpoint(checkpoint));
+                assertTrue(error.getMessage().contains("65536"), error.getMessage());
+                ExecutorService executor = Executors.newSingleThreadExecutor();
+                try {
+                        assertTrue(engine.checkpoint(checkpoint, executor).isCompletedExceptionally());
+                } finally {
+                        executor.shutdown();
+                }
+
+                assertArrayEquals(previous, Files.readAllBytes(checkpoint));
+                try (Stream<Path> files = Files.list(directory)) {
+                        assertEquals(List.of(checkpoint), files.toList());
+                }
+        }
+}
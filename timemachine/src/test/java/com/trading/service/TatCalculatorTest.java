@@ -0,0 +1,561 @@
+package com.trading.service;
+
+import com.trading.model.ActivityBlock;
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.StatusDwellTimes;
+import com.trading.model.StatusTransition;
+import com.trading.model.TatReport;
+import com.trading.model.TatSnapshot;
+import com.trading.model.TeamConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TatCalculatorTest {
+
+        private TatCalculator tatCalculator;
+
+        @BeforeEach
+        void setUp() {
+                BusinessDurationCalculator durationCalculator = new BusinessDurationCalculator();
+
+                Set<OrderStatus> auditStatuses = Arrays.stream(OrderStatus.values())
+                                .filter(s -> s.name().startsWith("AUDIT_REVIEW")
+                                                && !s.name().contains("CREDIT_APPROVAL")
+                                                && !s.name().endsWith("_APPROVED"))
+                                .collect(Collectors.toSet());
+
+                Set<OrderStatus> creditApprovalStatuses = Arrays.stream(OrderStatus.values())
+                                .filter(s -> s.name().contains("CREDIT_APPROVAL") && !s.name().endsWith("_APPROVED"))
+                                .collect(Collectors.toSet());
+
+                Set<OrderStatus> tradingStatuses = Arrays.stream(OrderStatus.values())
+                                .filter(s -> s.name().startsWith("TRADING"))
+                                .collect(Collectors.toSet());
+
+                ActivityBlock auditBlock1 = ActivityBlock.builder()
+                                .statuses(auditStatuses)
+                                .entryStatus(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN)
+                                .firstInProgressStatus(OrderStatus.AUDIT_REVIEW_LEVEL1_IN_PROGRESS)
+                                .build();
+
+                ActivityBlock auditBlock2 = ActivityBlock.builder()
+                                .statuses(creditApprovalStatuses)
+                                .entryStatus(OrderStatus.AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL1_OPEN)
+                                .firstInProgressStatus(OrderStatus.AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL1_IN_PROGRESS)
+                                .build();
+
+                TeamConfig auditConfig = TeamConfig.builder()
+                                .teamName("AUDIT_REVIEW")
+                                .activityBlocks(List.of(auditBlock1, auditBlock2))
+                                .startTime(LocalTime.of(9, 0))
+                                .cutoffTime(LocalTime.of(17, 0))
+                                .zoneId(ZoneId.systemDefault())
+                                .build();
+
+                ActivityBlock tradingBlock = ActivityBlock.builder()
+                                .statuses(tradingStatuses)
+                                .entryStatus(OrderStatus.TRADING_OPEN)
+                                .firstInProgressStatus(OrderStatus.TRADING_IN_PROGRESS)
+                                .build();
+
+                TeamConfig tradingConfig = TeamConfig.builder()
+                                .teamName("TRADING")
+                                .activityBlocks(List.of(tradingBlock))
+                                .startTime(LocalTime.of(9, 0))
+                                .cutoffTime(LocalTime.of(17, 0))
+                                .zoneId(ZoneId.systemDefault())
+                                .build();
+
+                tatCalculator = new TatCalculator(durationCalculator, Map.of(
+                                "AUDIT_REVIEW", auditConfig,
+                                "TRADING", tradingConfig));
+        }
+
+        @Test
+        void testOverallTat() {
+                LocalDateTime start = LocalDateTime.of(2023, 1, 2, 10, 0); // Monday
+                List<StatusTransition> transitions = new ArrayList<>();
+                transitions.add(new StatusTransition(OrderStatus.DRAFT, start));
+                transitions.add(new StatusTransition(OrderStatus.SUBMITTED, start.plusMinutes(10)));
+                transitions.add(new StatusTransition(OrderStatus.COMPLETED, start.plusMinutes(60)));
+
+                Order order = Order.builder()
+                                .statusTransitions(transitions)
+                                .build();
+
+                Duration result = tatCalculator.calculateOverallTat(order);
+                assertEquals(Duration.ofMinutes(60), result);
+        }
+
+        @Test
+        void testAuditReviewTeamTat_Standard() {
+                LocalDateTime start = LocalDateTime.of(2023, 1, 2, 10, 0); // Monday 10 AM
+                List<StatusTransition> transitions = new ArrayList<>();
+                // DRAFT: 10:00
+                transitions.add(new StatusTransition(OrderStatus.DRAFT, start));
+                // AUDIT_REVIEW_LEVEL1_OPEN: 10:10
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN, start.plusMinutes(10)));
+                // AUDIT_REVIEW_LEVEL1_IN_PROGRESS: 10:20
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_IN_PROGRESS,
+                                start.plusMinutes(20)));
+                // STARTED: 10:50
+                transitions.add(new StatusTransition(OrderStatus.STARTED, start.plusMinutes(50)));
+
+                // Entry: 10:10 (Before Cutoff) -> Effective Start: 10:10
+                // End: 10:50
+                // Duration: 40m
+
+                Order order = Order.builder()
+                                .statusTransitions(transitions)
+                                .build();
+
+                Duration result = tatCalculator.calculateAuditReviewTeamTat(order);
+                assertEquals(Duration.ofMinutes(40), result);
+        }
+
+        @Test
+        void testAuditReviewTeamTat_ParkedExcluded() {
+                LocalDateTime start = LocalDateTime.of(2023, 1, 2, 10, 0); // Monday
+                List<StatusTransition> transitions = new ArrayList<>();
+
+                // OPEN: 10:00
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN, start));
+
+                // PARKED: 10:10
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_PARKED, start.plusMinutes(10)));
+
+                // IN_PROGRESS: 11:10 (Parked for 60m)
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_IN_PROGRESS,
+                                start.plusMinutes(70)));
+
+                // COMPLETED: 11:20
+                transitions.add(new StatusTransition(OrderStatus.COMPLETED, start.plusMinutes(80)));
+
+                // Entry: 10:00 -> Effective Start: 10:00
+                // End: 11:20
+                // Gross Duration: 80m
+                // Parked: 10:10 -> 11:10 (60m)
+                // Net: 20m
+
+                Order order = Order.builder()
+                                .statusTransitions(transitions)
+                                .build();
+
+                Duration result = tatCalculator.calculateAuditReviewTeamTat(order);
+                assertEquals(Duration.ofMinutes(20), result);
+        }
+
+        @Test
+        void testParkedBusinessTimePerBlock() {
+                LocalDateTime start = LocalDateTime.of(2023, 1, 2, 16, 0); // Monday
+                List<StatusTransition> transitions = List.of(
+                                new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN, start),
+                                // Parked overnight: 16:30 -> Tuesday 10:00, 17.5h wall clock
+                                new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_PARKED, start.plusMinutes(30)),
+                                new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_IN_PROGRESS, start.plusHours(18)),
+                                new StatusTransition(OrderStatus.COMPLETED, start.plusHours(19)));
+
+                Order order = Order.builder()
+                                .orderId("O")
+                                .statusTransitions(transitions)
+                                .build();
+
+                // Business hours of the parked window: 16:30 -> 17:00 and 09:00 -> 10:00; block 2 never entered
+                assertEquals(List.of(Duration.ofMinutes(90), Duration.ZERO),
+                                tatCalculator.calculateParkedBusinessTime(order, "AUDIT_REVIEW"));
+                assertEquals(Duration.ofMinutes(90), tatCalculator.calculateAuditReviewTeamTat(order));
+        }
+
+        @Test
+        void testAuditReviewTeamTat_AfterCutoff() {
+                // Friday 17:30 (After 17:00 cutoff)
+                LocalDateTime start = LocalDateTime.of(2023, 1, 6, 17, 30);
+
+                List<StatusTransition> transitions = new ArrayList<>();
+
+                // OPEN: Fri 17:30
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN, start));
+
+                // COMPLETED: Mon 09:30
+                LocalDateTime end = LocalDateTime.of(2023, 1, 9, 9, 30);
+                transitions.add(new StatusTransition(OrderStatus.COMPLETED, end));
+
+                // Entry: Fri 17:30 (> Cutoff)
+                // Next Business Day Start: Mon 09:00
+                // Effective Start: Mon 09:00
+                // End: Mon 09:30
+                // Duration: 30m
+
+                Order order = Order.builder()
+                                .statusTransitions(transitions)
+                                .build();
+
+                Duration result = tatCalculator.calculateAuditReviewTeamTat(order);
+                assertEquals(Duration.ofMinutes(30), result);
+        }
+
+        @Test
+        void testAuditReviewTeamTat_OverWeekend() {
+                // Friday 16:00
+                LocalDateTime start = LocalDateTime.of(2023, 1, 6, 16, 0);
+
+                List<StatusTransition> transitions = new ArrayList<>();
+
+                // OPEN: Fri 16:00
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN, start));
+
+                // COMPLETED: Mon 10:00
+                LocalDateTime end = LocalDateTime.of(2023, 1, 9, 10, 0);
+                transitions.add(new StatusTransition(OrderStatus.COMPLETED, end));
+
+                // Entry: Fri 16:00 (< Cutoff)
+                // Effective Start: Fri 16:00
+                // End: Mon 10:00
+                // Duration (Wall Clock): Fri 16:00 -> Mon 10:00
+                // Fri 16:00 -> Sat 16:00 (24h)
+                // Sat 16:00 -> Sun 16:00 (24h)
+                // Sun 16:00 -> Mon 10:00 (18h)
+                // Total: 66h = 3960m
+
+                Order order = Order.builder()
+                                .statusTransitions(transitions)
+                                .build();
+
+                Duration result = tatCalculator.calculateAuditReviewTeamTat(order);
+                assertEquals(Duration.ofHours(66), result);
+        }
+
+        @Test
+        void testUserExample() {
+                LocalDateTime t0 = LocalDateTime.of(2023, 1, 2, 9, 0); // DRAFT
+                LocalDateTime t1 = t0.plusMinutes(10); // SUBMITTED
+                LocalDateTime t2 = t0.plusMinutes(20); // STARTED
+                LocalDateTime t3 = t0.plusMinutes(30); // AUDIT_REVIEW_LEVEL1_OPEN
+                LocalDateTime t4 = t0.plusMinutes(40); // AUDIT_REVIEW_LEVEL1_IN_PROGRESS
+                LocalDateTime t5 = t0.plusMinutes(50); // AUDIT_REVIEW_LEVEL1_PARKED
+                LocalDateTime t6 = t0.plusMinutes(110); // AUDIT_REVIEW_LEVEL1_IN_PROGRESS (Parked for 60m)
+                LocalDateTime t7 = t0.plusMinutes(120); // AUDIT_REVIEW_LEVEL1_SUBMITTED
+                LocalDateTime t8 = t0.plusMinutes(130); // AUDIT_REVIEW_LEVEL2_OPEN
+                LocalDateTime t9 = t0.plusMinutes(140); // AUDIT_REVIEW_LEVEL2_IN_PROGRESS
+                LocalDateTime t10 = t0.plusMinutes(150); // AUDIT_REVIEW_LEVEL2_APPROVED
+
+                List<StatusTransition> transitions = new ArrayList<>();
+                transitions.add(new StatusTransition(OrderStatus.DRAFT, t0));
+                transitions.add(new StatusTransition(OrderStatus.SUBMITTED, t1));
+                transitions.add(new StatusTransition(OrderStatus.STARTED, t2));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN, t3));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_IN_PROGRESS, t4));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_PARKED, t5));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_IN_PROGRESS, t6));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_SUBMITTED, t7));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL2_OPEN, t8));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL2_IN_PROGRESS, t9));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL2_APPROVED, t10));
+
+                Order order = Order.builder().statusTransitions(transitions).build();
+
+                // Expected TAT for AUDIT_REVIEW:
+                // T3->T4 (OPEN): 10m
+                // T4->T5 (IN_PROGRESS): 10m
+                // T5->T6 (PARKED): Skipped
+                // T6->T7 (IN_PROGRESS): 10m
+                // T7->T8 (SUBMITTED): 10m
+                // T8->T9 (OPEN): 10m
+                // T9->T10 (IN_PROGRESS): 10m
+                // Total: 60m.
+
+                Duration result = tatCalculator.calculateAuditReviewTeamTat(order);
+                assertEquals(Duration.ofMinutes(60), result);
+        }
+
+        @Test
+        void testAuditReviewTeamTat_MultiBlock() {
+                LocalDateTime t0 = LocalDateTime.of(2023, 1, 2, 9, 0); // DRAFT
+
+                List<StatusTransition> transitions = new ArrayList<>();
+                transitions.add(new StatusTransition(OrderStatus.DRAFT, t0));
+
+                // Block 1: Audit Review Level 1/2
+                // Start: 09:10
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN, t0.plusMinutes(10)));
+                // End: 09:40
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL2_APPROVED, t0.plusMinutes(40)));
+                // Block 1 Duration: 30m
+
+                // Intermediary Trading Block (Not counted for Audit)
+                transitions.add(new StatusTransition(OrderStatus.TRADING_OPEN, t0.plusMinutes(40)));
+                transitions.add(new StatusTransition(OrderStatus.TRADING_IN_PROGRESS, t0.plusMinutes(50)));
+
+                // Block 2: Credit Approval
+                // Start: 10:00
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL1_OPEN,
+                                t0.plusMinutes(60)));
+                // Parked: 10:10
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL1_PARKED,
+                                t0.plusMinutes(70)));
+                // Resume: 10:40 (Parked 30m)
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL1_IN_PROGRESS,
+                                t0.plusMinutes(100)));
+                // End: 11:00
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL2_APPROVED,
+                                t0.plusMinutes(120)));
+
+                // Block 2 Gross: 10:00 -> 11:00 = 60m
+                // Block 2 Parked: 30m
+                // Block 2 Net: 30m
+
+                // Total TAT = 30m (Block 1) + 30m (Block 2) = 60m
+
+                Order order = Order.builder().statusTransitions(transitions).build();
+
+                Duration result = tatCalculator.calculateAuditReviewTeamTat(order);
+                assertEquals(Duration.ofMinutes(60), result);
+        }
+
+        @Test
+        void testTimelineDoesNotMutateTransitions() {
+                LocalDateTime t0 = LocalDateTime.of(2023, 1, 2, 9, 0);
+
+                List<StatusTransition> transitions = new ArrayList<>();
+                transitions.add(new StatusTransition(OrderStatus.COMPLETED, t0.plusMinutes(120)));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_PARKED, t0.plusMinutes(20)));
+                transitions.add(new StatusTransition(OrderStatus.DRAFT, t0));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_IN_PROGRESS, t0.plusMinutes(50)));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN, t0.plusMinutes(10)));
+                List<StatusTransition> original = List.copyOf(transitions);
+
+                Order order = Order.builder().statusTransitions(transitions).build();
+                OrderTimeline timeline = OrderTimeline.of(order);
+
+                // Open 09:10 -> Completed 11:00 = 110m, Parked 09:20 -> 09:50 = 30m
+                assertEquals(Duration.ofMinutes(80), tatCalculator.calculateAuditReviewTeamTat(timeline));
+                assertEquals(Duration.ofMinutes(120), tatCalculator.calculateOverallTat(timeline));
+                assertEquals(Duration.ofMinutes(80), tatCalculator.calculateAuditReviewTeamTat(order));
+                assertEquals(original, transitions);
+                assertEquals(OrderStatus.DRAFT, timeline.statusAt(0));
+                assertEquals(OrderStatus.COMPLETED, timeline.statusAt(timeline.size() - 1));
+        }
+
+        @Test
+        void testReportMatchesIndividualCalculations() {
+                Random random = new Random(20230102L);
+                OrderStatus[] statuses = OrderStatus.values();
+
+                for (int i = 0; i < 5_000; i++) {
+                        LocalDateTime time = LocalDateTime.of(2023, 1, 2, 0, 0).plusMinutes(random.nextInt(7 * 24 * 60));
+                        List<StatusTransition> transitions = new ArrayList<>();
+                        int size = random.nextInt(30);
+                        for (int j = 0; j < size; j++) {
+                                transitions.add(new StatusTransition(statuses[random.nextInt(statuses.length)], time));
+                                time = time.plusMinutes(random.nextInt(4) == 0 ? random.nextInt(3 * 24 * 60)
+                                                : random.nextInt(90));
+                        }
+                        Collections.shuffle(transitions, random);
+                        Order order = Order.builder().orderId("ORDER-" + i).statusTransitions(transitions).build();
+
+                        TatReport report = tatCalculator.calculateReport(order);
+
+                        assertEquals(tatCalculator.calculateOverallTat(order), report.overallTat());
+                        assertEquals(tatCalculator.calculateReviewTat(order), report.reviewTat());
+                        assertEquals(tatCalculator.calculateExecutionTat(order), report.executionTat());
+                        assertEquals(tatCalculator.calculateAuditReviewTeamTat(order), report.auditReviewTeamTat(),
+                                        () -> transitions.toString());
+                        assertEquals(tatCalculator.calculateTradingTeamTat(order), report.tradingTeamTat(),
+                                        () -> transitions.toString());
+                }
+        }
+
+        @Test
+        void testReportBlockBreakdown() {
+                LocalDateTime t0 = LocalDateTime.of(2023, 1, 2, 9, 0);
+
+                List<StatusTransition> transitions = new ArrayList<>();
+                transitions.add(new StatusTransition(OrderStatus.DRAFT, t0));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN, t0.plusMinutes(10)));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL2_APPROVED, t0.plusMinutes(40)));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL1_OPEN,
+                                t0.plusMinutes(60)));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL2_APPROVED,
+                                t0.plusMinutes(75)));
+                transitions.add(new StatusTransition(OrderStatus.COMPLETED, t0.plusMinutes(90)));
+
+                TatReport report = tatCalculator.calculateReport(Order.builder().statusTransitions(transitions).build());
+
+                assertEquals(Duration.ofMinutes(90), report.overallTat());
+                assertEquals(List.of(Duration.ofMinutes(30), Duration.ofMinutes(15)),
+                                report.blockTats(TatReport.AUDIT_REVIEW_TEAM));
+                assertEquals(Duration.ofMinutes(45), report.auditReviewTeamTat());
+                assertEquals(Duration.ZERO, report.tradingTeamTat());
+        }
+
+        @Test
+        void testDwellTimes() {
+                LocalDateTime monday = LocalDateTime.of(2023, 1, 2, 16, 0);
+
+                List<StatusTransition> transitions = new ArrayList<>();
+                transitions.add(new StatusTransition(OrderStatus.DRAFT, monday));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN, monday.plusMinutes(30)));
+                transitions.add(new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_PARKED, monday.plusHours(18)));
+                transitions.add(new StatusTransition(OrderStatus.COMPLETED, monday.plusHours(19)));
+
+                StatusDwellTimes dwell = tatCalculator.calculateDwellTimes(
+                                Order.builder().orderId("A").statusTransitions(transitions).build(), TatReport.AUDIT_REVIEW_TEAM);
+
+                // Open 16:30 -> Tue 10:00: 17h30m wall, 30m Monday + 60m Tuesday within 09:00-17:00
+                assertEquals(Duration.ofMinutes(30).toMillis(), dwell.wallMillis(OrderStatus.DRAFT));
+                assertEquals(Duration.ofMinutes(1_050).toMillis(), dwell.wallMillis(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN));
+                assertEquals(Duration.ofMinutes(90).toMillis(), dwell.businessMillis(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN));
+                assertEquals(Map.of(OrderStatus.DRAFT, Duration.ofMinutes(30),
+                                OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN, Duration.ofMinutes(90),
+                                OrderStatus.AUDIT_REVIEW_LEVEL1_PARKED, Duration.ofMinutes(60)), dwell.businessTimes());
+                assertEquals(0, dwell.wallMillis(OrderStatus.COMPLETED));
+        }
+
+        @Test
+        void testDwellTimesMatchDayLoop() {
+                TatCalculator dayLoop = new TatCalculator(new BusinessDurationCalculator(BusinessDurationCalculator.Mode.DAY_LOOP),
+                                TestFixtures.teamConfigs());
+                Random random = new Random(15);
+
+                for (int i = 0; i < 1_000; i++) {
+                        List<StatusTransition> transitions = TestFixtures.randomTransitions(random, random.nextInt(30), true);
+                        Order order = Order.builder().orderId("ORDER-" + i).statusTransitions(transitions).build();
+
+                        StatusDwellTimes dwell = tatCalculator.calculateDwellTimes(order, TatReport.TRADING_TEAM);
+                        StatusDwellTimes expected = dayLoop.calculateDwellTimes(order, TatReport.TRADING_TEAM);
+
+                        assertArrayEquals(expected.wallMillisByOrdinal(), dwell.wallMillisByOrdinal());
+                        assertArrayEquals(expected.businessMillisByOrdinal(), dwell.businessMillisByOrdinal());
+                        long span = transitions.isEmpty() ? 0 : Duration.between(transitions.get(0).getChangeTime(),
+                                        transitions.get(transitions.size() - 1).getChangeTime()).toMillis();
+                        assertEquals(span, Arrays.stream(dwell.wallMillisByOrdinal()).sum());
+                }
+        }
+
+        @Test
+        void testAsOfMatchesTruncatedTimeline() {
+                Random random = new Random(18);
+
+                for (int i = 0; i < 500; i++) {
+                        List<StatusTransition> transitions = TestFixtures.randomTransitions(random, random.nextInt(40), true);
+                        OrderTimeline timeline = OrderTimeline.of(
+                                        Order.builder().orderId("ORDER-" + i).statusTransitions(transitions).build());
+                        long from = OrderTimeline.toEpochMillis(LocalDateTime.of(2023, 1, 1, 0, 0));
+                        long[] asOf = random.longs(20, from, from + 40L * 86_400_000).sorted().toArray();
+                        if (!timeline.isEmpty()) {
+                                // Exactly on a transition includes that transition
+                                asOf[0] = timeline.timeAt(random.nextInt(timeline.size()));
+                                Arrays.sort(asOf);
+                        }
+
+                        List<TatSnapshot> snapshots = tatCalculator.calculateAsOf(timeline, asOf);
+                        for (int q = 0; q < asOf.length; q++) {
+                                long t = asOf[q];
+                                List<StatusTransition> prefix = transitions.stream()
+                                                .filter(transition -> OrderTimeline.toEpochMillis(transition.getChangeTime()) <= t)
+                                                .toList();
+                                TatReport expected = tatCalculator.calculateReport(
+                                                Order.builder().orderId("ORDER-" + i).statusTransitions(prefix).build());
+
+                                assertEquals(expected.toString(), snapshots.get(q).report().toString());
+                                assertEquals(prefix.isEmpty() ? null : prefix.get(prefix.size() - 1).getStatus(),
+                                                snapshots.get(q).currentStatus());
+                                assertEquals(snapshots.get(q).report().toString(),
+                                                tatCalculator.calculateAsOf(timeline, t).report().toString());
+                        }
+                }
+        }
+
+        @Test
+        void testAsOfCurrentBlock() {
+                LocalDateTime t0 = LocalDateTime.of(2023, 1, 2, 9, 0);
+                OrderTimeline timeline = OrderTimeline.of(Order.builder().orderId("A").statusTransitions(List.of(
+                                new StatusTransition(OrderStatus.DRAFT, t0),
+                                new StatusTransition(OrderStatus.AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL1_OPEN, t0.plusMinutes(10)),
+                                new StatusTransition(OrderStatus.STARTED, t0.plusMinutes(40)))).build());
+
+                TatSnapshot inBlock = tatCalculator.calculateAsOf(timeline, t0.plusMinutes(20));
+                assertEquals(TatReport.AUDIT_REVIEW_TEAM, inBlock.currentTeam());
+                assertEquals(1, inBlock.currentBlock());
+                assertEquals(Duration.ZERO, inBlock.report().auditReviewTeamTat());
+
+                TatSnapshot after = tatCalculator.calculateAsOf(timeline, t0.plusMinutes(40));
+                assertEquals(OrderStatus.STARTED, after.currentStatus());
+                assertEquals(-1, after.currentBlock());
+                assertEquals(Duration.ofMinutes(30), after.report().auditReviewTeamTat());
+                assertEquals(null, tatCalculator.calculateAsOf(timeline, t0.minusMinutes(1)).currentStatus());
+        }
+
+        // Times read at UTC, as instants
+        private static OrderTimeline instantTimeline(String orderId, StatusTransition... transitions) {
+                return OrderTimeline.of(Order.builder().orderId(orderId).statusTransitions(List.of(transitions)).build());
+        }
+
+        @Test
+        void testInstantReportUsesEachTeamsZone() {
+                TatCalculator zoned = new TatCalculator(new BusinessDurationCalculator(),
+                                TestFixtures.teamConfigs(ZoneId.of("America/New_York"), ZoneId.of("Europe/London")));
+
+                // 21:30Z is 17:30 in New York, after the cutoff, so trading starts at 09:00 EDT (13:00Z)
+                OrderTimeline newYork = instantTimeline("A",
+                                new StatusTransition(OrderStatus.TRADING_OPEN, LocalDateTime.of(2023, 3, 13, 21, 30)),
+                                new StatusTransition(OrderStatus.COMPLETED, LocalDateTime.of(2023, 3, 14, 14, 0)));
+                assertEquals(Duration.ofHours(1), zoned.calculateInstantReport(newYork).tradingTeamTat());
+                assertEquals(Duration.ofHours(5), zoned.calculateReport(newYork).tradingTeamTat());
+
+                // 16:30Z is 17:30 in London under summer time
+                OrderTimeline london = instantTimeline("B",
+                                new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN, LocalDateTime.of(2023, 6, 5, 16, 30)),
+                                new StatusTransition(OrderStatus.COMPLETED, LocalDateTime.of(2023, 6, 6, 9, 0)));
+                assertEquals(Duration.ofHours(1), zoned.calculateInstantReport(london).auditReviewTeamTat());
+
+                // Friday 16:00 EST to Monday 10:00 EDT spans the switch to summer time: 65 hours elapsed, not 66
+                OrderTimeline overDst = instantTimeline("C",
+                                new StatusTransition(OrderStatus.TRADING_OPEN, LocalDateTime.of(2023, 3, 10, 21, 0)),
+                                new StatusTransition(OrderStatus.COMPLETED, LocalDateTime.of(2023, 3, 13, 14, 0)));
+                assertEquals(Duration.ofHours(65), zoned.calculateInstantReport(overDst).tradingTeamTat());
+        }
+
+        @Test
+        void testInstantReportMatchesLocalReportInTeamZone() {
+                ZoneId zone = ZoneId.of("Asia/Singapore");
+                TatCalculator zoned = new TatCalculator(new BusinessDurationCalculator(), TestFixtures.teamConfigs(zone, zone));
+                Random random = new Random(22);
+                for (int i = 0; i < 1_000; i++) {
+                        List<StatusTransition> local = TestFixtures.randomTransitions(random, random.nextInt(30), true);
+                        List<StatusTransition> utc = local.stream()
+                                        .map(t -> new StatusTransition(t.getStatus(), t.getChangeTime().minusHours(8)))
+                                        .toList();
+                        TatReport expected = zoned.calculateReport(Order.builder().orderId("O").statusTransitions(local).build());
+                        TatReport actual = zoned.calculateInstantReport(
+                                        OrderTimeline.of(Order.builder().orderId("O").statusTransitions(utc).build()));
+                        for (String team : expected.teamNames()) {
+                                assertEquals(expected.blockTats(team), actual.blockTats(team));
+                        }
+                        for (int team = 0; team < expected.teamNames().size(); team++) {
+                                for (int block = 0; block < expected.blockCount(team); block++) {
+                                        assertEquals(expected.blockEntryMillis(team, block), actual.blockEntryMillis(team, block));
+                                }
+                        }
+                        assertEquals(expected.overallTat(), actual.overallTat());
+                }
+        }
+}
@@ -0,0 +1,121 @@
+package com.trading.service;
+
+import com.trading.model.BusinessCalendar;
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.StatusTransition;
+import com.trading.model.TatMetricSpec;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TatMetricEvaluatorTest {
+
+        private final TatCalculator tatCalculator = TestFixtures.tatCalculator();
+        private final BusinessCalendar calendar = BusinessCalendar.shared(LocalTime.of(9, 0), LocalTime.of(17, 0),
+                        Set.of(), Map.of());
+
+        private static TatMetricSpec between(String name, OrderStatus start, OrderStatus end) {
+                return TatMetricSpec.builder().name(name).startStatuses(Set.of(start)).endStatuses(Set.of(end)).build();
+        }
+
+        @Test
+        void testBuiltInMetricsAsSpecs() {
+                TatMetricEvaluator evaluator = TatMetricEvaluator.compile(List.of(
+                                between("overall", OrderStatus.DRAFT, OrderStatus.COMPLETED),
+                                between("review", OrderStatus.SUBMITTED, OrderStatus.STARTED),
+                                between("execution", OrderStatus.STARTED, OrderStatus.COMPLETED)));
+                Random random = new Random(16);
+                OrderStatus[] statuses = OrderStatus.values();
+
+                for (int i = 0; i < 2_000; i++) {
+                        LocalDateTime time = LocalDateTime.of(2023, 1, 2, 0, 0).plusMinutes(random.nextInt(7 * 24 * 60));
+                        List<StatusTransition> transitions = new ArrayList<>();
+                        for (int j = random.nextInt(30); j > 0; j--) {
+                                transitions.add(new StatusTransition(statuses[random.nextInt(statuses.length)], time));
+                                time = time.plusMinutes(random.nextInt(600));
+                        }
+                        Collections.shuffle(transitions, random);
+                        Order order = Order.builder().orderId("ORDER-" + i).statusTransitions(transitions).build();
+
+                        assertEquals(Map.of(
+                                        "overall", tatCalculator.calculateOverallTat(order),
+                                        "review", tatCalculator.calculateReviewTat(order),
+                                        "execution", tatCalculator.calculateExecutionTat(order)), evaluator.evaluate(order));
+                }
+        }
+
+        @Test
+        void testBusinessTimeExcludingParked() {
+                TatMetricEvaluator evaluator = TatMetricEvaluator.compile(List.of(
+                                TatMetricSpec.builder()
+                                                .name("level2")
+                                                .startStatuses(Set.of(OrderStatus.AUDIT_REVIEW_LEVEL2_OPEN))
+                                                .endStatuses(Set.of(OrderStatus.AUDIT_REVIEW_LEVEL2_APPROVED))
+                                                .calendar(calendar)
+                                                .excludeParked(true)
+                                                .build(),
+                                TatMetricSpec.builder()
+                                                .name("level2Wall")
+                                                .startStatuses(Set.of(OrderStatus.AUDIT_REVIEW_LEVEL2_OPEN))
+                                                .endStatuses(Set.of(OrderStatus.AUDIT_REVIEW_LEVEL2_APPROVED))
+                                                .build(),
+                                TatMetricSpec.builder()
+                                                .name("firstApproval")
+                                                .startStatuses(Set.of(OrderStatus.AUDIT_REVIEW_LEVEL2_OPEN))
+                                                .endStatuses(Set.of(OrderStatus.AUDIT_REVIEW_LEVEL2_APPROVED))
+                                                .endOccurrence(TatMetricSpec.Occurrence.FIRST)
+                                                .build()));
+
+                LocalDateTime monday = LocalDateTime.of(2023, 1, 2, 15, 0);
+                Order order = Order.builder().orderId("A").statusTransitions(List.of(
+                                new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL2_OPEN, monday),
+                                new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL2_PARKED, monday.plusHours(1)),
+                                new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL2_IN_PROGRESS, monday.plusHours(19)),
+                                new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL2_APPROVED, monday.plusHours(20)),
+                                new StatusTransition(OrderStatus.AUDIT_REVIEW_LEVEL2_APPROVED, monday.plusHours(21))))
+                                .build();
+
+                // Business: Mon 15:00-17:00 and Tue 09:00-12:00 is 5h, of which Mon 16:00-17:00 and Tue 09:00-10:00 parked
+                assertEquals(Map.of(
+                                "level2", Duration.ofHours(3),
+                                "level2Wall", Duration.ofHours(21),
+                                "firstApproval", Duration.ofHours(20)), evaluator.evaluate(order));
+        }
+
+        @Test
+        void testBusinessMetricMatchesCalendar() {
+                TatMetricEvaluator evaluator = TatMetricEvaluator.compile(List.of(TatMetricSpec.builder()
+                                .name("business")
+                                .startStatuses(Set.of(OrderStatus.values()))
+                                .endStatuses(Set.of(OrderStatus.COMPLETED))
+                                .calendar(calendar)
+                                .build()));
+                Random random = new Random(61);
+
+                for (int i = 0; i < 1_000; i++) {
+                        OrderTimeline timeline = OrderTimeline.of(Order.builder()
+                                        .orderId("ORDER-" + i)
+                                        .statusTransitions(TestFixtures.randomTransitions(random, 1 + random.nextInt(30), true))
+                                        .build());
+                        Duration expected = calendar.between(timeline.changeTimeAt(0),
+                                        timeline.changeTimeAt(timeline.size() - 1));
+                        assertEquals(expected.toMillis(), evaluator.evaluateMillis(timeline)[0]);
+                }
+                assertThrows(IllegalArgumentException.class, () -> TatMetricEvaluator.compile(List.of(
+                                between("x", OrderStatus.DRAFT, OrderStatus.COMPLETED),
+                                between("x", OrderStatus.DRAFT, OrderStatus.COMPLETED))));
+        }
+}
@@ -0,0 +1,195 @@
+package com.trading.service;
+
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.StatusTransition;
+import com.trading.model.TatReport;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TatReportCacheTest {
+
+        private final TatCalculator tatCalculator = TestFixtures.tatCalculator();
+
+        // Clock moved by hand
+        private static final class ManualClock extends Clock {
+
+                private final AtomicLong millis = new AtomicLong();
+
+                @Override
+                public ZoneId getZone() {
+                        return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(ZoneId zone) {
+                        return this;
+                }
+
+                @Override
+                public Instant instant() {
+                        return Instant.ofEpochMilli(millis.get());
+                }
+        }
+
+        private Order order(String orderId, Random random) {
+                return Order.builder()
+                                .orderId(orderId)
+                                .statusTransitions(TestFixtures.randomTransitions(random, 10 + random.nextInt(20), false))
+                                .build();
+        }
+
+        @Test
+        void testAppendInvalidatesOnlyThatOrder() {
+                Random random = new Random(20);
+                TatReportCache cache = new TatReportCache(tatCalculator);
+                Order a = order("A", random);
+                Order b = order("B", random);
+
+                TatReport reportA = cache.report(a);
+                TatReport reportB = cache.report(b);
+                assertSame(reportA, cache.report(a));
+                assertSame(reportB, cache.report(b));
+
+                List<StatusTransition> transitions = a.statusTransitions();
+                transitions.add(new StatusTransition(OrderStatus.COMPLETED,
+                                transitions.get(transitions.size() - 1).getChangeTime().plusHours(1)));
+                TatReport updated = cache.report(a);
+
+                assertNotSame(reportA, updated);
+                assertEquals(tatCalculator.calculateReport(a).toString(), updated.toString());
+                assertSame(reportB, cache.report(b));
+                assertEquals(new TatReportCache.Stats(3, 3, 0, 0, 2), cache.stats());
+        }
+
+        @Test
+        void testOrderWithoutIdBypassesCache() {
+                Random random = new Random(21);
+                TatReportCache cache = new TatReportCache(tatCalculator);
+                Order idless = order(null, random);
+                Order a = order("A", random);
+                cache.report(a);
+
+                TatReport first = cache.report(idless);
+                TatReport second = cache.report(idless);
+                assertNotSame(first, second);
+                assertEquals(tatCalculator.calculateReport(idless).toString(), second.toString());
+                cache.invalidate(null);
+                assertEquals(new TatReportCache.Stats(0, 3, 0, 0, 1), cache.stats());
+        }
+
+        @Test
+        void testAgeAndSizeEviction() {
+                Random random = new Random(21);
+                ManualClock clock = new ManualClock();
+                TatReportCache cache = TatReportCache.builder()
+                                .calculator(tatCalculator)
+                                .maxSize(100)
+                                .maxAge(Duration.ofSeconds(30))
+                                .clock(clock)
+                                .build();
+
+                Order order = order("A", random);
+                TatReport report = cache.report(order);
+                clock.millis.addAndGet(29_999);
+                assertSame(report, cache.report(order));
+                clock.millis.addAndGet(1);
+                assertNotSame(report, cache.report(order));
+                assertEquals(1, cache.stats().expirations());
+
+                for (int i = 0; i < 1_000; i++) {
+                        clock.millis.incrementAndGet();
+                        cache.report(order("ORDER-" + i, random));
+                        assertTrue(cache.size() <= 100);
+                }
+                assertEquals(901, cache.stats().evictions());
+
+                clock.millis.addAndGet(30_000);
+                cache.cleanUp();
+                assertEquals(0, cache.size());
+        }
+
+        @Test
+        void testEvictionSamplesTheWholeTable() {
+                Random random = new Random(23);
+                ManualClock clock = new ManualClock();
+                TatReportCache cache = TatReportCache.builder()
+                                .calculator(tatCalculator)
+                                .maxSize(1_000)
+                                .maxAge(Duration.ofDays(1))
+                                .clock(clock)
+                                .build();
+
+                // Half the cache is read every round; the other half is one-off orders going cold
+                List<Order> hot = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                        hot.add(order("HOT-" + i, random));
+                        cache.report(hot.get(i));
+                }
+                for (int round = 0; round < 2_000; round++) {
+                        clock.millis.incrementAndGet();
+                        cache.report(order("COLD-" + round, random));
+                        hot.forEach(cache::report);
+                }
+
+                // A sample from the same low buckets every time would soon hold only hot entries and evict
+                // one per round; random probes find a cold one unless every probe lands on a hot entry
+                long hotMisses = cache.stats().misses() - 500 - 2_000;
+assertTrue(hotMisses < 200, "hot entries recomputed: " + hotMisses);
+        }
+
+        @Test
+        void testConcurrentReadersSeeCurrentReports() throws Exception {
+                Random random = new Random(22);
+                List<Order> orders = new ArrayList<>();
+                List<String> expected = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                        Order order = order("ORDER-" + i, random);
+                        orders.add(order);
+                        expected.add(tatCalculator.calculateReport(order).toString());
+                }
+
+                TatReportCache cache = TatReportCache.builder().calculator(tatCalculator).maxSize(150).build();
+                ExecutorService executor = Executors.newFixedThreadPool(8);
+                try {
+                        List<Future<?>> readers = new ArrayList<>();
+                        for (int thread = 0; thread < 8; thread++) {
+                                long seed = thread;
+                                readers.add(executor.submit(() -> {
+                                        Random pick = new Random(seed);
+                                        for (int i = 0; i < 20_000; i++) {
+                                                int index = pick.nextInt(orders.size());
+                                                assertEquals(expected.get(index), cache.report(orders.get(index)).toString());
+                                        }
+                                }));
+                        }
+                        for (Future<?> reader : readers) {
+                                reader.get();
+                        }
+                } finally {
+                        executor.shutdown();
+                }
+
+                TatReportCache.Stats stats = cache.stats();
+                assertEquals(160_000, stats.hits() + stats.misses());
+                assertTrue(stats.hitRate() > 0.5);
+                assertTrue(cache.size() <= 150 + 8);
+        }
+}
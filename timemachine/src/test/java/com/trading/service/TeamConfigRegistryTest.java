@@ -0,0 +1,230 @@
+package com.trading.service;
+
+import com.trading.io.TeamConfigProperties;
+import com.trading.model.ActivityBlock;
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.StatusTransition;
+import com.trading.model.TeamConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TeamConfigRegistryTest {
+
+        private final BusinessDurationCalculator durationCalculator = new BusinessDurationCalculator();
+
+        // The shared fixtures written out in the properties format
+        private static String fixtureProperties(LocalTime tradingCutoff) {
+                StringBuilder text = new StringBuilder("teams = AUDIT_REVIEW, TRADING\n");
+                TestFixtures.teamConfigs().forEach((team, config) -> {
+                        text.append(team).append(".startTime = ").append(config.startTime()).append('\n');
+                        text.append(team).append(".cutoffTime = ")
+                                        .append(team.equals("TRADING") ? tradingCutoff : config.cutoffTime()).append('\n');
+                        text.append(team).append(".blocks = ").append(config.activityBlocks().size()).append('\n');
+                        for (int i = 0; i < config.activityBlocks().size(); i++) {
+                                ActivityBlock block = config.activityBlocks().get(i);
+                                String prefix = team + ".block." + i + ".";
+                                text.append(prefix).append("statuses = ").append(block.statuses().stream()
+                                                .map(OrderStatus::name).sorted().collect(Collectors.joining(", "))).append('\n');
+                                text.append(prefix).append("entryStatus = ").append(block.entryStatus()).append('\n');
+                                text.append(prefix).append("firstInProgressStatus = ")
+                                                .append(block.firstInProgressStatus()).append('\n');
+                        }
+                });
+                return text.toString();
+        }
+
+        @Test
+        void testReadFromFile(@TempDir Path directory) throws Exception {
+                Path file = directory.resolve("teams.properties");
+                Files.writeString(file, fixtureProperties(LocalTime.of(17, 0)) + """
+                                TRADING.zoneId = America/New_York
+                                TRADING.holidays = 2023-12-25, 2023-12-26
+                                TRADING.halfDays = 2023-12-24T12:00
+                                TRADING.block.0.sla = PT2H
+                                """);
+                Map<String, TeamConfig> configs = TeamConfigProperties.read(file);
+
+                assertEquals(List.of("AUDIT_REVIEW", "TRADING"), List.copyOf(configs.keySet()));
+                TeamConfig trading = configs.get("TRADING");
+                assertEquals(ZoneId.of("America/New_York"), trading.zoneId());
+                assertEquals(2, trading.holidays().size());
+                assertEquals(LocalTime.of(12, 0), trading.halfDays().get(LocalDate.of(2023, 12, 24)));
+                assertEquals(Duration.ofHours(2), trading.activityBlocks().get(0).sla());
+                assertEquals(TestFixtures.teamConfigs().get("AUDIT_REVIEW").activityBlocks(),
+                                configs.get("AUDIT_REVIEW").activityBlocks());
+
+                // Same numbers as the calculator built from the fixtures in code
+                TatCalculator expected = TestFixtures.tatCalculator();
+                TatCalculator actual = new TeamConfigRegistry(durationCalculator, TeamConfigProperties.read(file)).snapshot();
+                Random random = new Random(23);
+                for (int i = 0; i < 200; i++) {
+                        OrderTimeline timeline = OrderTimeline.of(Order.builder().orderId("ORDER-" + i)
+                                        .statusTransitions(TestFixtures.randomTransitions(random, 30, true)).build());
+                        assertEquals(expected.calculateAuditReviewTeamTat(timeline), actual.calculateAuditReviewTeamTat(timeline));
+                        assertEquals(expected.calculateTradingTeamTat(timeline),
+                                        actual.calculateTeamTat(timeline, actual.teamHandle("TRADING")));
+                }
+
+                Files.writeString(file, "teams = TRADING\nTRADING.blocks = 1\nTRADING.startTime = 9am\n");
+                IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                                () -> TeamConfigProperties.read(file));
+                assertTrue(error.getMessage().contains("TRADING.block.0.statuses"), error.getMessage());
+        }
+
+        @Test
+        void testUpdateSwapsSnapshot() {
+                TeamConfigRegistry registry = new TeamConfigRegistry(durationCalculator, TestFixtures.teamConfigs());
+                TatCalculator before = registry.snapshot();
+                int tradingHandle = registry.teamHandle("TRADING");
+                int auditHandle = registry.teamHandle("AUDIT_REVIEW");
+
+                // Trading cutoff moves to 10:00 and a new team is added
+                Map<String, TeamConfig> updated = new LinkedHashMap<>(
+                                TeamConfigProperties.parse(properties(fixtureProperties(LocalTime.of(10, 0)))));
+                updated.put("SETTLEMENT", TestFixtures.teamConfigs().get("TRADING"));
+                TatCalculator after = registry.update(updated);
+
+                assertNotSame(before, after);
+                assertEquals(after, registry.snapshot());
+                assertEquals(2, registry.version());
+                assertEquals(tradingHandle, registry.teamHandle("TRADING"));
+                assertEquals(auditHandle, registry.teamHandle("AUDIT_REVIEW"));
+                assertEquals(2, registry.teamHandle("SETTLEMENT"));
+
+                // An entry at 12:00 is after the new cutoff, so trading time only starts the next morning
+                OrderTimeline timeline = OrderTimeline.of(Order.builder().orderId("A").statusTransitions(List.of(
+                                new StatusTransition(OrderStatus.TRADING_OPEN, LocalDateTime.of(2023, 1, 2, 12, 0)),
+                                new StatusTransition(OrderStatus.COMPLETED, LocalDateTime.of(2023, 1, 3, 10, 0))))
+                                .build());
+                assertEquals(Duration.ofHours(22), before.calculateTeamTat(timeline, tradingHandle));
+                assertEquals(Duration.ofHours(1), after.calculateTeamTat(timeline, tradingHandle));
+        }
+
+        @Test
+        void testHandlesSurviveTeamRemoval() {
+                Map<String, TeamConfig> configs = new LinkedHashMap<>(TestFixtures.teamConfigs());
+                configs.put("SETTLEMENT", TestFixtures.teamConfigs().get("TRADING"));
+                TeamConfigRegistry registry = new TeamConfigRegistry(durationCalculator, configs);
+                int auditHandle = registry.teamHandle("AUDIT_REVIEW");
+                int settlementHandle = registry.teamHandle("SETTLEMENT");
+
+                // The team in front of SETTLEMENT is removed, then comes back
+                Map<String, TeamConfig> withoutAudit = new LinkedHashMap<>(configs);
+                withoutAudit.remove("AUDIT_REVIEW");
+                TatCalculator removed = registry.update(withoutAudit);
+
+                OrderTimeline timeline = OrderTimeline.of(Order.builder().orderId("A").statusTransitions(List.of(
+                                new StatusTransition(OrderStatus.TRADING_OPEN, LocalDateTime.of(2023, 1, 2, 10, 0)),
+                                new StatusTransition(OrderStatus.COMPLETED, LocalDateTime.of(2023, 1, 2, 11, 0))))
+                                .build());
+                assertEquals(-1, registry.teamHandle("AUDIT_REVIEW"));
+                assertEquals(settlementHandle, registry.teamHandle("SETTLEMENT"));
+                assertEquals(Duration.ofHours(1), removed.calculateTeamTat(timeline, settlementHandle));
+                IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                                () -> removed.calculateTeamTat(timeline, auditHandle));
+                assertTrue(error.getMessage().contains("AUDIT_REVIEW"), error.getMessage());
+                assertEquals(List.of("TRADING", "SETTLEMENT"), removed.calculateReport(timeline).teamNames());
+
+                withoutAudit.put("CLEARING", TestFixtures.teamConfigs().get("TRADING"));
+                registry.update(withoutAudit);
+                int clearingHandle = registry.teamHandle("CLEARING");
+                assertTrue(clearingHandle != auditHandle && clearingHandle != settlementHandle);
+                assertEquals(-1, registry.teamHandle("AUDIT_REVIEW"));
+
+                TatCalculator restored = registry.update(configs);
+                assertEquals(auditHandle, registry.teamHandle("AUDIT_REVIEW"));
+                assertEquals(settlementHandle, registry.teamHandle("SETTLEMENT"));
+                assertEquals(-1, registry.teamHandle("CLEARING"));
+                assertEquals(Duration.ofHours(1), restored.calculateTeamTat(timeline, settlementHandle));
+        }
+
+        private static Properties properties(String text) {
+                Properties properties = new Properties();
+                try {
+                        properties.load(new StringReader(text));
+                } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                }
+                return properties;
+        }
+
+        @Test
+        void testReadersDuringReloads() throws Exception {
+                Map<String, TeamConfig> early = TeamConfigProperties.parse(properties(fixtureProperties(LocalTime.of(10, 0))));
+                Map<String, TeamConfig> late = TeamConfigProperties.parse(properties(fixtureProperties(LocalTime.of(17, 0))));
+                TeamConfigRegistry registry = new TeamConfigRegistry(durationCalculator, late);
+
+                Random random = new Random(24);
+                List<OrderTimeline> timelines = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                        timelines.add(OrderTimeline.of(Order.builder().orderId("ORDER-" + i)
+                                        .statusTransitions(TestFixtures.randomTransitions(random, 30, true)).build()));
+                }
+                TatCalculator earlyCalculator = new TatCalculator(durationCalculator, early);
+                TatCalculator lateCalculator = new TatCalculator(durationCalculator, late);
+
+                AtomicBoolean running = new AtomicBoolean(true);
+                ExecutorService executor = Executors.newFixedThreadPool(4);
+                try {
+                        List<Future<Integer>> readers = new ArrayList<>();
+                        for (int thread = 0; thread < 4; thread++) {
+                                readers.add(executor.submit(() -> {
+                                        int batches = 0;
+                                        while (running.get() || batches == 0) {
+                                                // A whole batch runs on the snapshot it started with
+                                                TatCalculator snapshot = registry.snapshot();
+                                                int handle = snapshot.teamHandle("TRADING");
+                                                boolean isEarly = snapshot.teams().get(snapshot.teamNames().indexOf("TRADING"))
+                                                                .config().cutoffTime()
+                                                                .equals(LocalTime.of(10, 0));
+                                                TatCalculator reference = isEarly ? earlyCalculator : lateCalculator;
+                                                for (OrderTimeline timeline : timelines) {
+                                                        assertEquals(reference.calculateTradingTeamTat(timeline),
+                                                                        snapshot.calculateTeamTat(timeline, handle));
+                                                }
+                                                batches++;
+                                        }
+                                        return batches;
+                                }));
+                        }
+                        for (int i = 0; i < 200; i++) {
+                                registry.update(i % 2 == 0 ? early : late);
+                        }
+                        running.set(false);
+                        for (Future<Integer> reader : readers) {
+                                assertTrue(reader.get() > 0);
+                        }
+                } finally {
+                        executor.shutdown();
+                }
+                assertEquals(201, registry.version());
+        }
+}
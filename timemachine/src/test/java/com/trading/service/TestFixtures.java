@@ -0,0 +1,107 @@
+package com.trading.service;
+
+import com.trading.model.ActivityBlock;
+import com.trading.model.OrderStatus;
+import com.trading.model.StatusTransition;
+import com.trading.model.TeamConfig;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Team setup shared by the engine tests; mirrors the configuration in TatCalculatorTest
+public final class TestFixtures {
+
+        private TestFixtures() {
+        }
+
+        public static Map<String, TeamConfig> teamConfigs() {
+                Set<OrderStatus> auditStatuses = Arrays.stream(OrderStatus.values())
+                                .filter(s -> s.name().startsWith("AUDIT_REVIEW")
+                                                && !s.name().contains("CREDIT_APPROVAL")
+                                                && !s.name().endsWith("_APPROVED"))
+                                .collect(Collectors.toSet());
+
+                Set<OrderStatus> creditApprovalStatuses = Arrays.stream(OrderStatus.values())
+                                .filter(s -> s.name().contains("CREDIT_APPROVAL") && !s.name().endsWith("_APPROVED"))
+                                .collect(Collectors.toSet());
+
+                Set<OrderStatus> tradingStatuses = Arrays.stream(OrderStatus.values())
+                                .filter(s -> s.name().startsWith("TRADING"))
+                                .collect(Collectors.toSet());
+
+                TeamConfig auditConfig = TeamConfig.builder()
+                                .teamName("AUDIT_REVIEW")
+                                .activityBlocks(List.of(
+                                                ActivityBlock.builder()
+                                                                .statuses(auditStatuses)
+                                                                .entryStatus(OrderStatus.AUDIT_REVIEW_LEVEL1_OPEN)
+                                                                .firstInProgressStatus(OrderStatus.AUDIT_REVIEW_LEVEL1_IN_PROGRESS)
+                                                                .build(),
+                                                ActivityBlock.builder()
+                                                                .statuses(creditApprovalStatuses)
+                                                                .entryStatus(OrderStatus.AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL1_OPEN)
+                                                                .firstInProgressStatus(
+                                                                                OrderStatus.AUDIT_REVIEW_CREDIT_APPROVAL_LEVEL1_IN_PROGRESS)
+                                                                .build()))
+                                .startTime(LocalTime.of(9, 0))
+                                .cutoffTime(LocalTime.of(17, 0))
+                                .zoneId(ZoneId.systemDefault())
+                                .build();
+
+                TeamConfig tradingConfig = TeamConfig.builder()
+                                .teamName("TRADING")
+                                .activityBlocks(List.of(ActivityBlock.builder()
+                                                .statuses(tradingStatuses)
+                                                .entryStatus(OrderStatus.TRADING_OPEN)
+                                                .firstInProgressStatus(OrderStatus.TRADING_IN_PROGRESS)
+                                                .build()))
+                                .startTime(LocalTime.of(9, 0))
+                                .cutoffTime(LocalTime.of(17, 0))
+                                .zoneId(ZoneId.systemDefault())
+                                .build();
+
+                return Map.of("AUDIT_REVIEW", auditConfig, "TRADING", tradingConfig);
+        }
+
+        // The same teams placed in the given zones, e.g. for instant-based calculations
+        public static Map<String, TeamConfig> teamConfigs(ZoneId tradingZone, ZoneId auditZone) {
+                Map<String, TeamConfig> configs = new HashMap<>();
+                teamConfigs().forEach((name, config) -> configs.put(name, TeamConfig.builder()
+                                .teamName(config.teamName())
+                                .activityBlocks(config.activityBlocks())
+                                .startTime(config.startTime())
+                                .cutoffTime(config.cutoffTime())
+                                .zoneId(name.equals("TRADING") ? tradingZone : auditZone)
+                                .build()));
+                return configs;
+        }
+
+        public static TatCalculator tatCalculator() {
+                return new TatCalculator(new BusinessDurationCalculator(), teamConfigs());
+        }
+
+        // Time-ordered random walk over statuses; COMPLETED only ever appears as the last transition
+        public static List<StatusTransition> randomTransitions(Random random, int size, boolean completed) {
+                OrderStatus[] statuses = OrderStatus.values();
+                LocalDateTime time = LocalDateTime.of(2023, 1, 2, 0, 0).plusMinutes(random.nextInt(7 * 24 * 60));
+                List<StatusTransition> transitions = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                        OrderStatus status = statuses[random.nextInt(statuses.length - 1)];
+                        transitions.add(new StatusTransition(status, time));
+                        time = time.plusMinutes(random.nextInt(4) == 0 ? random.nextInt(3 * 24 * 60) : random.nextInt(90));
+                }
+                if (completed) {
+                        transitions.add(new StatusTransition(OrderStatus.COMPLETED, time));
+                }
+                return transitions;
+        }
+}
@@ -0,0 +1,125 @@
+package com.trading.store;
+
+import com.trading.model.Order;
+import com.trading.model.OrderStatus;
+import com.trading.model.OrderTimeline;
+import com.trading.model.TatSnapshot;
+import com.trading.service.TatCalculator;
+import com.trading.service.TestFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColumnarOrderStoreTest {
+
+        private final TatCalculator tatCalculator = TestFixtures.tatCalculator();
+
+        private static List<Order> randomOrders(int count) {
+                Random random = new Random(5);
+                List<Order> orders = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                        orders.add(Order.builder()
+                                        .orderId("ORDER-" + i)
+                                        .status(OrderStatus.COMPLETED)
+                                        .statusTransitions(TestFixtures.randomTransitions(random, random.nextInt(40), true))
+                                        .build());
+                }
+                return orders;
+        }
+
+        private void assertSlicesMatchOrders(ColumnarOrderStore store, List<Order> orders) {
+                orders.forEach(store::add);
+
+                assertEquals(orders.size(), store.orderCount());
+                assertEquals(orders.stream().mapToLong(o -> o.statusTransitions().size()).sum(), store.transitionCount());
+
+                List<String> expected = orders.stream().map(o -> tatCalculator.calculateReport(o).toString()).toList();
+                List<String> actual = new ArrayList<>();
+                store.calculateReports(tatCalculator, report -> actual.add(report.toString()));
+                assertEquals(expected, actual);
+
+                for (int i = 0; i < orders.size(); i++) {
+                        assertEquals(i, store.indexOf(orders.get(i).orderId()));
+                }
+                int index = store.indexOf("ORDER-17");
+                assertEquals("ORDER-17", store.orderId(index));
+                assertEquals(OrderStatus.COMPLETED, store.status(index));
+                assertEquals(tatCalculator.calculateReport(orders.get(17)).toString(),
+                                tatCalculator.calculateReport(store.slice(index)).toString());
+        }
+
+        @Test
+        void testHeapStore() {
+                // Tiny chunks so orders straddle chunk boundaries
+                assertSlicesMatchOrders(new ColumnarOrderStore(false, 6), randomOrders(3000));
+        }
+
+        @Test
+        void testOffHeapStore() {
+                assertSlicesMatchOrders(new ColumnarOrderStore(true, 6), randomOrders(500));
+        }
+
+        @Test
+        void testDuplicateOrderRejected() {
+                ColumnarOrderStore store = new ColumnarOrderStore();
+                Order order = randomOrders(1).get(0);
+                store.add(order);
+
+                assertThrows(IllegalArgumentException.class, () -> store.add(order));
+                assertEquals(-1, store.indexOf("UNKNOWN"));
+
+                int index = store.add(Order.builder().orderId("ORDRE-Zürich-€").statusTransitions(order.statusTransitions()).build());
+                assertEquals("ORDRE-Zürich-€", store.orderId(index));
+                assertEquals(index, store.indexOf("ORDRE-Zürich-€"));
+        }
+
+        @Test
+        void testOrderWithoutIdStored() {
+                ColumnarOrderStore store = new ColumnarOrderStore(true, 6);
+                Order order = randomOrders(1).get(0);
+                Order idless = Order.builder().statusTransitions(order.statusTransitions()).build();
+                store.add(Order.builder().orderId("").statusTransitions(order.statusTransitions()).build());
+
+                int index = store.add(idless);
+                assertEquals(1, index);
+                assertNull(store.orderId(index));
+                assertEquals(index, store.indexOf(null));
+                assertEquals(0, store.indexOf(""));
+                assertEquals("", store.orderId(0));
+                assertEquals(tatCalculator.calculateReport(idless).toString(),
+                                tatCalculator.calculateReport(store.slice(index)).toString());
+                assertThrows(IllegalArgumentException.class, () -> store.add(idless));
+                assertEquals(2, store.orderCount());
+        }
+
+        @Test
+        void testAsOfReportsOpenOrders() {
+                ColumnarOrderStore store = new ColumnarOrderStore();
+                List<Order> orders = randomOrders(200);
+                orders.forEach(store::add);
+                long t = OrderTimeline.toEpochMillis(LocalDateTime.of(2023, 1, 5, 12, 0));
+
+                List<TatSnapshot> snapshots = new ArrayList<>();
+                store.calculateAsOf(tatCalculator, new long[] {t}, snapshots::add);
+
+                List<String> open = orders.stream()
+                                .filter(order -> {
+                                        OrderTimeline timeline = OrderTimeline.of(order);
+                                        int before = 0;
+                                        while (before < timeline.size() && timeline.timeAt(before) <= t) {
+                                                before++;
+                                        }
+                                        return before > 0 && timeline.statusAt(before - 1) != OrderStatus.COMPLETED;
+                                })
+                                .map(Order::orderId)
+                                .toList();
+                assertEquals(open, snapshots.stream().map(snapshot -> snapshot.report().orderId()).toList());
+        }
+}